@@ -0,0 +1,47 @@
+package guru.mikelue.jpa.benchmark;
+
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * The entry of benchmarks, which writes results as JSON to "target/jmh-result.json" by default.
+ *
+ * <p>All of the command line options of JMH are supported, which override the default ones.</p>
+ */
+public class BenchmarkMain {
+	private final static String DEFAULT_RESULT_FILE = "target/jmh-result.json";
+
+	private BenchmarkMain() {}
+
+	public static void main(String[] args) throws Exception
+	{
+		CommandLineOptions commandLineOptions = new CommandLineOptions(args);
+
+		/**
+		 * Listing or help of JMH
+		 */
+		if (
+			commandLineOptions.shouldHelp() || commandLineOptions.shouldList() ||
+			commandLineOptions.shouldListProfilers() || commandLineOptions.shouldListResultFormats()
+		) {
+			org.openjdk.jmh.Main.main(args);
+			return;
+		}
+		// :~)
+
+		Options options = new OptionsBuilder()
+			.parent(commandLineOptions)
+			.resultFormat(
+				commandLineOptions.getResultFormat().orElse(ResultFormatType.JSON)
+			)
+			.result(
+				commandLineOptions.getResult().orElse(DEFAULT_RESULT_FILE)
+			)
+			.build();
+
+		new Runner(options).run();
+	}
+}
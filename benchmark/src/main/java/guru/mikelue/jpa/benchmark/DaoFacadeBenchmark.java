@@ -0,0 +1,143 @@
+package guru.mikelue.jpa.benchmark;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.persistence.EntityManager;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import guru.mikelue.jpa.benchmark.model.BenchmarkCar;
+import guru.mikelue.jpa.dao.AbstractTypedDaoFacadeBase;
+
+/**
+ * Benchmarks of CRUD operations by {@link AbstractTypedDaoFacadeBase} against in-memory HSQLDB.
+ *
+ * <p>Every invocation uses a new entity manager, so the first-level cache doesn't affect the result.</p>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations=3, time=1)
+@Measurement(iterations=5, time=1)
+@Fork(1)
+public class DaoFacadeBenchmark {
+	private final static int NEW_ID_BASE = 100000000;
+	/**
+	 * Shared among threads(the state is per-thread), so that "-t" Shared by all of the threads(this object is per-thread), so the ids of new entities never collide with "-t" &gt; 1gt; 1 won't generate duplicated ids
+	 */
+	private final static AtomicInteger newIdSequence = new AtomicInteger(NEW_ID_BASE);
+
+	private int sequence = 0;
+
+	public DaoFacadeBenchmark() {}
+
+	@Benchmark
+	public BenchmarkCar find(DatabaseState database)
+	{
+		BenchmarkCarDao dao = new BenchmarkCarDao(database.createEntityManager());
+		try {
+			return dao.find(nextExistedId(database));
+		} finally {
+			dao.close();
+		}
+	}
+	@Benchmark
+	public List<BenchmarkCar> createTypedQuery(DatabaseState database)
+	{
+		BenchmarkCarDao dao = new BenchmarkCarDao(database.createEntityManager());
+		try {
+			return dao.createTypedQuery("SELECT c FROM BenchmarkCar AS c WHERE c.name = :name")
+				.setParameter("name", "car-" + nextExistedId(database))
+				.getResultList();
+		} finally {
+			dao.close();
+		}
+	}
+	@Benchmark
+	public BenchmarkCar saveExisted(DatabaseState database)
+	{
+		BenchmarkCarDao dao = new BenchmarkCarDao(database.createEntityManager());
+		try {
+			BenchmarkCar car = new BenchmarkCar();
+			car.setId(nextExistedId(database));
+			car.setName("car-" + car.getId());
+			car.setStatus(sequence % 256);
+
+			dao.getEntityManager().getTransaction().begin();
+			car = dao.saveExisted(car);
+			dao.getEntityManager().getTransaction().commit();
+
+			return car;
+		} finally {
+			dao.close();
+		}
+	}
+	/**
+	 * Persists a new entity and removes it by primary key.
+	 */
+	@Benchmark
+	public boolean saveNewAndRemove(DatabaseState database)
+	{
+		BenchmarkCarDao dao = new BenchmarkCarDao(database.createEntityManager());
+		try {
+			BenchmarkCar car = new BenchmarkCar();
+			car.setId(newIdSequence.getAndIncrement());
+			car.setName("new-car");
+			car.setStatus(0);
+
+			dao.getEntityManager().getTransaction().begin();
+			dao.saveNew(car);
+			dao.getEntityManager().getTransaction().commit();
+
+			dao.getEntityManager().clear();
+
+			dao.getEntityManager().getTransaction().begin();
+			boolean removed = dao.remove(car.getId());
+			dao.getEntityManager().getTransaction().commit();
+
+			return removed;
+		} finally {
+			dao.close();
+		}
+	}
+
+	private int nextExistedId(DatabaseState database)
+	{
+		return (sequence++ % database.numberOfRows) + 1;
+	}
+}
+
+/**
+ * As application-managed DAO object for benchmarks, one object per entity manager.
+ */
+class BenchmarkCarDao extends AbstractTypedDaoFacadeBase<BenchmarkCar, Integer> {
+	private final EntityManager entityManager;
+
+	BenchmarkCarDao(EntityManager newEntityManager)
+	{
+		entityManager = newEntityManager;
+	}
+
+	@Override
+	public EntityManager getEntityManager()
+	{
+		return entityManager;
+	}
+
+	void close()
+	{
+		if (entityManager.getTransaction().isActive()) {
+			entityManager.getTransaction().rollback();
+		}
+		entityManager.close();
+	}
+}
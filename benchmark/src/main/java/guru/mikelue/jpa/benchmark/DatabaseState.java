@@ -0,0 +1,69 @@
+package guru.mikelue.jpa.benchmark;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import static javax.persistence.Persistence.createEntityManagerFactory;
+
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import guru.mikelue.jpa.benchmark.model.BenchmarkCar;
+
+/**
+ * The in-memory HSQLDB(persistence unit "benchmark") shared by benchmarks of a trial.
+ *
+ * <p>The table would be populated with {@link #numberOfRows} cars, whose ids are 1 to {@link #numberOfRows}.</p>
+ */
+@State(Scope.Benchmark)
+public class DatabaseState {
+	@Param({ "10000" })
+	public int numberOfRows;
+
+	private EntityManagerFactory emf;
+
+	public DatabaseState() {}
+
+	@Setup(Level.Trial)
+	public void setup()
+	{
+		emf = createEntityManagerFactory("benchmark");
+
+		EntityManager em = emf.createEntityManager();
+		em.getTransaction().begin();
+		for (int i = 1; i <= numberOfRows; i++) {
+			BenchmarkCar car = new BenchmarkCar();
+			car.setId(i);
+			car.setName("car-" + i);
+			car.setStatus(i % 256);
+			em.persist(car);
+
+			if (i % 500 == 0) {
+				em.flush();
+				em.clear();
+			}
+		}
+		em.getTransaction().commit();
+		em.close();
+	}
+	@TearDown(Level.Trial)
+	public void tearDown()
+	{
+		if (emf != null && emf.isOpen()) {
+			emf.close();
+		}
+	}
+
+	/**
+	 * Creates a new entity manager, which should be closed by caller.
+	 *
+	 * @return new entity manager
+	 */
+	public EntityManager createEntityManager()
+	{
+		return emf.createEntityManager();
+	}
+}
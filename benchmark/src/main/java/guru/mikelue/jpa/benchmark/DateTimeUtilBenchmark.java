@@ -0,0 +1,86 @@
+package guru.mikelue.jpa.benchmark;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.Calendar;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import guru.mikelue.jpa.data.DateTimeUtil;
+
+/**
+ * Benchmarks of truncation by {@link DateTimeUtil}, the "calendar*" ones are the conversions through {@link Calendar}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations=3, time=1)
+@Measurement(iterations=5, time=1)
+@Fork(1)
+public class DateTimeUtilBenchmark {
+	private java.util.Date sourceDate = new java.util.Date(1445166000123L);
+	private Instant sourceInstant = sourceDate.toInstant();
+	private Timestamp leftTimestamp = new Timestamp(1445166000123L);
+	private Timestamp rightTimestamp = new Timestamp(1445166000456L);
+
+	public DateTimeUtilBenchmark() {}
+
+	@Benchmark
+	public Date calendarConvertToDate()
+	{
+		Calendar calendar = Calendar.getInstance();
+		calendar.setTime(sourceDate);
+		return DateTimeUtil.convertToDate(calendar);
+	}
+	@Benchmark
+	public Date convertToDate()
+	{
+		return DateTimeUtil.convertToDate(sourceDate);
+	}
+	@Benchmark
+	public Date convertInstantToDate()
+	{
+		return DateTimeUtil.convertToDate(sourceInstant);
+	}
+
+	@Benchmark
+	public Timestamp calendarConvertToTimestamp()
+	{
+		Calendar calendar = Calendar.getInstance();
+		calendar.setTime(sourceDate);
+		return DateTimeUtil.convertToTimestamp(calendar);
+	}
+	@Benchmark
+	public Timestamp convertToTimestamp()
+	{
+		return DateTimeUtil.convertToTimestamp(sourceDate);
+	}
+
+	@Benchmark
+	public int calendarCompareTimestamp()
+	{
+		Calendar leftCalendar = Calendar.getInstance();
+		leftCalendar.setTime(leftTimestamp);
+		Calendar rightCalendar = Calendar.getInstance();
+		rightCalendar.setTime(rightTimestamp);
+
+		return DateTimeUtil.trimToSQLTimestamp(leftCalendar).compareTo(
+			DateTimeUtil.trimToSQLTimestamp(rightCalendar)
+		);
+	}
+	@Benchmark
+	public int compareTimestamp()
+	{
+		return DateTimeUtil.compare(leftTimestamp, rightTimestamp);
+	}
+}
@@ -0,0 +1,64 @@
+package guru.mikelue.jpa.benchmark;
+
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import guru.mikelue.jpa.benchmark.model.BenchmarkStatus;
+import guru.mikelue.jpa.data.DbValueCodec;
+import guru.mikelue.jpa.data.DbValueUtil;
+
+/**
+ * Benchmarks of conversions by {@link DbValueUtil}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations=3, time=1)
+@Measurement(iterations=5, time=1)
+@Fork(1)
+public class DbValueUtilBenchmark {
+	private Integer joinedValue = 1 | 4 | 16 | 64;
+	private int dbValue = 16;
+	private EnumSet<BenchmarkStatus> enumSet = EnumSet.of(
+		BenchmarkStatus.Created, BenchmarkStatus.Painted, BenchmarkStatus.Shipped, BenchmarkStatus.Returned
+	);
+
+	public DbValueUtilBenchmark() {}
+
+	@Benchmark
+	public Map<Integer, BenchmarkStatus> convertToIntMap()
+	{
+		return DbValueUtil.convertToIntMap(BenchmarkStatus.class);
+	}
+	@Benchmark
+	public Map<String, BenchmarkStatus> convertToStringMap()
+	{
+		return DbValueUtil.convertToStringMap(BenchmarkStatus.class);
+	}
+	@Benchmark
+	public EnumSet<BenchmarkStatus> joinedValueToEnumSet()
+	{
+		return DbValueUtil.joinedValueToEnumSet(BenchmarkStatus.class, joinedValue);
+	}
+	@Benchmark
+	public Integer enumSetToJoinedValue()
+	{
+		return DbValueUtil.enumSetToJoinedValue(Integer.class, enumSet);
+	}
+	@Benchmark
+	public BenchmarkStatus fromDbValue()
+	{
+		return DbValueCodec.of(BenchmarkStatus.class).fromDbValue(dbValue);
+	}
+}
@@ -0,0 +1,88 @@
+package guru.mikelue.jpa.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import guru.mikelue.jpa.paging.FetchPhase;
+import guru.mikelue.jpa.paging.PagingRequestBean;
+import guru.mikelue.jpa.paging.PagingResultBean;
+import guru.mikelue.jpa.paging.PagingUtil;
+
+/**
+ * Benchmarks of paging in-memory list by {@link PagingUtil#filterDataToPage}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations=3, time=1)
+@Measurement(iterations=5, time=1)
+@Fork(1)
+public class PagingBenchmark {
+	private final static int PAGE_SIZE = 20;
+
+	@Param({ "1000", "100000", "500000" })
+	public int listSize;
+
+	private List<Integer> srcList;
+
+	public PagingBenchmark() {}
+
+	@Setup
+	public void setup()
+	{
+		srcList = new ArrayList<Integer>(listSize);
+		for (int i = 0; i < listSize; i++) {
+			srcList.add(i);
+		}
+	}
+
+	@Benchmark
+	public List<Integer> firstPage()
+	{
+		return PagingUtil.filterDataToPage(
+			srcList, new PagingResultBean(new PagingRequestBean(1, PAGE_SIZE, 3))
+		);
+	}
+	@Benchmark
+	public List<Integer> middlePage()
+	{
+		return PagingUtil.filterDataToPage(
+			srcList, new PagingResultBean(new PagingRequestBean(listSize / PAGE_SIZE / 2, PAGE_SIZE, 3))
+		);
+	}
+	@Benchmark
+	public List<Integer> lastPage()
+	{
+		return PagingUtil.filterDataToPage(
+			srcList, new PagingResultBean(new PagingRequestBean(PagingRequestBean.LAST_PAGE, PAGE_SIZE, 3))
+		);
+	}
+	@Benchmark
+	public List<Integer> overflowPageWithLastFetch()
+	{
+		return PagingUtil.filterDataToPage(
+			srcList, new PagingResultBean(new PagingRequestBean(listSize, PAGE_SIZE, 3)),
+			FetchPhase.LastFetch
+		);
+	}
+	@Benchmark
+	public List<Integer> middlePageView()
+	{
+		return PagingUtil.filterDataToPageView(
+			srcList, new PagingResultBean(new PagingRequestBean(listSize / PAGE_SIZE / 2, PAGE_SIZE, 3))
+		);
+	}
+}
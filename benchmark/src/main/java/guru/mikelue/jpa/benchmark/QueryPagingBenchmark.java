@@ -0,0 +1,141 @@
+package guru.mikelue.jpa.benchmark;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import javax.persistence.EntityManager;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import guru.mikelue.jpa.benchmark.model.BenchmarkCar;
+import guru.mikelue.jpa.paging.FetchPhase;
+import guru.mikelue.jpa.paging.PagingRequestBean;
+import guru.mikelue.jpa.paging.PagingResultBean;
+import guru.mikelue.jpa.paging.PagingUtil;
+import guru.mikelue.jpa.query.QueryUtil;
+import guru.mikelue.jpa.query.TypedListResultQueryAction;
+
+/**
+ * Benchmarks of {@link guru.mikelue.jpa.paging.TwoPhasePagingRunner}(through {@link PagingUtil})
+ * and incremental queries of {@link QueryUtil} against in-memory HSQLDB.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations=3, time=1)
+@Measurement(iterations=5, time=1)
+@Fork(1)
+public class QueryPagingBenchmark {
+	private final static int PAGE_SIZE = 20;
+	private final static String QUERY_CARS = "SELECT c FROM BenchmarkCar AS c ORDER BY c.id";
+
+	@Param({ "1", "250" })
+	public int targetPage;
+
+	public QueryPagingBenchmark() {}
+
+	@Benchmark
+	public List<BenchmarkCar> twoPhasePaging(DatabaseState database)
+	{
+		EntityManager em = database.createEntityManager();
+		try {
+			return PagingUtil.queryAndFilterDataToPage(
+				em.createQuery(QUERY_CARS, BenchmarkCar.class),
+				new PagingResultBean(new PagingRequestBean(targetPage, PAGE_SIZE, 3)),
+				FetchPhase.LastFetch
+			);
+		} finally {
+			em.close();
+		}
+	}
+	/**
+	 * The target page is out of range, which executes the second phase.
+	 */
+	@Benchmark
+	public List<BenchmarkCar> twoPhasePagingWithOverflow(DatabaseState database)
+	{
+		EntityManager em = database.createEntityManager();
+		try {
+			return PagingUtil.queryAndFilterDataToPage(
+				em.createQuery(QUERY_CARS, BenchmarkCar.class),
+				new PagingResultBean(new PagingRequestBean(database.numberOfRows, PAGE_SIZE, 3)),
+				FetchPhase.LastFetch
+			);
+		} finally {
+			em.close();
+		}
+	}
+	@Benchmark
+	public List<BenchmarkCar> lastPage(DatabaseState database)
+	{
+		EntityManager em = database.createEntityManager();
+		try {
+			return PagingUtil.queryAndFilterDataToPage(
+				em.createQuery(QUERY_CARS, BenchmarkCar.class),
+				new PagingResultBean(new PagingRequestBean(PagingRequestBean.LAST_PAGE, PAGE_SIZE, 3))
+			);
+		} finally {
+			em.close();
+		}
+	}
+	@Benchmark
+	public List<BenchmarkCar> lastPageWithCount(DatabaseState database)
+	{
+		EntityManager em = database.createEntityManager();
+		try {
+			return PagingUtil.queryAndFilterDataToPage(
+				em.createQuery(QUERY_CARS, BenchmarkCar.class),
+				em.createQuery(QueryUtil.buildCountQueryString(QUERY_CARS)),
+				new PagingResultBean(new PagingRequestBean(PagingRequestBean.LAST_PAGE, PAGE_SIZE, 3))
+			);
+		} finally {
+			em.close();
+		}
+	}
+
+	/**
+	 * Only the last action of incremental queries has data.
+	 */
+	@Benchmark
+	@SuppressWarnings("unchecked")
+	public List<BenchmarkCar> incrementalQuery(DatabaseState database)
+	{
+		final EntityManager em = database.createEntityManager();
+		try {
+			return QueryUtil.getListResultByIncrementalQuery(
+				new CarsByNameAction(em, "no-such-car-1"),
+				new CarsByNameAction(em, "no-such-car-2"),
+				new CarsByNameAction(em, "car-" + targetPage)
+			);
+		} finally {
+			em.close();
+		}
+	}
+
+	private static class CarsByNameAction implements TypedListResultQueryAction<BenchmarkCar> {
+		private final EntityManager em;
+		private final String name;
+
+		CarsByNameAction(EntityManager newEm, String newName)
+		{
+			em = newEm;
+			name = newName;
+		}
+
+		@Override
+		public List<BenchmarkCar> getListResult()
+		{
+			return em.createQuery("SELECT c FROM BenchmarkCar AS c WHERE c.name = :name", BenchmarkCar.class)
+				.setParameter("name", name)
+				.getResultList();
+		}
+	}
+}
@@ -0,0 +1,35 @@
+package guru.mikelue.jpa.benchmark.model;
+
+import javax.persistence.*;
+
+/**
+ * This entity is for benchmarks against in-memory database.
+ */
+@Entity
+@Table(name="bm_car")
+public class BenchmarkCar {
+    public BenchmarkCar() {}
+
+    @Id
+    @Column(name="car_id")
+    private Integer id;
+    @Column(name="car_name", nullable=false, length=64)
+    private String name;
+    @Column(name="car_status", nullable=false)
+    private Integer status;
+
+    public Integer getId() { return this.id; }
+    public void setId(Integer newId) { this.id = newId; }
+
+	public void setName(String newName) { this.name = newName; }
+	public String getName() { return this.name; }
+
+    public void setStatus(Integer newStatus) { this.status = newStatus; }
+    public Integer getStatus() { return this.status; }
+
+    @Override
+    public String toString()
+    {
+        return String.format("[%d] '%s'(%d)", getId(), getName(), getStatus());
+    }
+}
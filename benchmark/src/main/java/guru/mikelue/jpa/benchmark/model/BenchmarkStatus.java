@@ -0,0 +1,22 @@
+package guru.mikelue.jpa.benchmark.model;
+
+import guru.mikelue.jpa.data.DbValueGetter;
+
+/**
+ * Bit-flag enumeration for benchmarks of {@link guru.mikelue.jpa.data.DbValueUtil}.
+ */
+public enum BenchmarkStatus implements DbValueGetter<Integer> {
+	Created(1), Checked(2), Painted(4), Tested(8), Shipped(16), Sold(32), Returned(64), Scrapped(128);
+
+	private int dbValue;
+	BenchmarkStatus(int newDbValue)
+	{
+		dbValue = newDbValue;
+	}
+
+	@Override
+	public Integer getDbValue()
+	{
+		return dbValue;
+	}
+}
@@ -0,0 +1,224 @@
+package guru.mikelue.jpa.dao;
+
+import com.googlecode.gentyref.GenericTypeReflector;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.EntityTransaction;
+import javax.persistence.TypedQuery;
+
+import guru.mikelue.jpa.paging.FetchPhase;
+import guru.mikelue.jpa.paging.PagingResultBean;
+import guru.mikelue.jpa.paging.PagingUtil;
+
+/**
+ * This class provides asynchronous(non-blocking) DAO for data querying, every operation returns a {@link CompletableFuture}.
+ *
+ * <p>Every operation is executed by the {@link #getExecutor() executor} with <strong>its own entity manager</strong>
+ * created from {@link #getEntityManagerFactory()}, and is enclosed by a resource-local transaction(if supported),
+ * so that independent lookups could be overlapped. The returned entities are <strong>detached</strong>.</p>
+ *
+ * <p>The executor should be bounded(e.g., {@link #newBoundedExecutor(int, int)}) to prevent exhausting the connection pool,
+ * and should not run the rejected task by the calling thread(e.g., {@link ThreadPoolExecutor.CallerRunsPolicy}),
+ * which opens another entity manager beyond the bound.
+ * In container-managed environment, the entity manager factory could be injected by {@link javax.persistence.PersistenceUnit}.</p>
+ *
+ * @param <T>		The type of JPA entity.
+ * @param <PK_T>	The type of JPA entity's primary key
+ *
+ * @see AbstractTypedDaoFacadeBase
+ */
+public abstract class AbstractAsyncTypedDaoFacade<T, PK_T> {
+    private final Logger logger = LoggerFactory.getLogger(this.getClass());
+
+	private final Class<T> entityType;
+
+	@SuppressWarnings("unchecked")
+	protected AbstractAsyncTypedDaoFacade()
+	{
+		entityType = (Class<T>)GenericTypeReflector.erase(
+			GenericTypeReflector.getTypeParameter(this.getClass(), AbstractAsyncTypedDaoFacade.class.getTypeParameters()[0])
+		);
+
+		getLogger().debug("Initialize entity type: {}", entityType);
+		if (entityType == null) {
+			throw new RuntimeException("Can't find generic entity type<T> of " + getClass().toString());
+		}
+	}
+
+	/**
+	 * Builds an executor with bounded threads and bounded queue of tasks.
+	 *
+	 * <p>If all of the threads are busy and the queue is full, the task would be rejected by
+	 * {@link RejectedExecutionException}(thrown by the operations of this class), so that the number of
+	 * entity managers(and connections) in use never exceeds the maximum number of threads.</p>
+	 *
+	 * @param maxThreads The maximum number of threads, which should not exceed the size of connection pool
+	 * @param queueCapacity The capacity of queue for waiting tasks
+	 *
+	 * @return The executor, which should be shutdown by client code
+	 */
+	public static ExecutorService newBoundedExecutor(int maxThreads, int queueCapacity)
+	{
+		ThreadPoolExecutor executor = new ThreadPoolExecutor(
+			maxThreads, maxThreads, 60, TimeUnit.SECONDS,
+			new ArrayBlockingQueue<Runnable>(queueCapacity),
+			new ThreadPoolExecutor.AbortPolicy()
+		);
+		executor.allowCoreThreadTimeOut(true);
+
+		return executor;
+	}
+
+    /**
+     * Get the factory to create entity manager for every operation.
+     *
+     * @return the initialized entity manager factory
+     */
+	abstract public EntityManagerFactory getEntityManagerFactory();
+    /**
+     * Get the executor to run operations.
+     *
+     * @return the executor
+     */
+	abstract public Executor getExecutor();
+
+	/**
+	 * Finding data uses single primary key asynchronously.
+	 *
+	 * @param primaryKey The primary key value
+	 *
+	 * @return The future of result object(may be null)
+	 *
+	 * @see AbstractTypedDaoFacadeBase#find(Object)
+	 */
+	public CompletableFuture<T> find(PK_T primaryKey)
+	{
+		return supplyAsync(entityManager -> entityManager.find(entityType, primaryKey));
+	}
+
+	/**
+	 * Executing query string asynchronously.
+	 *
+	 * @param qlString query string
+	 * @param parameters The named parameters of query, could be null
+	 *
+	 * @return The future of result list
+	 *
+	 * @see AbstractTypedDaoFacadeBase#createTypedQuery(String)
+	 */
+	public CompletableFuture<List<T>> getResultList(String qlString, Map<String, ?> parameters)
+	{
+		return supplyAsync(entityManager -> createTypedQuery(entityManager, qlString, parameters).getResultList());
+	}
+
+	/**
+	 * Executing query string and paging the result asynchronously.
+	 *
+	 * <p>The paging result bean is updated before the future is completed.</p>
+	 *
+	 * @param qlString query string
+	 * @param parameters The named parameters of query, could be null
+	 * @param pagingResultBean The paging result, should not be accessed before the future is completed
+	 * @param fetchPhase The phase of fetching, {@link FetchPhase#FirstFetch} if it is null
+	 *
+	 * @return The future of data in the page
+	 *
+	 * @see PagingUtil#queryAndFilterDataToPage(TypedQuery, PagingResultBean, FetchPhase)
+	 */
+	public CompletableFuture<List<T>> queryAndFilterDataToPage(
+		String qlString, Map<String, ?> parameters, PagingResultBean pagingResultBean, FetchPhase fetchPhase
+	) {
+		return supplyAsync(
+			entityManager -> PagingUtil.queryAndFilterDataToPage(
+				createTypedQuery(entityManager, qlString, parameters), pagingResultBean, fetchPhase
+			)
+		);
+	}
+
+	/**
+	 * Executes the operation with a dedicated entity manager asynchronously.
+	 *
+	 * <p>The entity manager is enclosed by a resource-local transaction(committed if the operation is successful,
+	 * rolled back otherwise), and is closed after the operation. If the entity manager is JTA one,
+	 * the operation is executed without transaction.</p>
+	 *
+	 * @param <R> The type of result
+	 * @param operation The operation to be executed
+	 *
+	 * @return The future of result
+	 *
+	 * @throws RejectedExecutionException if the operation is rejected by the executor(e.g., the executor is saturated)
+	 */
+	public <R> CompletableFuture<R> supplyAsync(Function<EntityManager, R> operation)
+	{
+		return CompletableFuture.supplyAsync(
+			() -> executeWithEntityManager(operation), getExecutor()
+		);
+	}
+
+    /**
+     * Get the logger object.
+     *
+     * @return logger object with name of containing class
+     */
+    public Logger getLogger()
+    {
+        return logger;
+    }
+
+	private <R> R executeWithEntityManager(Function<EntityManager, R> operation)
+	{
+		EntityManager entityManager = getEntityManagerFactory().createEntityManager();
+
+		try {
+			EntityTransaction transaction;
+			try {
+				transaction = entityManager.getTransaction();
+			} catch (IllegalStateException e) {
+				getLogger().debug("JTA entity manager, executes operation without resource-local transaction");
+				return operation.apply(entityManager);
+			}
+
+			transaction.begin();
+			try {
+				R result = operation.apply(entityManager);
+				transaction.commit();
+				return result;
+			} finally {
+				if (transaction.isActive()) {
+					transaction.rollback();
+				}
+			}
+		} finally {
+			entityManager.close();
+		}
+	}
+
+	private TypedQuery<T> createTypedQuery(EntityManager entityManager, String qlString, Map<String, ?> parameters)
+	{
+		TypedQuery<T> typedQuery = entityManager.createQuery(qlString, entityType);
+
+		if (parameters == null) {
+			parameters = Collections.<String, Object>emptyMap();
+		}
+		for (Map.Entry<String, ?> parameter: parameters.entrySet()) {
+			typedQuery.setParameter(parameter.getKey(), parameter.getValue());
+		}
+
+		return typedQuery;
+	}
+}
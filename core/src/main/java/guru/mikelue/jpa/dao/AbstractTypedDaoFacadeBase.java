@@ -4,9 +4,20 @@ import com.googlecode.gentyref.GenericTypeReflector;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
 import javax.persistence.EntityManager;
 import javax.persistence.LockModeType;
+import javax.persistence.PersistenceUnitUtil;
 import javax.persistence.TypedQuery;
+import javax.persistence.metamodel.EntityType;
+
+import guru.mikelue.jpa.paging.PageResultCache;
 
 /**
  * This class provides type-safe DAO for data insert/delete/update.
@@ -20,13 +31,38 @@ import javax.persistence.TypedQuery;
  *
  * <p>Moreover, this class provides {@link #getLogger() accessor} for <a href="http://www.slf4j.org/">SLF4J</a> logger.</p>
  *
+ * <p>The latency of operations could be received by {@link #setTimingListener(DaoTimingListener)},
+ * and the slow ones could be logged by {@link #setSlowOperationThreshold(long, TimeUnit)}.
+ * Nothing is timed if both of them are disabled(default).</p>
+ *
  * @param <T>		The type of JPA entity.
  * @param <PK_T>	The type of JPA entity's primary key
  */
 public abstract class AbstractTypedDaoFacadeBase<T, PK_T> {
+	/**
+	 * The default number of entities between flushing/clearing of persistence context in batch operations
+	 *
+	 * @see #setBatchSize(int)
+	 */
+	public final static int DEFAULT_BATCH_SIZE = 50;
+	/**
+	 * The maximum number of ids in one "IN (...)" list of bulk operations,
+	 * if the dialect of database has no limit(or the JPA provider is not Hibernate)
+	 *
+	 * @see #getMaxInListSize()
+	 */
+	public final static int DEFAULT_MAX_IN_LIST_SIZE = 1000;
+
+	private final static long NOT_TIMED = Long.MIN_VALUE;
+
     private final Logger logger = LoggerFactory.getLogger(this.getClass());
 
 	private final Class<T> entityType;
+	private int batchSize = DEFAULT_BATCH_SIZE;
+	private volatile int maxInListSize = 0;
+	private volatile PageResultCache pageResultCache = null;
+	private volatile DaoTimingListener timingListener = null;
+	private volatile long slowOperationThresholdNanos = 0;
 
 	@SuppressWarnings("unchecked")
 	protected AbstractTypedDaoFacadeBase()
@@ -59,7 +95,14 @@ public abstract class AbstractTypedDaoFacadeBase<T, PK_T> {
 	{
         getLogger().debug("Save new entity: {}", newEntity);
 
-		getEntityManager().persist(newEntity);
+		invalidatePageResultCacheNow();
+		long startTime = startTiming();
+		try {
+			getEntityManager().persist(newEntity);
+		} finally {
+			stopTiming(DaoOperation.SaveNew, null, startTime);
+		}
+		invalidatePageResultCache();
 	}
 
 	/**
@@ -73,7 +116,86 @@ public abstract class AbstractTypedDaoFacadeBase<T, PK_T> {
 	{
         getLogger().debug("Save existed entity: {}", existedEntity);
 
-		return getEntityManager().merge(existedEntity);
+		invalidatePageResultCacheNow();
+		long startTime = startTiming();
+		T mergedEntity;
+		try {
+			mergedEntity = getEntityManager().merge(existedEntity);
+		} finally {
+			stopTiming(DaoOperation.SaveExisted, null, startTime);
+		}
+		invalidatePageResultCache();
+
+		return mergedEntity;
+	}
+
+	/**
+	 * Persist objects into database in batch. The transaction of this operation is <b>defined by sub-class</b>.
+	 *
+	 * <p>This method would call {@link javax.persistence.EntityManager#persist(Object) EntityManager.persist} for every entity,
+	 * and {@link javax.persistence.EntityManager#flush() flush}/{@link javax.persistence.EntityManager#clear() clear}
+	 * the persistence context for every {@link #getBatchSize() batch size} of entities, so the persistence context won't grow indefinitely.</p>
+	 *
+	 * <p>After this method returns, the entities(and any other entity loaded by the entity manager) are <b>detached</b>.</p>
+	 *
+	 * <p>To have JDBC batching of the flushed statements, the JPA provider should be configured with the same batch size,
+	 * e.g. "hibernate.jdbc.batch_size" of Hibernate.</p>
+	 *
+	 * @param newEntities Persisted JPA {@link javax.persistence.Entity} objects.
+	 *
+	 * @return The number of persisted entities
+	 *
+	 * @see #saveNew(Object)
+	 */
+	public int saveAllNew(Iterable<? extends T> newEntities)
+	{
+		invalidatePageResultCacheNow();
+
+		int numberOfEntities = 0;
+		for (T newEntity: newEntities) {
+			getEntityManager().persist(newEntity);
+			flushAndClearPerBatch(++numberOfEntities);
+		}
+		flushAndClearRemaining(numberOfEntities);
+		invalidatePageResultCache();
+
+        getLogger().debug("Save [{}] new entities", numberOfEntities);
+		return numberOfEntities;
+	}
+
+	/**
+	 * Merge objects into database in batch. The transaction of this operation is <b>defined by sub-class</b>.
+	 *
+	 * <p>This method would call {@link javax.persistence.EntityManager#merge(Object) EntityManager.merge} for every entity,
+	 * and {@link javax.persistence.EntityManager#flush() flush}/{@link javax.persistence.EntityManager#clear() clear}
+	 * the persistence context for every {@link #getBatchSize() batch size} of entities, so the persistence context won't grow indefinitely.</p>
+	 *
+	 * <p>After this method returns, the merged entities(and any other entity loaded by the entity manager) are <b>detached</b>,
+	 * the merged copies are not kept for the same reason.</p>
+	 *
+	 * <p>To have JDBC batching of the flushed statements, the JPA provider should be configured with the same batch size,
+	 * e.g. "hibernate.jdbc.batch_size" of Hibernate.</p>
+	 *
+	 * @param existedEntities Persisted JPA {@link javax.persistence.Entity} objects.
+	 *
+	 * @return The number of merged entities
+	 *
+	 * @see #saveExisted(Object)
+	 */
+	public int saveAllExisted(Iterable<? extends T> existedEntities)
+	{
+		invalidatePageResultCacheNow();
+
+		int numberOfEntities = 0;
+		for (T existedEntity: existedEntities) {
+			getEntityManager().merge(existedEntity);
+			flushAndClearPerBatch(++numberOfEntities);
+		}
+		flushAndClearRemaining(numberOfEntities);
+		invalidatePageResultCache();
+
+        getLogger().debug("Save [{}] existed entities", numberOfEntities);
+		return numberOfEntities;
 	}
 
 	/**
@@ -90,15 +212,103 @@ public abstract class AbstractTypedDaoFacadeBase<T, PK_T> {
 	{
         getLogger().debug("Remove existed entity for id: {}", primaryKey);
 
-        T entity = find(primaryKey);
-        if (entity == null) {
-            return false;
-        }
+		invalidatePageResultCacheNow();
+		long startTime = startTiming();
+		try {
+			EntityManager entityManager = getEntityManager();
+
+			T entity = entityManager.find(entityType, primaryKey);
+			if (entity == null) {
+				return false;
+			}
 
-		getEntityManager().remove(entity);
+			entityManager.remove(entity);
+		} finally {
+			stopTiming(DaoOperation.Remove, primaryKey, startTime);
+		}
+
+		invalidatePageResultCache();
         return true;
 	}
 
+	/**
+	 * Removing data uses single primary key by a bulk "DELETE" statement, without loading the entity.
+	 * The transaction of this operation is <b>defined by sub-class</b>.
+	 *
+	 * <p>Because of bypassing the persistence context, the cascading of removal, the callbacks of entity,
+	 * and the optimistic locking are not applied. The removed entity which is managed by current entity manager
+	 * is {@link EntityManager#detach(Object) detached} after the deletion(only supported by Hibernate).</p>
+	 *
+	 * @param primaryKey The PK of existed entity to be removed
+	 *
+	 * @return return true if there is a row deleted.
+	 *
+	 * @throws IllegalOperationException if the entity has no single id attribute(e.g., uses {@link javax.persistence.IdClass})
+	 *
+	 * @see #remove(Object)
+	 * @see #removeAll(Collection)
+	 */
+	public boolean removeById(PK_T primaryKey)
+	{
+        getLogger().debug("Remove existed entity directly for id: {}", primaryKey);
+
+		invalidatePageResultCacheNow();
+		int numberOfDeleted = getEntityManager().createQuery(
+			String.format("DELETE FROM %s AS e WHERE e.%s = :id", getEntityName(), getIdAttributeName())
+		)
+			.setParameter("id", primaryKey)
+			.executeUpdate();
+		detachManagedEntity(primaryKey);
+		invalidatePageResultCache();
+
+		return numberOfDeleted > 0;
+	}
+
+	/**
+	 * Removing data uses multiple primary keys by bulk "DELETE ... IN (...)" statements, without loading the entities.
+	 * The transaction of this operation is <b>defined by sub-class</b>.
+	 *
+	 * <p>The primary keys are chunked into multiple statements by {@link #getMaxInListSize()}.</p>
+	 *
+	 * <p>Because of bypassing the persistence context, the cascading of removal, the callbacks of entity,
+	 * and the optimistic locking are not applied. The removed entities which are managed by current entity manager
+	 * are {@link EntityManager#detach(Object) detached} after the deletion(only supported by Hibernate).</p>
+	 *
+	 * @param primaryKeys The PKs of existed entities to be removed
+	 *
+	 * @return The number of deleted rows
+	 *
+	 * @throws IllegalOperationException if the entity has no single id attribute(e.g., uses {@link javax.persistence.IdClass})
+	 *
+	 * @see #removeById(Object)
+	 */
+	public int removeAll(Collection<? extends PK_T> primaryKeys)
+	{
+        getLogger().debug("Remove existed entities directly for [{}] ids", primaryKeys.size());
+
+		if (primaryKeys.isEmpty()) {
+			return 0;
+		}
+
+		String deleteQl = String.format(
+			"DELETE FROM %s AS e WHERE e.%s IN :ids", getEntityName(), getIdAttributeName()
+		);
+
+		invalidatePageResultCacheNow();
+		int numberOfDeleted = 0;
+		for (List<? extends PK_T> chunkOfIds: chunkByInListSize(primaryKeys)) {
+			numberOfDeleted += getEntityManager().createQuery(deleteQl)
+				.setParameter("ids", chunkOfIds)
+				.executeUpdate();
+		}
+		for (PK_T primaryKey: primaryKeys) {
+			detachManagedEntity(primaryKey);
+		}
+		invalidatePageResultCache();
+
+		return numberOfDeleted;
+	}
+
 	/**
 	 * Finding data uses single primary key.
      *
@@ -110,7 +320,85 @@ public abstract class AbstractTypedDaoFacadeBase<T, PK_T> {
 	 */
 	public T find(PK_T primaryKey)
 	{
-		return getEntityManager().find(entityType, primaryKey);
+		long startTime = startTiming();
+		try {
+			return getEntityManager().find(entityType, primaryKey);
+		} finally {
+			stopTiming(DaoOperation.Find, primaryKey, startTime);
+		}
+	}
+
+	/**
+	 * Finding data uses multiple primary keys.
+	 *
+	 * <p>The entities already managed by current entity manager are served without hitting database(only supported by Hibernate),
+	 * the remaining ones are loaded by "SELECT ... WHERE id IN (...)" queries,
+	 * which are chunked by {@link #getMaxInListSize()}.</p>
+	 *
+	 * @param primaryKeys The primary key values
+	 *
+	 * @return The map of found entities(keyed by primary key) ordered by the primary keys, the not-found ones are absent
+	 *
+	 * @throws IllegalOperationException if the entity has no single id attribute(e.g., uses {@link javax.persistence.IdClass})
+	 *
+	 * @see #find(Object)
+	 */
+	@SuppressWarnings("unchecked")
+	public Map<PK_T, T> findAll(Collection<? extends PK_T> primaryKeys)
+	{
+		EntityManager entityManager = getEntityManager();
+		Map<PK_T, T> managedEntities = new LinkedHashMap<PK_T, T>();
+
+		/**
+		 * Serves the entities in persistence context
+		 */
+		List<PK_T> notManagedIds = new ArrayList<PK_T>(primaryKeys.size());
+		for (PK_T primaryKey: new LinkedHashSet<PK_T>(primaryKeys)) {
+			T managedEntity = PersistenceContextLookup.getManagedEntity(entityManager, entityType, primaryKey);
+			if (managedEntity != null) {
+				managedEntities.put(primaryKey, managedEntity);
+			} else {
+				notManagedIds.add(primaryKey);
+			}
+		}
+		// :~)
+
+		if (notManagedIds.isEmpty()) {
+			return managedEntities;
+		}
+
+        getLogger().debug("Find [{}] entities by query", notManagedIds.size());
+
+		/**
+		 * Loads the remaining entities by chunked IN-list
+		 */
+		String selectQl = String.format(
+			"SELECT e FROM %s AS e WHERE e.%s IN :ids", getEntityName(), getIdAttributeName()
+		);
+		PersistenceUnitUtil persistenceUnitUtil = entityManager.getEntityManagerFactory().getPersistenceUnitUtil();
+		Map<PK_T, T> loadedEntities = new LinkedHashMap<PK_T, T>(notManagedIds.size() * 2);
+
+		for (List<PK_T> chunkOfIds: chunkByInListSize(notManagedIds)) {
+			for (T entity: entityManager.createQuery(selectQl, entityType).setParameter("ids", chunkOfIds).getResultList()) {
+				loadedEntities.put((PK_T)persistenceUnitUtil.getIdentifier(entity), entity);
+			}
+		}
+		// :~)
+
+		/**
+		 * Keeps the order of primary keys
+		 */
+		Map<PK_T, T> result = new LinkedHashMap<PK_T, T>(primaryKeys.size() * 2);
+		for (PK_T primaryKey: new LinkedHashSet<PK_T>(primaryKeys)) {
+			T entity = managedEntities.containsKey(primaryKey) ?
+				managedEntities.get(primaryKey) : loadedEntities.get(primaryKey);
+			if (entity != null) {
+				result.put(primaryKey, entity);
+			}
+		}
+		// :~)
+
+		return result;
 	}
 
 	/**
@@ -125,7 +413,12 @@ public abstract class AbstractTypedDaoFacadeBase<T, PK_T> {
 	 */
 	public T find(PK_T primaryKey, LockModeType lockModeType)
 	{
-		return getEntityManager().find(entityType, primaryKey, lockModeType);
+		long startTime = startTiming();
+		try {
+			return getEntityManager().find(entityType, primaryKey, lockModeType);
+		} finally {
+			stopTiming(DaoOperation.Find, primaryKey, startTime);
+		}
 	}
 
 	/**
@@ -133,19 +426,30 @@ public abstract class AbstractTypedDaoFacadeBase<T, PK_T> {
      *
 	 * <p>This method would call {@link javax.persistence.EntityManager#createNamedQuery(String, Class) EntityManager.createNamedQuery}</p>
 	 *
+	 * <p>If the timing is enabled, the returned query is a proxy(only implements {@link TypedQuery}),
+	 * use {@link TypedQuery#unwrap(Class)} to get the query of JPA provider.</p>
+	 *
 	 * @param queryName The name of named query
 	 *
 	 * @return typed query object
 	 */
 	public TypedQuery<T> createTypedNamedQuery(String queryName)
 	{
-		return getEntityManager().createNamedQuery(queryName, entityType);
+		return timedQueryIfEnabled(
+			getEntityManager().createNamedQuery(queryName, entityType), queryName
+		);
 	}
 
 	/**
      * Generating {@link TypedQuery} uses query string.
      *
-	 * <p>This method would call {@link javax.persistence.EntityManager#createQuery(String, Class) EntityManager.createQuery}</p>
+	 * <p>This method would call {@link javax.persistence.EntityManager#createQuery(String, Class) EntityManager.createQuery}.
+	 * The compiled plan of query is cached(keyed by query string) by the JPA provider already,
+	 * e.g. the query plan cache of Hibernate, which is bounded by "hibernate.query.plan_cache_max_size"(default: 2048).
+	 * For lots of distinct queries(e.g. built dynamically), the size should be configured in persistence unit.</p>
+	 *
+	 * <p>If the timing is enabled, the returned query is a proxy(only implements {@link TypedQuery}),
+	 * use {@link TypedQuery#unwrap(Class)} to get the query of JPA provider.</p>
 	 *
 	 * @param qlString query string
 	 *
@@ -153,7 +457,156 @@ public abstract class AbstractTypedDaoFacadeBase<T, PK_T> {
 	 */
 	public TypedQuery<T> createTypedQuery(String qlString)
 	{
-		return getEntityManager().createQuery(qlString, entityType);
+		return timedQueryIfEnabled(
+			getEntityManager().createQuery(qlString, entityType), qlString
+		);
+	}
+
+	/**
+	 * Sets the number of entities between flushing/clearing of persistence context in batch operations.
+	 *
+	 * @param newBatchSize The batch size, must be greater than 0
+	 *
+	 * @see #saveAllNew(Iterable)
+	 * @see #saveAllExisted(Iterable)
+	 */
+	public void setBatchSize(int newBatchSize)
+	{
+		if (newBatchSize <= 0) {
+			throw new IllegalArgumentException("Batch size must be >= 1, current: " + newBatchSize);
+		}
+
+		batchSize = newBatchSize;
+	}
+	/**
+	 * Gets the number of entities between flushing/clearing of persistence context in batch operations.
+	 *
+	 * @return The batch size, default value is {@link #DEFAULT_BATCH_SIZE}
+	 */
+	public int getBatchSize()
+	{
+		return batchSize;
+	}
+
+	/**
+	 * Sets the maximum number of ids in one "IN (...)" list of bulk operations,
+	 * which should not exceed the limit of database(e.g., 1000 for Oracle).
+	 *
+	 * @param newMaxInListSize The maximum number of ids, 0 to use the limit of dialect(default)
+	 *
+	 * @see #removeAll(Collection)
+	 * @see #findAll(Collection)
+	 */
+	public void setMaxInListSize(int newMaxInListSize)
+	{
+		if (newMaxInListSize < 0) {
+			throw new IllegalArgumentException("Max size of IN list must be >= 0, current: " + newMaxInListSize);
+		}
+
+		maxInListSize = newMaxInListSize;
+	}
+	/**
+	 * Gets the maximum number of ids in one "IN (...)" list of bulk operations.
+	 *
+	 * <p>If it is not {@link #setMaxInListSize(int) set}, the value is
+	 * {@link org.hibernate.dialect.Dialect#getInExpressionCountLimit() the limit of dialect}(resolved from {@link #getEntityManager()} once),
+	 * or {@link #DEFAULT_MAX_IN_LIST_SIZE} if the dialect has no limit(or the JPA provider is not Hibernate).</p>
+	 *
+	 * @return The maximum number of ids
+	 */
+	public int getMaxInListSize()
+	{
+		int currentMaxInListSize = maxInListSize;
+		if (currentMaxInListSize > 0) {
+			return currentMaxInListSize;
+		}
+
+		int limitOfDialect = PersistenceContextLookup.getInExpressionCountLimit(getEntityManager());
+		currentMaxInListSize = limitOfDialect > 0 ? limitOfDialect : DEFAULT_MAX_IN_LIST_SIZE;
+		getLogger().debug("Max size of IN list: {}(limit of dialect: {})", currentMaxInListSize, limitOfDialect);
+
+		maxInListSize = currentMaxInListSize;
+		return currentMaxInListSize;
+	}
+
+	/**
+	 * Sets the cache of paging results, which would be {@link PageResultCache#invalidate(Class) invalidated} for
+	 * the entity type of this object before and after every save/remove operation.
+	 *
+	 * <p>The transaction is committed after the operation returns, so a concurrent paging between them
+	 * may put the uncommitted(previous) result into cache. Sub-class knowing the transaction should
+	 * invalidate the cache after committing, e.g. {@link guru.mikelue.jpa.springframework.AbstractSpringTypedDaoFacade}.</p>
+	 *
+	 * <p>The cache could be shared by multiple DAO objects.</p>
+	 *
+	 * @param newPageResultCache The cache of paging results, null to disable the invalidation(default)
+	 */
+	public void setPageResultCache(PageResultCache newPageResultCache)
+	{
+		pageResultCache = newPageResultCache;
+	}
+	/**
+	 * Gets the cache of paging results.
+	 *
+	 * @return null if there is no cache
+	 *
+	 * @see #setPageResultCache(PageResultCache)
+	 */
+	public PageResultCache getPageResultCache()
+	{
+		return pageResultCache;
+	}
+
+	/**
+	 * Sets the listener receiving latency of operations({@link DaoOperation}).
+	 *
+	 * <p>The listener could be shared by multiple DAO objects.</p>
+	 *
+	 * @param newTimingListener The listener, null to disable it(default)
+	 *
+	 * @see MetricsDaoTimingListener
+	 */
+	public void setTimingListener(DaoTimingListener newTimingListener)
+	{
+		timingListener = newTimingListener;
+	}
+	/**
+	 * Gets the listener receiving latency of operations.
+	 *
+	 * @return null if there is no listener
+	 */
+	public DaoTimingListener getTimingListener()
+	{
+		return timingListener;
+	}
+
+	/**
+	 * Sets the threshold of latency, the operation exceeding it is logged by {@link #getLogger() logger} in "WARN" level.
+	 *
+	 * <p>The message is formatted as "key=value" pairs, e.g.
+	 * "Slow DAO operation: entity=Person operation=Query elapsedMs=1200 thresholdMs=1000 target=[SELECT p FROM Person p]".</p>
+	 *
+	 * @param threshold The threshold, 0 to disable the log(default)
+	 * @param unit The unit of threshold
+	 */
+	public void setSlowOperationThreshold(long threshold, TimeUnit unit)
+	{
+		if (threshold < 0) {
+			throw new IllegalArgumentException("Threshold of slow operation must be >= 0, current: " + threshold);
+		}
+
+		slowOperationThresholdNanos = unit.toNanos(threshold);
+	}
+	/**
+	 * Gets the threshold of latency for logging slow operations.
+	 *
+	 * @param unit The unit of threshold
+	 *
+	 * @return 0 if the log is disabled
+	 */
+	public long getSlowOperationThreshold(TimeUnit unit)
+	{
+		return unit.convert(slowOperationThresholdNanos, TimeUnit.NANOSECONDS);
 	}
 
     /**
@@ -165,4 +618,131 @@ public abstract class AbstractTypedDaoFacadeBase<T, PK_T> {
     {
         return logger;
     }
+
+	private void flushAndClearPerBatch(int numberOfEntities)
+	{
+		if (numberOfEntities % batchSize == 0) {
+			flushAndClear();
+		}
+	}
+	private void flushAndClearRemaining(int numberOfEntities)
+	{
+		if (numberOfEntities % batchSize != 0) {
+			flushAndClear();
+		}
+	}
+	private void flushAndClear()
+	{
+		EntityManager entityManager = getEntityManager();
+		entityManager.flush();
+		entityManager.clear();
+	}
+
+	/**
+	 * Detaches the entity(deleted by bulk statement) from persistence context,
+	 * so it won't be served by {@link EntityManager#find(Class, Object)} or written by following flushing.
+	 *
+	 * The detaching is after the bulk statement, which flushes the pending changes of the entity before deletion.
+	 */
+	private void detachManagedEntity(PK_T primaryKey)
+	{
+		EntityManager entityManager = getEntityManager();
+
+		T managedEntity = PersistenceContextLookup.getManagedEntity(entityManager, entityType, primaryKey);
+		if (managedEntity != null) {
+			entityManager.detach(managedEntity);
+		}
+	}
+
+	/**
+	 * Chunks the ids by {@link #getMaxInListSize()}.
+	 */
+	private <ID_T> List<List<ID_T>> chunkByInListSize(Collection<ID_T> ids)
+	{
+		int chunkSize = getMaxInListSize();
+		List<ID_T> allIds = new ArrayList<ID_T>(ids);
+		List<List<ID_T>> chunks = new ArrayList<List<ID_T>>(allIds.size() / chunkSize + 1);
+
+		for (int i = 0; i < allIds.size(); i += chunkSize) {
+			chunks.add(allIds.subList(i, Math.min(allIds.size(), i + chunkSize)));
+		}
+
+		return chunks;
+	}
+
+	/**
+	 * Gets the start time of timing, or {@link #NOT_TIMED} if the timing is disabled.
+	 */
+	long startTiming()
+	{
+		return timingListener == null && slowOperationThresholdNanos == 0 ?
+			NOT_TIMED : System.nanoTime();
+	}
+	/**
+	 * Publishes the latency to listener and slow-operation log.
+	 */
+	void stopTiming(DaoOperation operation, Object target, long startTime)
+	{
+		if (startTime == NOT_TIMED) {
+			return;
+		}
+
+		long elapsedNanos = System.nanoTime() - startTime;
+
+		DaoTimingListener currentTimingListener = timingListener;
+		if (currentTimingListener != null) {
+			currentTimingListener.operationTimed(entityType, operation, elapsedNanos);
+		}
+
+		long thresholdNanos = slowOperationThresholdNanos;
+		if (thresholdNanos > 0 && elapsedNanos >= thresholdNanos) {
+			getLogger().warn(
+				"Slow DAO operation: entity={} operation={} elapsedMs={} thresholdMs={} target=[{}]",
+				entityType.getSimpleName(), operation,
+				TimeUnit.NANOSECONDS.toMillis(elapsedNanos), TimeUnit.NANOSECONDS.toMillis(thresholdNanos),
+				target
+			);
+		}
+	}
+	private TypedQuery<T> timedQueryIfEnabled(TypedQuery<T> query, String queryDescription)
+	{
+		if (timingListener == null && slowOperationThresholdNanos == 0) {
+			return query;
+		}
+
+		return TimedQueryHandler.timedQuery(query, this, queryDescription);
+	}
+
+	private String getEntityName()
+	{
+		return getEntityManager().getMetamodel().entity(entityType).getName();
+	}
+	private String getIdAttributeName()
+	{
+		EntityType<T> entityMetamodel = getEntityManager().getMetamodel().entity(entityType);
+		if (!entityMetamodel.hasSingleIdAttribute()) {
+			throw new IllegalOperationException("Entity has no single id attribute: " + entityType);
+		}
+
+		return entityMetamodel.getId(entityMetamodel.getIdType().getJavaType()).getName();
+	}
+
+	/**
+	 * Invalidates the cached paging results of the entity type, if there is a {@link #getPageResultCache() cache}.
+	 *
+	 * <p>This method is called after every save/remove operation(before the transaction is committed).
+	 * Sub-class should call this method after customized write-operations,
+	 * and could override it to invalidate the cache after committing as well.</p>
+	 */
+	protected void invalidatePageResultCache()
+	{
+		invalidatePageResultCacheNow();
+	}
+	private void invalidatePageResultCacheNow()
+	{
+		PageResultCache currentPageResultCache = pageResultCache;
+		if (currentPageResultCache != null) {
+			currentPageResultCache.invalidate(entityType);
+		}
+	}
 }
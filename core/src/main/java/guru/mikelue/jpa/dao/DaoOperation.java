@@ -0,0 +1,39 @@
+package guru.mikelue.jpa.dao;
+
+/**
+ * The operations of {@link AbstractTypedDaoFacadeBase} which are timed by {@link DaoTimingListener}.
+ *
+ * <p>The bulk/batch operations are <strong>not</strong> timed:
+ * {@link AbstractTypedDaoFacadeBase#saveAllNew(Iterable) saveAllNew},
+ * {@link AbstractTypedDaoFacadeBase#saveAllExisted(Iterable) saveAllExisted},
+ * {@link AbstractTypedDaoFacadeBase#removeById(Object) removeById},
+ * {@link AbstractTypedDaoFacadeBase#removeAll(java.util.Collection) removeAll}, and
+ * {@link AbstractTypedDaoFacadeBase#findAll(java.util.Collection) findAll}.</p>
+ *
+ * @see AbstractTypedDaoFacadeBase#setTimingListener(DaoTimingListener)
+ */
+public enum DaoOperation {
+    /**
+     * {@link AbstractTypedDaoFacadeBase#find(Object)} or {@link AbstractTypedDaoFacadeBase#find(Object, javax.persistence.LockModeType)}
+     */
+    Find,
+    /**
+     * {@link AbstractTypedDaoFacadeBase#saveNew(Object)}
+     */
+    SaveNew,
+    /**
+     * {@link AbstractTypedDaoFacadeBase#saveExisted(Object)}
+     */
+    SaveExisted,
+    /**
+     * {@link AbstractTypedDaoFacadeBase#remove(Object)}, including the loading of entity
+     */
+    Remove,
+    /**
+     * The execution({@link javax.persistence.TypedQuery#getResultList() getResultList},
+     * {@link javax.persistence.TypedQuery#getSingleResult() getSingleResult} or
+     * {@link javax.persistence.TypedQuery#executeUpdate() executeUpdate}) of query created by
+     * {@link AbstractTypedDaoFacadeBase#createTypedQuery(String)} or {@link AbstractTypedDaoFacadeBase#createTypedNamedQuery(String)}
+     */
+    Query;
+}
@@ -0,0 +1,21 @@
+package guru.mikelue.jpa.dao;
+
+/**
+ * Client implements this interface to receive the latency of operations of {@link AbstractTypedDaoFacadeBase}.
+ *
+ * <p>This method is called in the thread executing the operation(even if the operation is failed),
+ * so the implementation should be thread-safe and fast.</p>
+ *
+ * @see AbstractTypedDaoFacadeBase#setTimingListener(DaoTimingListener)
+ * @see MetricsDaoTimingListener
+ */
+public interface DaoTimingListener {
+    /**
+     * Receives the latency of an operation.
+     *
+     * @param entityType The entity type of DAO
+     * @param operation The timed operation
+     * @param elapsedNanos The latency in nanoseconds
+     */
+    public void operationTimed(Class<?> entityType, DaoOperation operation, long elapsedNanos);
+}
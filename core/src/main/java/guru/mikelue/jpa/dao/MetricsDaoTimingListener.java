@@ -0,0 +1,76 @@
+package guru.mikelue.jpa.dao;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.Timer;
+
+/**
+ * The {@link DaoTimingListener} publishes latency as <a href="http://metrics.dropwizard.io/">Dropwizard Metrics</a>
+ * {@link Timer}s(which has histogram of latency), the metrics-core library is needed.
+ *
+ * <p>The name of timer is "&lt;prefix&gt;.&lt;simple name of entity&gt;.&lt;operation&gt;", e.g. "app.dao.Person.Find".</p>
+ *
+ * <pre>{@code
+ * personDao.setTimingListener(new MetricsDaoTimingListener(registry, "app.dao"));
+ * }</pre>
+ *
+ * <p>The object could be shared by multiple DAO objects.</p>
+ */
+public class MetricsDaoTimingListener implements DaoTimingListener {
+    private final MetricRegistry metricRegistry;
+    private final String prefix;
+    private final ConcurrentMap<Class<?>, Map<DaoOperation, Timer>> timersOfEntities =
+        new ConcurrentHashMap<Class<?>, Map<DaoOperation, Timer>>();
+
+    /**
+     * Constructs the listener with registry and prefix of names.
+     *
+     * @param newMetricRegistry The registry of metrics
+     * @param newPrefix The prefix of timer names
+     */
+    public MetricsDaoTimingListener(MetricRegistry newMetricRegistry, String newPrefix)
+    {
+        if (newMetricRegistry == null) {
+            throw new IllegalArgumentException("Metric registry is null");
+        }
+        if (newPrefix == null || newPrefix.trim().isEmpty()) {
+            throw new IllegalArgumentException("Prefix of metrics is blank");
+        }
+
+        metricRegistry = newMetricRegistry;
+        prefix = newPrefix;
+    }
+
+    @Override
+    public void operationTimed(Class<?> entityType, DaoOperation operation, long elapsedNanos)
+    {
+        getTimers(entityType).get(operation).update(elapsedNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Gets the timers of entity, which are registered at first time.
+     */
+    private Map<DaoOperation, Timer> getTimers(Class<?> entityType)
+    {
+        Map<DaoOperation, Timer> timers = timersOfEntities.get(entityType);
+        if (timers != null) {
+            return timers;
+        }
+
+        timers = new EnumMap<DaoOperation, Timer>(DaoOperation.class);
+        for (DaoOperation operation: DaoOperation.values()) {
+            timers.put(
+                operation,
+                metricRegistry.timer(MetricRegistry.name(prefix, entityType.getSimpleName(), operation.name()))
+            );
+        }
+
+        Map<DaoOperation, Timer> existingTimers = timersOfEntities.putIfAbsent(entityType, timers);
+        return existingTimers != null ? existingTimers : timers;
+    }
+}
@@ -0,0 +1,107 @@
+package guru.mikelue.jpa.dao;
+
+import java.io.Serializable;
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceException;
+
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Looks up the entity which is already managed by the persistence context, without hitting database.
+ *
+ * <p>JPA has no portable API for this lookup, so only Hibernate is supported.
+ * For other providers(or Hibernate is not in class path), the lookup always returns null.</p>
+ *
+ * <p>The limit of "IN (...)" expressions of database is looked up from the dialect of Hibernate as well.</p>
+ */
+final class PersistenceContextLookup {
+    private final static Logger logger = LoggerFactory.getLogger(PersistenceContextLookup.class);
+
+    private final static boolean HIBERNATE_PRESENT = isHibernatePresent();
+
+    private PersistenceContextLookup() {}
+
+    /**
+     * Gets the managed entity by id.
+     *
+     * @param <T> The type of entity
+     * @param entityManager The entity manager
+     * @param entityType The type of entity
+     * @param id The primary key of entity
+     *
+     * @return null if the entity is not managed(or has been removed), or the lookup is not supported
+     */
+    static <T> T getManagedEntity(EntityManager entityManager, Class<T> entityType, Object id)
+    {
+        if (!HIBERNATE_PRESENT || !(id instanceof Serializable)) {
+            return null;
+        }
+
+        Object managedEntity = HibernateLookup.getEntity(entityManager, entityType, (Serializable)id);
+        if (managedEntity == null || !entityType.isInstance(managedEntity) || !entityManager.contains(managedEntity)) {
+            return null;
+        }
+
+        return entityType.cast(managedEntity);
+    }
+
+    /**
+     * Gets the maximum number of expressions in "IN (...)" list, which is defined by the dialect of Hibernate.
+     *
+     * @param entityManager The entity manager
+     *
+     * @return 0 if there is no limit, or the lookup is not supported
+     */
+    static int getInExpressionCountLimit(EntityManager entityManager)
+    {
+        if (!HIBERNATE_PRESENT) {
+            return 0;
+        }
+
+        return HibernateLookup.getInExpressionCountLimit(entityManager);
+    }
+
+    private static boolean isHibernatePresent()
+    {
+        try {
+            Class.forName("org.hibernate.engine.spi.SessionImplementor", false, PersistenceContextLookup.class.getClassLoader());
+            return true;
+        } catch (ClassNotFoundException e) {
+            logger.debug("Hibernate is not present, the lookup of persistence context is disabled");
+            return false;
+        }
+    }
+
+    /**
+     * Separated class to prevent loading of Hibernate classes if Hibernate is not in class path.
+     */
+    private static class HibernateLookup {
+        static Object getEntity(EntityManager entityManager, Class<?> entityType, Serializable id)
+        {
+            SessionImplementor session;
+            try {
+                session = entityManager.unwrap(SessionImplementor.class);
+            } catch (PersistenceException e) {
+                return null;
+            }
+
+            return session.getPersistenceContext().getEntity(
+                session.generateEntityKey(id, session.getFactory().getEntityPersister(entityType.getName()))
+            );
+        }
+        static int getInExpressionCountLimit(EntityManager entityManager)
+        {
+            SessionFactoryImplementor sessionFactory;
+            try {
+                sessionFactory = entityManager.getEntityManagerFactory().unwrap(SessionFactoryImplementor.class);
+            } catch (PersistenceException e) {
+                return 0;
+            }
+
+            return sessionFactory.getDialect().getInExpressionCountLimit();
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package guru.mikelue.jpa.dao;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+import javax.persistence.TypedQuery;
+
+/**
+ * The dynamic proxy of {@link TypedQuery}, which times the executions of query for DAO.
+ *
+ * <p>The fluent methods(e.g. {@link TypedQuery#setParameter(String, Object)}) return the proxy instead of the enclosed query.</p>
+ */
+class TimedQueryHandler implements InvocationHandler {
+    private final static Set<String> TIMED_METHODS = new HashSet<String>(Arrays.asList(
+        "getResultList", "getSingleResult", "executeUpdate"
+    ));
+
+    private final TypedQuery<?> enclosedQuery;
+    private final AbstractTypedDaoFacadeBase<?, ?> dao;
+    private final String queryDescription;
+
+    private Object proxy;
+
+    private TimedQueryHandler(TypedQuery<?> newEnclosedQuery, AbstractTypedDaoFacadeBase<?, ?> newDao, String newQueryDescription)
+    {
+        enclosedQuery = newEnclosedQuery;
+        dao = newDao;
+        queryDescription = newQueryDescription;
+    }
+
+    /**
+     * Encloses the query by proxy.
+     *
+     * @param query The query to be timed
+     * @param dao The DAO receiving the latency
+     * @param queryDescription The JPQL or name of query, used by slow-operation log
+     */
+    @SuppressWarnings("unchecked")
+    static <T> TypedQuery<T> timedQuery(TypedQuery<T> query, AbstractTypedDaoFacadeBase<?, ?> dao, String queryDescription)
+    {
+        TimedQueryHandler handler = new TimedQueryHandler(query, dao, queryDescription);
+        handler.proxy = Proxy.newProxyInstance(
+            TimedQueryHandler.class.getClassLoader(), new Class<?>[] { TypedQuery.class }, handler
+        );
+
+        return (TypedQuery<T>)handler.proxy;
+    }
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable
+    {
+        if (!TIMED_METHODS.contains(method.getName())) {
+            Object result = invokeEnclosedQuery(method, args);
+            return result == enclosedQuery ? this.proxy : result;
+        }
+
+        long startTime = dao.startTiming();
+        try {
+            return invokeEnclosedQuery(method, args);
+        } finally {
+            dao.stopTiming(DaoOperation.Query, queryDescription, startTime);
+        }
+    }
+
+    private Object invokeEnclosedQuery(Method method, Object[] args) throws Throwable
+    {
+        try {
+            return method.invoke(enclosedQuery, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+}
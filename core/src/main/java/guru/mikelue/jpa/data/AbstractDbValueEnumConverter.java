@@ -0,0 +1,82 @@
+package guru.mikelue.jpa.data;
+
+import javax.persistence.AttributeConverter;
+
+/**
+ * The {@link AttributeConverter} between {@link DbValueGetter} enumeration and its database value,
+ * backed by the cached {@link DbValueCodec}(no reflection on every conversion).
+ *
+ * <p>Because JPA provider instantiates converter by its class, a concrete converter(with no-argument constructor)
+ * which <b>declares</b> {@link AttributeConverter} with actual types, is needed for every enum type:</p>
+ *
+ * <pre>
+ * &#64;Converter
+ * public class SomeStatusConverter extends AbstractDbValueEnumConverter&lt;SomeStatus, Integer&gt;
+ *     implements AttributeConverter&lt;SomeStatus, Integer&gt;
+ * {
+ *     public SomeStatusConverter() { super(SomeStatus.class); }
+ * }
+ *
+ * &#64;Convert(converter=SomeStatusConverter.class)
+ * &#64;Column(name="ss_status")
+ * private SomeStatus status;
+ * </pre>
+ *
+ * <p>Some JPA provider(e.g. Hibernate 5.0) can only resolve the types of converter from the
+ * {@link AttributeConverter} declared with actual types, and only map Integer or Long(not Byte/Short) as type of column.</p>
+ *
+ * @param <ET> type of {@link DbValueGetter} enumeration
+ * @param <T> The database constant type(Numeric)
+ *
+ * @see AbstractEnumSetConverter
+ */
+public abstract class AbstractDbValueEnumConverter<ET extends Enum<ET> & DbValueGetter<T>, T extends Number> {
+	private final DbValueCodec<ET> codec;
+
+	/**
+	 * Constructs the converter with enum type.
+	 *
+	 * @param typeOfDbValueGetter type of {@link DbValueGetter} enumeration
+	 */
+	protected AbstractDbValueEnumConverter(Class<ET> typeOfDbValueGetter)
+	{
+		codec = DbValueCodec.of(typeOfDbValueGetter);
+	}
+
+	/**
+	 * Converts the attribute to value of column.
+	 *
+	 * @param attribute The value of attribute
+	 *
+	 * @return null if the attribute is null
+	 */
+	public T convertToDatabaseColumn(ET attribute)
+	{
+		return attribute == null ? null : attribute.getDbValue();
+	}
+
+	/**
+	 * Converts the value of column to attribute.
+	 *
+	 * @param dbData The value of column
+	 *
+	 * @return null if the value of column is null
+	 *
+	 * @throws IllegalArgumentException if there is no enum constant for the value of column
+	 */
+	public ET convertToEntityAttribute(T dbData)
+	{
+		if (dbData == null) {
+			return null;
+		}
+
+		ET attribute = codec.fromDbValue(dbData.longValue());
+		if (attribute == null) {
+			throw new IllegalArgumentException(String.format(
+				"Unknown value of %s: %s", codec.getEnumType().getName(), dbData
+			));
+		}
+
+		return attribute;
+	}
+}
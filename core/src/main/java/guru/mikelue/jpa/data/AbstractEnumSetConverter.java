@@ -0,0 +1,84 @@
+package guru.mikelue.jpa.data;
+
+import java.util.EnumSet;
+import javax.persistence.AttributeConverter;
+
+/**
+ * The {@link AttributeConverter} between {@link EnumSet} of {@link DbValueGetter} and
+ * joined(with "|" bit operator) database value, backed by the cached {@link DbValueCodec}.
+ *
+ * <p>Because JPA provider instantiates converter by its class, a concrete converter(with no-argument constructor)
+ * which <b>declares</b> {@link AttributeConverter} with actual types, is needed for every enum type:</p>
+ *
+ * <pre>
+ * &#64;Converter
+ * public class SomeFlagsConverter extends AbstractEnumSetConverter&lt;SomeFlag, Integer&gt;
+ *     implements AttributeConverter&lt;EnumSet&lt;SomeFlag&gt;, Integer&gt;
+ * {
+ *     public SomeFlagsConverter() { super(SomeFlag.class, Integer.class); }
+ * }
+ *
+ * &#64;Convert(converter=SomeFlagsConverter.class)
+ * &#64;Column(name="sf_flags")
+ * private EnumSet&lt;SomeFlag&gt; flags;
+ * </pre>
+ *
+ * <p>The null value of column is converted to empty {@link EnumSet}. To be detected by dirty checking of JPA provider,
+ * the attribute should be replaced by a new {@link EnumSet} instead of being modified in place.</p>
+ *
+ * @param <ET> type of {@link DbValueGetter} enumeration
+ * @param <T> The database constant type(Byte, Short, Integer or Long)
+ *
+ * @see DbValueUtil#joinedValueToEnumSet(Class, Number)
+ * @see DbValueUtil#enumSetToJoinedValue(Class, EnumSet)
+ */
+public abstract class AbstractEnumSetConverter<ET extends Enum<ET> & DbValueGetter<T>, T extends Number> {
+	private final DbValueCodec<ET> codec;
+	private final Class<T> typeOfDbValue;
+
+	/**
+	 * Constructs the converter with enum type and type of database value.
+	 *
+	 * @param typeOfDbValueGetter type of {@link DbValueGetter} enumeration
+	 * @param newTypeOfDbValue type of database value(Byte, Short, Integer or Long)
+	 */
+	protected AbstractEnumSetConverter(Class<ET> typeOfDbValueGetter, Class<T> newTypeOfDbValue)
+	{
+		codec = DbValueCodec.of(typeOfDbValueGetter);
+		typeOfDbValue = newTypeOfDbValue;
+
+		DbValueUtil.toIntegralValue(typeOfDbValue, 0); // Checks the supported type
+	}
+
+	/**
+	 * Converts the attribute to value of column.
+	 *
+	 * @param attribute The value of attribute
+	 *
+	 * @return null if the attribute is null
+	 */
+	public T convertToDatabaseColumn(EnumSet<ET> attribute)
+	{
+		if (attribute == null) {
+			return null;
+		}
+
+		return DbValueUtil.toIntegralValue(typeOfDbValue, codec.toJoinedValue(attribute));
+	}
+
+	/**
+	 * Converts the value of column to attribute.
+	 *
+	 * @param dbData The value of column
+	 *
+	 * @return empty set if the value of column is null
+	 */
+	public EnumSet<ET> convertToEntityAttribute(T dbData)
+	{
+		if (dbData == null) {
+			return EnumSet.noneOf(codec.getEnumType());
+		}
+
+		return codec.fromJoinedValue(dbData.longValue());
+	}
+}
@@ -4,8 +4,11 @@ import org.apache.commons.lang3.time.DateUtils;
 
 import java.sql.Date;
 import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.zone.ZoneRules;
 import java.util.Calendar;
-import static java.util.Calendar.getInstance;
 
 /**
  * The utility to process Date/Time/Timestamp data between SQL and Java.
@@ -13,10 +16,26 @@ import static java.util.Calendar.getInstance;
  *
  * <p>With {@link Date} type, the time would be 00:00:00</p>
  * <p>With {@link Timestamp} type, milliseconds would be erased</p>
+ *
+ * <p>The methods for {@link java.util.Date}, {@link Instant}, and {@link LocalDate} truncate epoch milliseconds arithmetically,
+ * without {@link Calendar}. The rules of default time zone are cached, see {@link #refreshDefaultTimeZone()}.</p>
  */
 public class DateTimeUtil {
+	private final static long MILLIS_PER_DAY = 24L * 60 * 60 * 1000;
+	private final static long MILLIS_PER_SECOND = 1000L;
+
+	private static volatile ZoneRules defaultZoneRules = ZoneId.systemDefault().getRules();
+
 	private DateTimeUtil() {}
 
+	/**
+	 * Reloads the cached rules of default time zone, should be called after {@link java.util.TimeZone#setDefault(java.util.TimeZone)}.
+	 */
+	public static void refreshDefaultTimeZone()
+	{
+		defaultZoneRules = ZoneId.systemDefault().getRules();
+	}
+
 	/**
 	 * Compare SQL date type, time value would be erased.
 	 *
@@ -27,12 +46,9 @@ public class DateTimeUtil {
 	 */
 	public static int compare(Date leftDate, Date rightDate)
 	{
-		Calendar leftCalender = getInstance();
-		leftCalender.setTime(convertToDate(leftDate));
-		Calendar rightCalender = getInstance();
-		rightCalender.setTime(convertToDate(rightDate));
-
-		return leftCalender.compareTo(rightCalender);
+		return Long.compare(
+			trimToSQLDate(leftDate.getTime()), trimToSQLDate(rightDate.getTime())
+		);
 	}
 	/**
 	 * Compare SQL timestamp type, milliseconds would be erased.
@@ -44,12 +60,9 @@ public class DateTimeUtil {
 	 */
 	public static int compare(Timestamp leftTime, Timestamp rightTime)
 	{
-		Calendar leftCalender = getInstance();
-		leftCalender.setTime(convertToTimestamp(leftTime));
-		Calendar rightCalender = getInstance();
-		rightCalender.setTime(convertToTimestamp(rightTime));
-
-		return leftCalender.compareTo(rightCalender);
+		return Long.compare(
+			trimToSQLTimestamp(leftTime.getTime()), trimToSQLTimestamp(rightTime.getTime())
+		);
 	}
 
 	/**
@@ -61,7 +74,7 @@ public class DateTimeUtil {
 	 */
 	public static Date getCurrentDate()
 	{
-		return convertToDate(getInstance());
+		return new Date(trimToSQLDate(System.currentTimeMillis()));
 	}
 	/**
 	 * Generate current date with time
@@ -72,7 +85,7 @@ public class DateTimeUtil {
 	 */
 	public static Timestamp getCurrentTimestamp()
 	{
-		return convertToTimestamp(getInstance());
+		return new Timestamp(trimToSQLTimestamp(System.currentTimeMillis()));
 	}
 
 	/**
@@ -104,6 +117,44 @@ public class DateTimeUtil {
 		return DateUtils.truncate(calendar, Calendar.SECOND);
 	}
 
+	/**
+	 * Erase the time potion of epoch milliseconds, with default time zone.
+	 *
+	 * @param epochMillis The milliseconds from 1970-01-01T00:00:00Z
+	 *
+	 * @return The milliseconds of start of the day
+	 *
+	 * @see #trimToSQLDate(Calendar)
+	 */
+	public static long trimToSQLDate(long epochMillis)
+	{
+		return trimToSQLDate(epochMillis, defaultZoneRules);
+	}
+	/**
+	 * Erase the milliseconds of epoch milliseconds.
+	 *
+	 * @param epochMillis The milliseconds from 1970-01-01T00:00:00Z
+	 *
+	 * @return The milliseconds without milliseconds potion
+	 *
+	 * @see #trimToSQLTimestamp(Calendar)
+	 */
+	public static long trimToSQLTimestamp(long epochMillis)
+	{
+		return epochMillis - Math.floorMod(epochMillis, MILLIS_PER_SECOND);
+	}
+
+	/**
+	 * Erase the time potion of epoch milliseconds with rules of time zone.
+	 */
+	static long trimToSQLDate(long epochMillis, ZoneRules zoneRules)
+	{
+		long offsetMillis = offsetMillis(zoneRules, epochMillis);
+		long localMillis = epochMillis + offsetMillis;
+
+		return startOfLocalDay(localMillis - Math.floorMod(localMillis, MILLIS_PER_DAY), offsetMillis, zoneRules);
+	}
+
 	/**
 	 * Convert {@link Calendar} to {@link Date}.
 	 *
@@ -143,9 +194,7 @@ public class DateTimeUtil {
 	 */
 	public static Date convertToDate(java.util.Date srcDate)
 	{
-		Calendar srcCalender = Calendar.getInstance();
-		srcCalender.setTime(srcDate);
-		return convertToDate(srcCalender);
+		return new Date(trimToSQLDate(srcDate.getTime()));
 	}
 	/**
 	 * Erase the milliseconds and convert {@link java.util.Date} to {@link Timestamp}.
@@ -158,8 +207,68 @@ public class DateTimeUtil {
 	 */
 	public static Timestamp convertToTimestamp(java.util.Date srcDate)
 	{
-		Calendar srcCalender = Calendar.getInstance();
-		srcCalender.setTime(srcDate);
-		return convertToTimestamp(srcCalender);
+		return new Timestamp(trimToSQLTimestamp(srcDate.getTime()));
+	}
+
+	/**
+	 * Erase the time portion(with default time zone) and convert {@link Instant} to {@link Date}.
+	 *
+	 * @param srcInstant source instant
+	 *
+	 * @return Date type in SQL
+	 *
+	 * @see #convertToTimestamp(Instant)
+	 */
+	public static Date convertToDate(Instant srcInstant)
+	{
+		return new Date(trimToSQLDate(srcInstant.toEpochMilli()));
+	}
+	/**
+	 * Erase the milliseconds and convert {@link Instant} to {@link Timestamp}.
+	 *
+	 * @param srcInstant source instant
+	 *
+	 * @return Timestamp type in SQL
+	 *
+	 * @see #convertToDate(Instant)
+	 */
+	public static Timestamp convertToTimestamp(Instant srcInstant)
+	{
+		return new Timestamp(srcInstant.getEpochSecond() * MILLIS_PER_SECOND);
+	}
+	/**
+	 * Convert {@link LocalDate} to {@link Date}(start of the day with default time zone).
+	 *
+	 * @param srcDate source local date
+	 *
+	 * @return Date type in SQL
+	 */
+	public static Date convertToDate(LocalDate srcDate)
+	{
+		ZoneRules zoneRules = defaultZoneRules;
+		long localMidnight = srcDate.toEpochDay() * MILLIS_PER_DAY;
+
+		return new Date(startOfLocalDay(localMidnight, offsetMillis(zoneRules, localMidnight), zoneRules));
+	}
+
+	/**
+	 * Gets the epoch milliseconds of local midnight.
+	 *
+	 * The offset of midnight may be different from the guessed one(e.g. daylight saving time),
+	 * so the offset is resolved again with the guessed instant of midnight.
+	 * If the midnight is in a gap of transition, the instant of transition is returned(as lenient {@link Calendar}).
+	 */
+	private static long startOfLocalDay(long localMidnight, long guessedOffsetMillis, ZoneRules zoneRules)
+	{
+		if (zoneRules.isFixedOffset()) {
+			return localMidnight - guessedOffsetMillis;
+		}
+
+		return localMidnight - offsetMillis(zoneRules, localMidnight - guessedOffsetMillis);
+	}
+	private static long offsetMillis(ZoneRules zoneRules, long epochMillis)
+	{
+		Instant instant = zoneRules.isFixedOffset() ? Instant.EPOCH : Instant.ofEpochMilli(epochMillis);
+		return zoneRules.getOffset(instant).getTotalSeconds() * MILLIS_PER_SECOND;
 	}
 }
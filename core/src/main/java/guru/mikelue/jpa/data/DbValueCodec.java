@@ -0,0 +1,247 @@
+package guru.mikelue.jpa.data;
+
+import java.lang.reflect.Array;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * The cached codec between database values and a {@link DbValueGetter} enumeration.
+ *
+ * <p>The codec is built once per enum type(see {@link #of(Class)}) and is immutable.
+ * The lookup of {@link #fromDbValue(long)} is allocation-free:</p>
+ * <ul>
+ * 		<li>If every database value is in [0, {@link #MAX_DENSE_VALUE}], a dense array indexed by the value is used.</li>
+ * 		<li>Otherwise, an open-addressing table keyed by primitive long(with linear probing) is used.</li>
+ * </ul>
+ *
+ * <p>If multiple constants have the same database value, the last declared one wins(as {@link DbValueUtil#convertToIntMap(Class)}).</p>
+ *
+ * @param <ET> type of {@link DbValueGetter} enumeration
+ *
+ * @see DbValueUtil
+ */
+public final class DbValueCodec<ET extends Enum<ET> & DbValueGetter<? extends Number>> {
+	/**
+	 * The maximum database value to use dense array for lookup
+	 */
+	public final static int MAX_DENSE_VALUE = 255;
+
+	private final static ClassValue<DbValueCodec<?>> CODECS = new ClassValue<DbValueCodec<?>>() {
+		@Override
+		@SuppressWarnings({ "unchecked", "rawtypes" })
+		protected DbValueCodec<?> computeValue(Class<?> type)
+		{
+			return new DbValueCodec(type);
+		}
+	};
+
+	/**
+	 * Gets the cached codec of enum type.
+	 *
+	 * @param <ET> type of {@link DbValueGetter} enumeration
+	 * @param typeOfDbValueGetter type of {@link DbValueGetter} enumeration
+	 *
+	 * @return The shared codec
+	 */
+	@SuppressWarnings("unchecked")
+	public static <ET extends Enum<ET> & DbValueGetter<? extends Number>> DbValueCodec<ET> of(Class<ET> typeOfDbValueGetter)
+	{
+		if (typeOfDbValueGetter == null || !typeOfDbValueGetter.isEnum()) {
+			throw new IllegalArgumentException("Need enum type of DbValueGetter: " + typeOfDbValueGetter);
+		}
+
+		return (DbValueCodec<ET>)CODECS.get(typeOfDbValueGetter);
+	}
+
+	private final Class<ET> enumType;
+	private final ET[] constants;
+	/**
+	 * The database values indexed by ordinal
+	 */
+	private final long[] dbValues;
+
+	/**
+	 * Dense lookup(null if the values are sparse)
+	 */
+	private final ET[] denseTable;
+	/**
+	 * Open-addressing lookup(null if the dense lookup is used)
+	 */
+	private final long[] sparseKeys;
+	private final ET[] sparseValues;
+	private final int sparseMask;
+
+	private final Map<Number, ET> numberMap;
+	private final Map<String, ET> stringMap;
+
+	@SuppressWarnings("unchecked")
+	private DbValueCodec(Class<ET> newEnumType)
+	{
+		enumType = newEnumType;
+		constants = newEnumType.getEnumConstants();
+		dbValues = new long[constants.length];
+
+		Map<Number, ET> newNumberMap = new HashMap<Number, ET>(constants.length * 2);
+		Map<String, ET> newStringMap = new HashMap<String, ET>(constants.length * 2);
+
+		long minValue = Long.MAX_VALUE;
+		long maxValue = Long.MIN_VALUE;
+		for (ET constant: constants) {
+			Number dbValue = constant.getDbValue();
+
+			dbValues[constant.ordinal()] = dbValue.longValue();
+			minValue = Math.min(minValue, dbValue.longValue());
+			maxValue = Math.max(maxValue, dbValue.longValue());
+
+			newNumberMap.put(dbValue, constant);
+			newStringMap.put(String.valueOf(dbValue), constant);
+		}
+
+		numberMap = Collections.unmodifiableMap(newNumberMap);
+		stringMap = Collections.unmodifiableMap(newStringMap);
+
+		/**
+		 * Builds dense array for small values
+		 */
+		if (constants.length == 0 || (minValue >= 0 && maxValue <= MAX_DENSE_VALUE)) {
+			denseTable = (ET[])Array.newInstance(newEnumType, constants.length == 0 ? 0 : (int)maxValue + 1);
+			for (ET constant: constants) {
+				denseTable[(int)dbValues[constant.ordinal()]] = constant;
+			}
+
+			sparseKeys = null;
+			sparseValues = null;
+			sparseMask = 0;
+			return;
+		}
+		// :~)
+
+		/**
+		 * Builds open-addressing table(load factor <= 0.5)
+		 */
+		int capacity = Integer.highestOneBit(constants.length * 2 - 1) << 1;
+		denseTable = null;
+		sparseKeys = new long[capacity];
+		sparseValues = (ET[])Array.newInstance(newEnumType, capacity);
+		sparseMask = capacity - 1;
+
+		for (ET constant: constants) {
+			long dbValue = dbValues[constant.ordinal()];
+			int slot = slotOf(dbValue);
+			while (sparseValues[slot] != null && sparseKeys[slot] != dbValue) {
+				slot = (slot + 1) & sparseMask;
+			}
+
+			sparseKeys[slot] = dbValue;
+			sparseValues[slot] = constant;
+		}
+		// :~)
+	}
+
+	/**
+	 * Gets the enum type of this codec.
+	 *
+	 * @return The enum type
+	 */
+	public Class<ET> getEnumType()
+	{
+		return enumType;
+	}
+
+	/**
+	 * Decodes the database value to enum constant.
+	 *
+	 * @param dbValue The database value
+	 *
+	 * @return null if there is no matched constant
+	 */
+	public ET fromDbValue(long dbValue)
+	{
+		if (denseTable != null) {
+			return dbValue >= 0 && dbValue < denseTable.length ?
+				denseTable[(int)dbValue] : null;
+		}
+
+		for (int slot = slotOf(dbValue); sparseValues[slot] != null; slot = (slot + 1) & sparseMask) {
+			if (sparseKeys[slot] == dbValue) {
+				return sparseValues[slot];
+			}
+		}
+
+		return null;
+	}
+
+	/**
+	 * Decodes the joined(with "|" bit operator) value to {@link EnumSet}.
+	 *
+	 * @param joinedValue The joined value
+	 *
+	 * @return The set of enum constants whose bits are all set in the joined value
+	 *
+	 * @see DbValueUtil#joinedValueToEnumSet(Class, Number)
+	 */
+	public EnumSet<ET> fromJoinedValue(long joinedValue)
+	{
+		EnumSet<ET> resultEnumSet = EnumSet.noneOf(enumType);
+
+		for (int i = 0; i < constants.length; i++) {
+			if ((joinedValue & dbValues[i]) == dbValues[i]) {
+				resultEnumSet.add(constants[i]);
+			}
+		}
+
+		return resultEnumSet;
+	}
+
+	/**
+	 * Encodes the {@link EnumSet} to joined(with "|" bit operator) value.
+	 *
+	 * @param enumSetValue The set of enum constants, could be null
+	 *
+	 * @return 0 if the set is null or empty
+	 *
+	 * @see DbValueUtil#enumSetToJoinedValue(Class, EnumSet)
+	 */
+	public long toJoinedValue(EnumSet<ET> enumSetValue)
+	{
+		long resultValue = 0L;
+
+		if (enumSetValue != null) {
+			for (ET constant: enumSetValue) {
+				resultValue |= dbValues[constant.ordinal()];
+			}
+		}
+
+		return resultValue;
+	}
+
+	/**
+	 * Gets the unmodifiable map from database value(in type of {@link DbValueGetter#getDbValue()}) to enum constant.
+	 *
+	 * @param <T> The type of number
+	 *
+	 * @return The shared map
+	 */
+	@SuppressWarnings("unchecked")
+	public <T extends Number> Map<T, ET> getNumberMap()
+	{
+		return (Map<T, ET>)numberMap;
+	}
+	/**
+	 * Gets the unmodifiable map from string of database value to enum constant.
+	 *
+	 * @return The shared map
+	 */
+	public Map<String, ET> getStringMap()
+	{
+		return stringMap;
+	}
+
+	private int slotOf(long dbValue)
+	{
+		long hash = dbValue * 0x9E3779B97F4A7C15L;
+		return (int)(hash ^ (hash >>> 32)) & sparseMask;
+	}
+}
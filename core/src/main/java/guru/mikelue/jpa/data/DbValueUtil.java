@@ -1,8 +1,6 @@
 package guru.mikelue.jpa.data;
 
 import java.util.EnumSet;
-import java.util.Collections;
-import java.util.HashMap;
 import java.util.Map;
 
 /**
@@ -10,7 +8,11 @@ import java.util.Map;
  *
  * <p>This class generates unmodifiable map which map the integral value to enumeration type.</p>
  *
+ * <p>The conversions are served by the cached {@link DbValueCodec} of enum type,
+ * so the maps are built only once per enum type.</p>
+ *
  * @see DbValueGetter
+ * @see DbValueCodec
  */
 public class DbValueUtil {
 	private DbValueUtil() {}
@@ -22,19 +24,13 @@ public class DbValueUtil {
      * @param <ET> type of {@link DbValueGetter} enumeration
 	 * @param typeOfDbValueGetter The class being converted
 	 *
-	 * @return An unmodifidiable map
+	 * @return An unmodifidiable map(shared by callers)
 	 *
 	 * @see #convertToStringMap(Class)
 	 */
 	public static <T extends Number, ET extends Enum<ET> & DbValueGetter<T>> Map<T, ET> convertToIntMap(Class<ET> typeOfDbValueGetter)
 	{
-		Map<T, ET> dbValueMap = new HashMap<T, ET>(typeOfDbValueGetter.getEnumConstants().length);
-
-		for (ET enumValue: typeOfDbValueGetter.getEnumConstants()) {
-			dbValueMap.put(enumValue.getDbValue(), enumValue);
-		}
-
-		return Collections.unmodifiableMap(dbValueMap);
+		return DbValueCodec.of(typeOfDbValueGetter).<T>getNumberMap();
 	}
 
 	/**
@@ -43,19 +39,13 @@ public class DbValueUtil {
 	 * @param <ET> The type of value getter
 	 * @param typeOfDbValueGetter The class being converted
 	 *
-	 * @return An unmodifidiable map
+	 * @return An unmodifidiable map(shared by callers)
 	 *
 	 * @see #convertToIntMap(Class)
 	 */
 	public static <ET extends Enum<ET> & DbValueGetter<? extends Number>> Map<String, ET> convertToStringMap(Class<ET> typeOfDbValueGetter)
 	{
-		Map<String, ET> dbValueMap = new HashMap<String, ET>(typeOfDbValueGetter.getEnumConstants().length);
-
-		for (ET enumValue: typeOfDbValueGetter.getEnumConstants()) {
-			dbValueMap.put(String.valueOf(enumValue.getDbValue()), enumValue);
-		}
-
-		return Collections.unmodifiableMap(dbValueMap);
+		return DbValueCodec.of(typeOfDbValueGetter).getStringMap();
 	}
 
 
@@ -74,22 +64,11 @@ public class DbValueUtil {
     public static <T extends Number, ET extends Enum<ET> & DbValueGetter<T>>
         EnumSet<ET> joinedValueToEnumSet(Class<ET> typeOfDbValueGetter, T dbValueSet)
     {
-        EnumSet<ET> resultEnumSet = EnumSet.noneOf(typeOfDbValueGetter);
-
         if (dbValueSet == null) {
-            return resultEnumSet;
-        }
-
-        for (ET dbValueGetter: typeOfDbValueGetter.getEnumConstants()) {
-            long longOfEnum = dbValueGetter.getDbValue().longValue();
-            if (
-                (dbValueSet.longValue() & longOfEnum) == longOfEnum
-            ) {
-                resultEnumSet.add(dbValueGetter);
-            }
+            return EnumSet.noneOf(typeOfDbValueGetter);
         }
 
-        return resultEnumSet;
+        return DbValueCodec.of(typeOfDbValueGetter).fromJoinedValue(dbValueSet.longValue());
     }
     /**
      * Convert an {@link EnumSet} to joined(with "|" bit operator) numeric value.
@@ -108,22 +87,28 @@ public class DbValueUtil {
     public static <T extends Number, ET extends Enum<ET> & DbValueGetter<T>>
         T enumSetToJoinedValue(Class<T> typeOfDbValue, EnumSet<ET> enumSetValue)
     {
-        Long resultValue = 0L;
+        long resultValue = 0L;
 
-        if (enumSetValue != null) {
-            for (ET dbValueGetter: enumSetValue) {
-                resultValue |= dbValueGetter.getDbValue().longValue();
-            }
+        if (enumSetValue != null && !enumSetValue.isEmpty()) {
+            resultValue = DbValueCodec.of(enumSetValue.iterator().next().getDeclaringClass()).toJoinedValue(enumSetValue);
         }
 
+        return toIntegralValue(typeOfDbValue, resultValue);
+    }
+
+    /**
+     * Narrows the long value to the integral type(Byte/Short/Integer/Long).
+     */
+    static <T extends Number> T toIntegralValue(Class<T> typeOfDbValue, long value)
+    {
         if (typeOfDbValue.equals(Byte.class)) {
-            return typeOfDbValue.cast(resultValue.byteValue());
+            return typeOfDbValue.cast((byte)value);
         } else if (typeOfDbValue.equals(Short.class)) {
-            return typeOfDbValue.cast(resultValue.shortValue());
+            return typeOfDbValue.cast((short)value);
         } else if (typeOfDbValue.equals(Integer.class)) {
-            return typeOfDbValue.cast(resultValue.intValue());
-        } else if (typeOfDbValue.equals(Short.class)) {
-            return typeOfDbValue.cast(resultValue.longValue());
+            return typeOfDbValue.cast((int)value);
+        } else if (typeOfDbValue.equals(Long.class)) {
+            return typeOfDbValue.cast(value);
         } else {
             throw new IllegalArgumentException("Unknown integral type: " + typeOfDbValue.toString());
         }
@@ -0,0 +1,23 @@
+package guru.mikelue.jpa.paging;
+
+/**
+ * 可先計算資料總筆數的兩階段分頁 Closure 介面.
+ *
+ * <p>在要求「最後一頁」({@link PagingRequestBean#LAST_PAGE})時，{@link TwoPhasePagingRunner}
+ * 會先呼叫 {@link #countTotalSize()} 取得總筆數，再計算出最後一頁的頁碼，
+ * 並以 {@link #firstPhasePaging(PagingResultBean)} 只取出該頁的資料，
+ * 而不會以 {@link #lastPhasePaging(PagingResultBean)} 取出全部的資料。</p>
+ *
+ * @param <T> 回傳的 List Generic Type
+ *
+ * @see TwoPhasePagingRunner
+ * @see TwoPhasePagingRunner#runCountedPagingFilter(CountingPagingFilter, PagingResultBean, FetchPhase)
+ */
+public interface CountingPagingFilter<T> extends TwoPhasePagingFilter<T> {
+	/**
+	 * 取得資料的總筆數
+	 *
+	 * @return 大於等於 0 的總筆數
+	 */
+	public long countTotalSize();
+}
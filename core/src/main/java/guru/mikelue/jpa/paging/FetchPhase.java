@@ -1,6 +1,7 @@
 package guru.mikelue.jpa.paging;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 import static org.apache.commons.lang3.Validate.isTrue;
@@ -16,10 +17,10 @@ public enum FetchPhase {
 	 */
 	FirstFetch {
 		@Override
-		public <T> List<T> filterToPage(List<T> srcData, int pageSize)
+		public <T> List<T> viewOfPage(List<T> srcData, int pageSize)
 		{
 			validatePageSize(pageSize);
-			return new ArrayList<T>(srcData.subList(
+			return Collections.unmodifiableList(srcData.subList(
 				0,
 				Math.min(srcData.size(), pageSize)
 			));
@@ -30,10 +31,10 @@ public enum FetchPhase {
 	 */
 	LastFetch {
 		@Override
-		public <T> List<T> filterToPage(List<T> srcData, int pageSize)
+		public <T> List<T> viewOfPage(List<T> srcData, int pageSize)
 		{
 			validatePageSize(pageSize);
-			return new ArrayList<T>(srcData.subList(
+			return Collections.unmodifiableList(srcData.subList(
 				Math.max(0, srcData.size() - pageSize),
 				srcData.size()
 			));
@@ -51,8 +52,30 @@ public enum FetchPhase {
 	 * @param pageSize 每頁筆數
 	 *
 	 * @return The result data
+	 *
+	 * @see #viewOfPage(List, int)
+	 */
+	public <T> List<T> filterToPage(List<T> srcData, int pageSize)
+	{
+		return new ArrayList<T>(viewOfPage(srcData, pageSize));
+	}
+
+	/**
+	 * 依階段不同，取得所在資料的唯讀檢視(不會複製資料).
+	 *
+	 * <p>回傳的 List 與來源資料共用內容(由 {@link List#subList(int, int)} 產生)，
+	 * 若來源資料為 {@link java.util.RandomAccess}，回傳的 List 亦為 {@link java.util.RandomAccess}。
+	 * 來源資料的結構改變後(例如增減資料)，不可再使用回傳的 List</p>
+	 *
+	 * @param <T> 資料的型態
+	 * @param srcData 來源資料
+	 * @param pageSize 每頁筆數
+	 *
+	 * @return 不可修改的資料檢視
+	 *
+	 * @see #filterToPage(List, int)
 	 */
-	public abstract <T> List<T> filterToPage(List<T> srcData, int pageSize);
+	public abstract <T> List<T> viewOfPage(List<T> srcData, int pageSize);
 
 	private static void validatePageSize(int srcPageSize)
 	{
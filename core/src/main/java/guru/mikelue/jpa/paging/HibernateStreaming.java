@@ -0,0 +1,105 @@
+package guru.mikelue.jpa.paging;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+import javax.persistence.EntityManager;
+import javax.persistence.TypedQuery;
+
+import org.hibernate.ScrollMode;
+import org.hibernate.ScrollableResults;
+
+/**
+ * 以 Hibernate 的 {@link ScrollableResults} 串流讀取資料的實作.
+ *
+ * <p>獨立成類別，Hibernate 不在 class path 中時，{@link PagingUtil} 不會載入 Hibernate 的類別</p>
+ */
+final class HibernateStreaming {
+	private HibernateStreaming() {}
+
+	static <T> Stream<T> scrollAndStream(TypedQuery<T> typedQuery, EntityManager entityManager, int firstResult, int maxResults, int fetchSize)
+	{
+		ScrollableResultsIterator<T> resultIterator = new ScrollableResultsIterator<T>(
+			typedQuery.unwrap(org.hibernate.Query.class)
+				.setFirstResult(firstResult)
+				.setMaxResults(maxResults)
+				.setFetchSize(fetchSize)
+				.setReadOnly(true)
+				.scroll(ScrollMode.FORWARD_ONLY),
+			entityManager, fetchSize
+		);
+
+		return StreamSupport.stream(
+			Spliterators.spliteratorUnknownSize(resultIterator, Spliterator.ORDERED), false
+		).onClose(resultIterator::close);
+	}
+}
+
+/**
+ * 以 Hibernate {@link ScrollableResults} 逐筆讀取資料的 {@link Iterator}，
+ * 每讀取固定的筆數，會清除 persistence context，讀取完全部的資料時，會自動關閉
+ */
+class ScrollableResultsIterator<T> implements Iterator<T> {
+	private final ScrollableResults scrollableResults;
+	private final EntityManager entityManager;
+	private final int clearInterval;
+
+	private int numberOfReadRows = 0;
+	private Boolean hasNextRow = null;
+	private boolean closed = false;
+
+	ScrollableResultsIterator(ScrollableResults newScrollableResults, EntityManager newEntityManager, int newClearInterval)
+	{
+		scrollableResults = newScrollableResults;
+		entityManager = newEntityManager;
+		clearInterval = newClearInterval;
+	}
+
+	@Override
+	public boolean hasNext()
+	{
+		if (hasNextRow == null) {
+			if (numberOfReadRows > 0 && numberOfReadRows % clearInterval == 0) {
+				entityManager.clear();
+			}
+
+			hasNextRow = scrollableResults.next();
+			if (!hasNextRow) {
+				close();
+			}
+		}
+
+		return hasNextRow;
+	}
+	@Override @SuppressWarnings("unchecked")
+	public T next()
+	{
+		if (!hasNext()) {
+			throw new NoSuchElementException("No more data");
+		}
+
+		hasNextRow = null;
+		numberOfReadRows++;
+
+		/**
+		 * 單一欄位的查詢，傳回該欄位，否則傳回整列資料
+		 */
+		Object[] row = scrollableResults.get();
+		return (T)(row.length == 1 ? row[0] : row);
+		// :~)
+	}
+
+	void close()
+	{
+		hasNextRow = false;
+		if (closed) {
+			return;
+		}
+
+		closed = true;
+		scrollableResults.close();
+	}
+}
@@ -0,0 +1,124 @@
+package guru.mikelue.jpa.paging;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import guru.mikelue.jpa.query.SortingBean;
+
+import static org.apache.commons.lang3.Validate.isTrue;
+import static org.apache.commons.lang3.Validate.notEmpty;
+import static org.apache.commons.lang3.Validate.notNull;
+
+/**
+ * 以排序鍵值(Keyset/Seek)分頁的請求資料，本物件建構後不可變更.
+ *
+ * 本物件包含下列資料
+ * <ol>
+ * 		<li>每頁筆數</li>
+ * 		<li>排序的欄位(需能唯一決定資料順序，例如最後一個欄位為主鍵)</li>
+ * 		<li>上一頁最後一筆資料的排序鍵值(第一頁為 null)</li>
+ * </ol>
+ *
+ * <p>與 {@link PagingRequestBean} 不同，本物件不使用 {@link javax.persistence.Query#setFirstResult(int)}，
+ * 而是以「大於(或小於)上一頁最後一筆的鍵值」為查詢條件，因此任何頁數的查詢成本皆相同。</p>
+ *
+ * <p>取得下一頁的請求，可用 {@link KeysetPagingResultBean#getNextPagingRequestBean()}(作為 continuation token)</p>
+ *
+ * @see PagingUtil#queryAndSeekToPage(javax.persistence.TypedQuery, KeysetPagingResultBean)
+ */
+public class KeysetPagingRequestBean {
+	private final int pageSize;
+	private final List<SortingBean> sortingBeans;
+	private final Object[] lastKeyValues;
+
+	/**
+	 * 以第一頁的請求，初始化本物件
+	 *
+	 * @param newPageSize 每頁的資料筆數，至少為 1
+	 * @param newSortingBeans 排序的欄位，不得為空
+	 */
+	public KeysetPagingRequestBean(int newPageSize, List<SortingBean> newSortingBeans)
+	{
+		this(newPageSize, newSortingBeans, null);
+	}
+	/**
+	 * 提供所有可設定的資料，初始化本物件
+	 *
+	 * @param newPageSize 每頁的資料筆數，至少為 1
+	 * @param newSortingBeans 排序的欄位，不得為空
+	 * @param newLastKeyValues 上一頁最後一筆資料的排序鍵值，順序與排序的欄位相同，若為 null，代表第一頁
+	 */
+	public KeysetPagingRequestBean(int newPageSize, List<SortingBean> newSortingBeans, Object[] newLastKeyValues)
+	{
+		isTrue(
+			newPageSize > 0,
+			"Page size must be >= 1, current: ", String.valueOf(newPageSize)
+		);
+		notEmpty(newSortingBeans, "Sorting keys are empty");
+
+		List<SortingBean> copiedSortingBeans = new ArrayList<SortingBean>(newSortingBeans.size());
+		for (SortingBean sortingBean: newSortingBeans) {
+			notNull(sortingBean, "Sorting bean is null");
+			notNull(sortingBean.getSortingKey(), "Sorting key is null");
+			copiedSortingBeans.add(new SortingBean(sortingBean));
+		}
+
+		if (newLastKeyValues != null) {
+			isTrue(
+				newLastKeyValues.length == copiedSortingBeans.size(),
+				"The number of key values must be as same as sorting keys: %d", copiedSortingBeans.size()
+			);
+			newLastKeyValues = Arrays.copyOf(newLastKeyValues, newLastKeyValues.length);
+		}
+
+		pageSize = newPageSize;
+		sortingBeans = Collections.unmodifiableList(copiedSortingBeans);
+		lastKeyValues = newLastKeyValues;
+	}
+
+	/**
+	 * 取得每頁筆數
+	 *
+	 * @return 至少為 1
+	 */
+	public int getPageSize() { return this.pageSize; }
+
+	/**
+	 * 取得排序的欄位
+	 *
+	 * @return 不可變更的 List
+	 */
+	public List<SortingBean> getSortingBeans() { return this.sortingBeans; }
+
+	/**
+	 * 取得上一頁最後一筆資料的排序鍵值
+	 *
+	 * @return 複製的陣列，若為第一頁，傳回 null
+	 */
+	public Object[] getLastKeyValues()
+	{
+		return lastKeyValues == null ? null :
+			Arrays.copyOf(lastKeyValues, lastKeyValues.length);
+	}
+
+	/**
+	 * 判斷是否為第一頁的請求(沒有上一頁的排序鍵值)
+	 *
+	 * @return 若為第一頁，傳回 true
+	 */
+	public boolean isFirstPage()
+	{
+		return lastKeyValues == null;
+	}
+
+	@Override
+	public String toString()
+	{
+		return String.format(
+			"Page Size: %s, Number of Sorting Keys: %s, Last Key Values: %s",
+			getPageSize(), sortingBeans.size(), Arrays.toString(lastKeyValues)
+		);
+	}
+}
@@ -0,0 +1,78 @@
+package guru.mikelue.jpa.paging;
+
+import static org.apache.commons.lang3.Validate.notNull;
+
+/**
+ * 以排序鍵值(Keyset/Seek)分頁的結果物件.
+ *
+ * <p>查詢後，可由 {@link #getResultStatus()} 得知是否還有下一頁，
+ * 並以 {@link #getNextPagingRequestBean()} 取得下一頁的請求(continuation token)</p>
+ *
+ * @see KeysetPagingRequestBean
+ * @see PagingUtil#queryAndSeekToPage(javax.persistence.TypedQuery, KeysetPagingResultBean)
+ */
+public class KeysetPagingResultBean {
+	private final KeysetPagingRequestBean pagingRequestBean;
+
+	private ResultStatus resultStatus = ResultStatus.NotReady;
+	private KeysetPagingRequestBean nextPagingRequestBean = null;
+
+	/**
+	 * 以要求的分頁資料，建構本物件
+	 *
+	 * @param newPagingRequestBean 要求的分頁資料，不得為 null
+	 */
+	public KeysetPagingResultBean(KeysetPagingRequestBean newPagingRequestBean)
+	{
+		notNull(newPagingRequestBean, "Keyset paging request is null");
+		pagingRequestBean = newPagingRequestBean;
+	}
+
+	/**
+	 * 取得分頁的請求內容
+	 *
+	 * @return 分頁的請求內容
+	 */
+	public KeysetPagingRequestBean getPagingRequestBean()
+	{
+		return pagingRequestBean;
+	}
+
+	/**
+	 * 依查詢結果取得查詢的狀態.
+	 *
+	 * <p>若尚未查詢，會傳回 {@link ResultStatus#NotReady}</p>
+	 *
+	 * @return 查詢結果的狀態
+	 */
+	public ResultStatus getResultStatus()
+	{
+		return resultStatus;
+	}
+
+	/**
+	 * 取得下一頁的請求，以本頁最後一筆資料的排序鍵值為查詢條件.
+	 *
+	 * @return 若沒有下一頁({@link #getResultStatus()} 不是 {@link ResultStatus#HasMorePage})，傳回 null
+	 */
+	public KeysetPagingRequestBean getNextPagingRequestBean()
+	{
+		return nextPagingRequestBean;
+	}
+
+	/**
+	 * 設定查詢的結果
+	 *
+	 * @param newResultStatus 查詢的狀態
+	 * @param nextKeyValues 本頁最後一筆資料的排序鍵值，若沒有下一頁，可為 null
+	 */
+	void setResult(ResultStatus newResultStatus, Object[] nextKeyValues)
+	{
+		resultStatus = newResultStatus;
+		nextPagingRequestBean = newResultStatus == ResultStatus.HasMorePage ?
+			new KeysetPagingRequestBean(
+				pagingRequestBean.getPageSize(), pagingRequestBean.getSortingBeans(), nextKeyValues
+			) :
+			null;
+	}
+}
@@ -0,0 +1,100 @@
+package guru.mikelue.jpa.paging;
+
+import java.util.concurrent.TimeUnit;
+
+import com.codahale.metrics.Counter;
+import com.codahale.metrics.Histogram;
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.Timer;
+
+import static org.apache.commons.lang3.Validate.notBlank;
+import static org.apache.commons.lang3.Validate.notNull;
+
+/**
+ * 將 {@link PagingEvent} 發佈為 Dropwizard Metrics 計量的 {@link PagingListener}(需要 metrics-core 函式庫).
+ *
+ * 會在 {@link MetricRegistry} 註冊下列計量(名稱前綴為建構時的 prefix)
+ * <ol>
+ * 		<li>Counter: <em>calls</em>(分頁次數)、<em>second-query</em>(執行第二次查詢的次數)、
+ * 			<em>last-page</em>(執行「最後一頁」路徑的次數)、<em>empty-data</em>(沒有資料的次數)</li>
+ * 		<li>Timer: <em>count.latency</em>、<em>first-phase.latency</em>、<em>last-phase.latency</em>、<em>total.latency</em></li>
+ * 		<li>Histogram: <em>rows.fetched</em>、<em>rows.returned</em>、<em>rows.discarded</em></li>
+ * </ol>
+ *
+ * <pre>{@code
+ * TwoPhasePagingRunner.setPagingListener(new MetricsPagingListener(registry, "app.paging"));
+ * }</pre>
+ *
+ * @see TwoPhasePagingRunner#setPagingListener(PagingListener)
+ */
+public class MetricsPagingListener implements PagingListener {
+	private final Counter calls;
+	private final Counter secondQueries;
+	private final Counter lastPagePaths;
+	private final Counter emptyData;
+
+	private final Timer countLatency;
+	private final Timer firstPhaseLatency;
+	private final Timer lastPhaseLatency;
+	private final Timer totalLatency;
+
+	private final Histogram fetchedRows;
+	private final Histogram returnedRows;
+	private final Histogram discardedRows;
+
+	/**
+	 * 以 {@link MetricRegistry} 與計量名稱的前綴，建構本物件
+	 *
+	 * @param metricRegistry 註冊計量的物件，不得為 null
+	 * @param prefix 計量名稱的前綴，不得為空白
+	 */
+	public MetricsPagingListener(MetricRegistry metricRegistry, String prefix)
+	{
+		notNull(metricRegistry, "Metric registry is null");
+		notBlank(prefix, "Prefix of metrics is blank");
+
+		calls = metricRegistry.counter(MetricRegistry.name(prefix, "calls"));
+		secondQueries = metricRegistry.counter(MetricRegistry.name(prefix, "second-query"));
+		lastPagePaths = metricRegistry.counter(MetricRegistry.name(prefix, "last-page"));
+		emptyData = metricRegistry.counter(MetricRegistry.name(prefix, "empty-data"));
+
+		countLatency = metricRegistry.timer(MetricRegistry.name(prefix, "count", "latency"));
+		firstPhaseLatency = metricRegistry.timer(MetricRegistry.name(prefix, "first-phase", "latency"));
+		lastPhaseLatency = metricRegistry.timer(MetricRegistry.name(prefix, "last-phase", "latency"));
+		totalLatency = metricRegistry.timer(MetricRegistry.name(prefix, "total", "latency"));
+
+		fetchedRows = metricRegistry.histogram(MetricRegistry.name(prefix, "rows", "fetched"));
+		returnedRows = metricRegistry.histogram(MetricRegistry.name(prefix, "rows", "returned"));
+		discardedRows = metricRegistry.histogram(MetricRegistry.name(prefix, "rows", "discarded"));
+	}
+
+	@Override
+	public void pagingCompleted(PagingEvent event)
+	{
+		calls.inc();
+		if (event.isSecondQueryExecuted()) {
+			secondQueries.inc();
+		}
+		if (event.isLastPagePathTaken()) {
+			lastPagePaths.inc();
+		}
+		if (event.getResultStatus() == ResultStatus.EmptyData) {
+			emptyData.inc();
+		}
+
+		if (event.isCountExecuted()) {
+			countLatency.update(event.getCountNanos(), TimeUnit.NANOSECONDS);
+		}
+		if (event.isFirstPhaseExecuted()) {
+			firstPhaseLatency.update(event.getFirstPhaseNanos(), TimeUnit.NANOSECONDS);
+		}
+		if (event.isLastPhaseExecuted()) {
+			lastPhaseLatency.update(event.getLastPhaseNanos(), TimeUnit.NANOSECONDS);
+		}
+		totalLatency.update(event.getTotalNanos(), TimeUnit.NANOSECONDS);
+
+		fetchedRows.update(event.getFetchedRows());
+		returnedRows.update(event.getReturnedRows());
+		discardedRows.update(event.getDiscardedRows());
+	}
+}
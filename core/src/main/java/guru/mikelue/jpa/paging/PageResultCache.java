@@ -0,0 +1,338 @@
+package guru.mikelue.jpa.paging;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceUnitUtil;
+import javax.persistence.TypedQuery;
+import javax.persistence.metamodel.EntityType;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import static org.apache.commons.lang3.Validate.isTrue;
+import static org.apache.commons.lang3.Validate.notNull;
+
+/**
+ * 分頁查詢結果的快取，只儲存所在頁資料的主鍵與分頁的結果.
+ *
+ * <p>快取的鍵值為 Entity 的型別、JPQL、查詢的參數、分頁的請求內容與查詢的策略；
+ * 快取的內容為所在頁資料的主鍵、{@link ResultStatus}、結果頁碼與全部資料頁數。
+ * 快取命中時，會以「主鍵 IN (...)」的查詢取出資料，並還原 {@link PagingResultBean} 的分頁結果</p>
+ *
+ * <p>快取的內容超過存活時間(TTL)後失效，超過最大筆數時，會移除最久未使用的內容。
+ * 資料異動時，可用 {@link #invalidate(Class)} 清除該 Entity 型別的快取，
+ * 例如 {@link guru.mikelue.jpa.dao.AbstractTypedDaoFacadeBase#setPageResultCache(PageResultCache)}</p>
+ *
+ * <p>本物件為 thread-safe，並以 {@link ReentrantLock}(而非 synchronized)保護快取的內容，
+ * 在 virtual thread 中使用，不會佔住(pin)載體執行緒</p>
+ *
+ * @see PagingUtil#queryAndFilterDataToPage(TypedQuery, PagingResultBean, FetchPhase)
+ */
+public class PageResultCache {
+	private final Logger logger = LoggerFactory.getLogger(PageResultCache.class);
+
+	private final int maxSize;
+	private final long timeToLiveNanos;
+	private final Map<List<Object>, CachedPage> cachedPages;
+	private final Lock lock = new ReentrantLock();
+
+	private final AtomicLong hitCount = new AtomicLong(0);
+	private final AtomicLong missCount = new AtomicLong(0);
+
+	/**
+	 * 清除快取的次數(依 Entity 型別與全部)，查詢期間有清除時，不儲存查詢的結果
+	 */
+	private final ConcurrentMap<Class<?>, AtomicLong> invalidationCounts = new ConcurrentHashMap<Class<?>, AtomicLong>();
+	private final AtomicLong invalidationAllCount = new AtomicLong(0);
+
+	/**
+	 * 以最大筆數與存活時間，建構本物件
+	 *
+	 * @param newMaxSize 快取的最大筆數，至少為 1
+	 * @param timeToLive 快取的存活時間，至少為 1
+	 * @param timeUnit 存活時間的單位，不得為 null
+	 */
+	public PageResultCache(int newMaxSize, long timeToLive, TimeUnit timeUnit)
+	{
+		isTrue(newMaxSize > 0, "Max size of cache must be >= 1, current: %d", newMaxSize);
+		isTrue(timeToLive > 0, "Time to live must be >= 1, current: %d", timeToLive);
+		notNull(timeUnit, "Time unit is null");
+
+		maxSize = newMaxSize;
+		timeToLiveNanos = timeUnit.toNanos(timeToLive);
+		cachedPages = new LinkedHashMap<List<Object>, CachedPage>(16, 0.75f, true) {
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<List<Object>, CachedPage> eldest)
+			{
+				return size() > maxSize;
+			}
+		};
+	}
+
+	/**
+	 * 執行查詢(或使用快取)，並取得分頁設定的資料.
+	 *
+	 * <p>快取未命中時，會以 {@link PagingUtil#queryAndFilterDataToPage(TypedQuery, PagingResultBean, FetchPhase)} 執行查詢，
+	 * 並儲存結果；若快取的資料已被刪除(取出的筆數不符)，會重新執行查詢</p>
+	 *
+	 * @param <T> 回傳的 List Generic Type
+	 * @param entityManager 建立查詢的 EntityManager，不得為 null
+	 * @param entityType 查詢結果的 Entity 型別(需有單一的主鍵)，不得為 null
+	 * @param qlString 查詢的 JPQL，不得為 null
+	 * @param parameters 查詢的具名參數，參數值需正確實作 {@link Object#equals(Object)}，可為 null
+	 * @param pagingResultBean 分頁設定，不得為 null
+	 * @param fetchPhase 查詢的策略，若為 null，預設策略為 {@link FetchPhase#FirstFetch}
+	 *
+	 * @return 符合的資料，若沒有任何資料，會傳回 {@link List#size()} 為 0 的 {@link List}
+	 */
+	public <T> List<T> queryAndFilterDataToPage(
+		EntityManager entityManager, Class<T> entityType, String qlString, Map<String, ?> parameters,
+		PagingResultBean pagingResultBean, FetchPhase fetchPhase
+	) {
+		notNull(entityManager, "Entity manager is null");
+		notNull(entityType, "Entity type is null");
+		notNull(qlString, "JPQL is null");
+		notNull(pagingResultBean, "Paging result bean is null");
+
+		if (parameters == null) {
+			parameters = Collections.<String, Object>emptyMap();
+		}
+		if (fetchPhase == null) {
+			fetchPhase = FetchPhase.FirstFetch;
+		}
+
+		PagingRequest pagingRequest = pagingResultBean.getPagingRequest();
+		notNull(pagingRequest, "Request paging data is null");
+
+		List<Object> cacheKey = Arrays.<Object>asList(
+			entityType, qlString, new HashMap<String, Object>(parameters), pagingRequest, fetchPhase
+		);
+
+		/**
+		 * 快取命中，以主鍵取出資料
+		 */
+		CachedPage cachedPage = getCachedPage(cacheKey);
+		if (cachedPage != null) {
+			List<T> resultData = loadByIds(entityManager, entityType, cachedPage.ids);
+			if (resultData != null) {
+				hitCount.incrementAndGet();
+				pagingResultBean.restoreResult(
+					cachedPage.resultStatus, cachedPage.resultPageNumberOfTarget, cachedPage.resultTotalPageNumber,
+					cachedPage.resultTotalSize, cachedPage.resultPageCount
+				);
+				return resultData;
+			}
+
+			logger.debug("Cached page is stale: {}", cacheKey);
+		}
+		// :~)
+
+		missCount.incrementAndGet();
+
+		AtomicLong invalidationCount = getInvalidationCount(entityType);
+		long invalidationCountBeforeQuery = invalidationCount.get();
+		long invalidationAllCountBeforeQuery = invalidationAllCount.get();
+
+		TypedQuery<T> typedQuery = entityManager.createQuery(qlString, entityType);
+		for (Map.Entry<String, ?> parameter: parameters.entrySet()) {
+			typedQuery.setParameter(parameter.getKey(), parameter.getValue());
+		}
+		List<T> resultData = PagingUtil.queryAndFilterDataToPage(typedQuery, pagingResultBean, fetchPhase);
+
+		/**
+		 * 儲存所在頁資料的主鍵與分頁的結果，
+		 * 若查詢期間快取已被清除，查詢的結果可能是異動前的資料，因此不儲存
+		 */
+		PersistenceUnitUtil persistenceUnitUtil = entityManager.getEntityManagerFactory().getPersistenceUnitUtil();
+		List<Object> ids = new ArrayList<Object>(resultData.size());
+		for (T entity: resultData) {
+			ids.add(persistenceUnitUtil.getIdentifier(entity));
+		}
+
+		lock.lock();
+		try {
+			if (invalidationCount.get() != invalidationCountBeforeQuery ||
+				invalidationAllCount.get() != invalidationAllCountBeforeQuery
+			) {
+				logger.debug("Cache is invalidated while querying: {}", cacheKey);
+				return resultData;
+			}
+
+			cachedPages.put(cacheKey, new CachedPage(
+				entityType, ids, pagingResultBean, System.nanoTime() + timeToLiveNanos
+			));
+		} finally {
+			lock.unlock();
+		}
+		// :~)
+
+		return resultData;
+	}
+
+	/**
+	 * 清除 Entity 型別的快取，用在資料異動後
+	 *
+	 * @param entityType Entity 的型別
+	 */
+	public void invalidate(Class<?> entityType)
+	{
+		lock.lock();
+		try {
+			getInvalidationCount(entityType).incrementAndGet();
+			for (Iterator<CachedPage> iterator = cachedPages.values().iterator(); iterator.hasNext();) {
+				if (iterator.next().entityType.equals(entityType)) {
+					iterator.remove();
+				}
+			}
+		} finally {
+			lock.unlock();
+		}
+	}
+	/**
+	 * 清除所有的快取
+	 */
+	public void invalidateAll()
+	{
+		lock.lock();
+		try {
+			invalidationAllCount.incrementAndGet();
+			cachedPages.clear();
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * 取得快取命中的次數
+	 *
+	 * @return 命中的次數
+	 */
+	public long getHitCount()
+	{
+		return hitCount.get();
+	}
+	/**
+	 * 取得快取未命中(執行查詢)的次數
+	 *
+	 * @return 未命中的次數
+	 */
+	public long getMissCount()
+	{
+		return missCount.get();
+	}
+	/**
+	 * 取得目前快取的筆數(可能包含已過期的內容)
+	 *
+	 * @return 快取的筆數
+	 */
+	public int size()
+	{
+		lock.lock();
+		try {
+			return cachedPages.size();
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	private AtomicLong getInvalidationCount(Class<?> entityType)
+	{
+		return invalidationCounts.computeIfAbsent(entityType, type -> new AtomicLong(0));
+	}
+	private CachedPage getCachedPage(List<Object> cacheKey)
+	{
+		lock.lock();
+		try {
+			CachedPage cachedPage = cachedPages.get(cacheKey);
+			if (cachedPage != null && System.nanoTime() - cachedPage.expireTime >= 0) {
+				cachedPages.remove(cacheKey);
+				return null;
+			}
+
+			return cachedPage;
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * 以主鍵取出資料，順序與主鍵相同，若有資料已不存在，傳回 null
+	 */
+	private static <T> List<T> loadByIds(EntityManager entityManager, Class<T> entityType, List<Object> ids)
+	{
+		if (ids.isEmpty()) {
+			return new ArrayList<T>(0);
+		}
+
+		EntityType<T> entityMetamodel = entityManager.getMetamodel().entity(entityType);
+		List<T> loadedEntities = entityManager.createQuery(
+			String.format(
+				"SELECT e FROM %s AS e WHERE e.%s IN :ids",
+				entityMetamodel.getName(), entityMetamodel.getId(entityMetamodel.getIdType().getJavaType()).getName()
+			),
+			entityType
+		)
+			.setParameter("ids", ids)
+			.getResultList();
+
+		if (loadedEntities.size() != ids.size()) {
+			return null;
+		}
+
+		PersistenceUnitUtil persistenceUnitUtil = entityManager.getEntityManagerFactory().getPersistenceUnitUtil();
+		Map<Object, T> entitiesById = new HashMap<Object, T>(loadedEntities.size() * 2);
+		for (T entity: loadedEntities) {
+			entitiesById.put(persistenceUnitUtil.getIdentifier(entity), entity);
+		}
+
+		List<T> resultData = new ArrayList<T>(ids.size());
+		for (Object id: ids) {
+			resultData.add(entitiesById.get(id));
+		}
+
+		return resultData;
+	}
+
+	/**
+	 * 快取的內容
+	 */
+	private static class CachedPage {
+		final Class<?> entityType;
+		final List<Object> ids;
+		final long expireTime;
+
+		final ResultStatus resultStatus;
+		final int resultPageNumberOfTarget;
+		final int resultTotalPageNumber;
+		final int resultTotalSize;
+		final int resultPageCount;
+
+		CachedPage(Class<?> newEntityType, List<Object> newIds, PagingResultBean resultBean, long newExpireTime)
+		{
+			entityType = newEntityType;
+			ids = newIds;
+			expireTime = newExpireTime;
+
+			resultStatus = resultBean.getResultStatus();
+			resultPageNumberOfTarget = resultBean.getResultPageNumberOfTarget();
+			resultTotalPageNumber = resultBean.getResultTotalPageNumber();
+			resultTotalSize = resultBean.getResultTotalSize();
+			resultPageCount = resultBean.getResultPageCount();
+		}
+	}
+}
@@ -0,0 +1,177 @@
+package guru.mikelue.jpa.paging;
+
+/**
+ * 一次分頁執行({@link TwoPhasePagingRunner})的統計資料.
+ *
+ * 本物件包含下列資料
+ * <ol>
+ * 		<li>執行了哪些階段(計算總筆數、第一階段、第二階段)</li>
+ * 		<li>各階段的執行時間(nanoseconds)</li>
+ * 		<li>各階段取出的資料筆數，與最後回傳的資料筆數</li>
+ * 		<li>是否請求「最後一頁」，或因第一階段沒有資料而執行第二次查詢</li>
+ * </ol>
+ *
+ * <p>「取出筆數 - 回傳筆數」即為多取出而丟棄的資料筆數({@link #getDiscardedRows()})</p>
+ *
+ * @see PagingListener
+ */
+public class PagingEvent {
+	private final boolean lastPageRequested;
+
+	private boolean secondQueryExecuted = false;
+	private boolean countExecuted = false;
+	private boolean firstPhaseExecuted = false;
+	private boolean lastPhaseExecuted = false;
+
+	private long countNanos = 0;
+	private long firstPhaseNanos = 0;
+	private long lastPhaseNanos = 0;
+
+	private int firstPhaseRows = 0;
+	private int lastPhaseRows = 0;
+	private int returnedRows = 0;
+
+	private ResultStatus resultStatus = ResultStatus.NotReady;
+
+	PagingEvent(boolean newLastPageRequested)
+	{
+		lastPageRequested = newLastPageRequested;
+	}
+
+	/**
+	 * 是否由 client 請求「最後一頁」({@link PagingRequestBean#LAST_PAGE})
+	 *
+	 * @return 若請求最後一頁，傳回 true
+	 */
+	public boolean isLastPageRequested() { return lastPageRequested; }
+	/**
+	 * 是否因第一階段沒有資料，而以「最後一頁」執行第二次查詢
+	 *
+	 * @return 若執行第二次查詢，傳回 true
+	 */
+	public boolean isSecondQueryExecuted() { return secondQueryExecuted; }
+	/**
+	 * 是否執行了「最後一頁」的查詢路徑(請求最後一頁，或執行第二次查詢)
+	 *
+	 * @return 若執行「最後一頁」的查詢路徑，傳回 true
+	 */
+	public boolean isLastPagePathTaken() { return lastPageRequested || secondQueryExecuted; }
+
+	/**
+	 * 是否執行了 {@link CountingPagingFilter#countTotalSize()}
+	 *
+	 * @return 若執行計算總筆數，傳回 true
+	 */
+	public boolean isCountExecuted() { return countExecuted; }
+	/**
+	 * 是否執行了 {@link TwoPhasePagingFilter#firstPhasePaging(PagingResultBean)}
+	 *
+	 * @return 若執行第一階段，傳回 true
+	 */
+	public boolean isFirstPhaseExecuted() { return firstPhaseExecuted; }
+	/**
+	 * 是否執行了 {@link TwoPhasePagingFilter#lastPhasePaging(PagingResultBean)}
+	 *
+	 * @return 若執行第二階段，傳回 true
+	 */
+	public boolean isLastPhaseExecuted() { return lastPhaseExecuted; }
+
+	/**
+	 * 取得計算總筆數的執行時間
+	 *
+	 * @return nanoseconds，若沒有執行，傳回 0
+	 */
+	public long getCountNanos() { return countNanos; }
+	/**
+	 * 取得第一階段的執行時間(若執行多次，為總和)
+	 *
+	 * @return nanoseconds，若沒有執行，傳回 0
+	 */
+	public long getFirstPhaseNanos() { return firstPhaseNanos; }
+	/**
+	 * 取得第二階段的執行時間
+	 *
+	 * @return nanoseconds，若沒有執行，傳回 0
+	 */
+	public long getLastPhaseNanos() { return lastPhaseNanos; }
+	/**
+	 * 取得全部查詢的執行時間
+	 *
+	 * @return nanoseconds
+	 */
+	public long getTotalNanos() { return countNanos + firstPhaseNanos + lastPhaseNanos; }
+
+	/**
+	 * 取得第一階段取出的資料筆數(若執行多次，為總和)
+	 *
+	 * @return 大於等於 0
+	 */
+	public int getFirstPhaseRows() { return firstPhaseRows; }
+	/**
+	 * 取得第二階段取出的資料筆數
+	 *
+	 * @return 大於等於 0
+	 */
+	public int getLastPhaseRows() { return lastPhaseRows; }
+	/**
+	 * 取得全部查詢取出的資料筆數
+	 *
+	 * @return 大於等於 0
+	 */
+	public int getFetchedRows() { return firstPhaseRows + lastPhaseRows; }
+	/**
+	 * 取得回傳給 client 的資料筆數
+	 *
+	 * @return 大於等於 0
+	 */
+	public int getReturnedRows() { return returnedRows; }
+	/**
+	 * 取得多取出而丟棄的資料筆數
+	 *
+	 * @return 大於等於 0
+	 */
+	public int getDiscardedRows() { return Math.max(0, getFetchedRows() - returnedRows); }
+
+	/**
+	 * 取得分頁的結果狀態
+	 *
+	 * @return 分頁的結果狀態
+	 */
+	public ResultStatus getResultStatus() { return resultStatus; }
+
+	void recordCount(long elapsedNanos)
+	{
+		countExecuted = true;
+		countNanos += elapsedNanos;
+	}
+	void recordFirstPhase(long elapsedNanos, int rows)
+	{
+		firstPhaseExecuted = true;
+		firstPhaseNanos += elapsedNanos;
+		firstPhaseRows += rows;
+	}
+	void recordLastPhase(long elapsedNanos, int rows)
+	{
+		lastPhaseExecuted = true;
+		lastPhaseNanos += elapsedNanos;
+		lastPhaseRows += rows;
+	}
+	void markSecondQuery()
+	{
+		secondQueryExecuted = true;
+	}
+	void complete(int newReturnedRows, ResultStatus newResultStatus)
+	{
+		returnedRows = newReturnedRows;
+		resultStatus = newResultStatus;
+	}
+
+	@Override
+	public String toString()
+	{
+		return String.format(
+			"Last Page: %s, Second Query: %s, Fetched Rows: %d, Returned Rows: %d, Total Time(ns): %d, Status: %s",
+			lastPageRequested, secondQueryExecuted, getFetchedRows(), returnedRows, getTotalNanos(), resultStatus
+		);
+	}
+}
@@ -0,0 +1,22 @@
+package guru.mikelue.jpa.paging;
+
+/**
+ * 監聽 {@link TwoPhasePagingRunner} 每次分頁執行結果的介面(SPI).
+ *
+ * <p>以 {@link TwoPhasePagingRunner#setPagingListener(PagingListener)} 設定後，
+ * 每次分頁完成(包含第二次查詢)，會呼叫一次 {@link #pagingCompleted(PagingEvent)}</p>
+ *
+ * <p>本方法會在執行分頁的執行緒中被呼叫，實作需為 thread-safe，且不應執行耗時的工作；
+ * 丟出的 {@link RuntimeException} 只會被記錄，不會影響分頁的結果</p>
+ *
+ * @see PagingEvent
+ * @see MetricsPagingListener
+ */
+public interface PagingListener {
+	/**
+	 * 分頁執行完成
+	 *
+	 * @param event 本次分頁的執行資料
+	 */
+	public void pagingCompleted(PagingEvent event);
+}
@@ -0,0 +1,191 @@
+package guru.mikelue.jpa.paging;
+
+import static org.apache.commons.lang3.Validate.isTrue;
+
+import static guru.mikelue.jpa.commons.number.MathUtil.add;
+import static guru.mikelue.jpa.commons.number.MathUtil.multiply;
+
+/**
+ * 不可變更(immutable)且已檢查過的分頁請求資料，內容與 {@link PagingRequestBean} 相同.
+ *
+ * <p>本物件只在建構時檢查一次資料，並預先計算 {@link javax.persistence.Query#setFirstResult(int)} 與
+ * {@link javax.persistence.Query#setMaxResults(int)} 所需的筆數，
+ * 因此取得資料時不需要複製或重新檢查，可被多個執行緒共用。</p>
+ *
+ * <p>{@link PagingResultBean} 內部以本物件保存請求，可用 {@link PagingResultBean#getPagingRequest()} 直接取得，
+ * 不需要 {@link PagingResultBean#getPagingRequestBean()} 的複製成本</p>
+ *
+ * @see PagingRequestBean
+ * @see PagingResultBean#setPagingRequest(PagingRequest)
+ */
+public final class PagingRequest {
+	private final int pageNumberOfTarget;
+	private final int pageSize;
+	private final int pageNumberAfterTarget;
+
+	private final int firstRecordNumber;
+	private final int lastRecordNumber;
+
+	/**
+	 * 從 {@link PagingRequestBean} 建構本物件，會檢查資料的合法值
+	 *
+	 * @param pagingRequestBean 分頁的請求內容
+	 *
+	 * @return 不可變更的分頁請求
+	 */
+	public static PagingRequest of(PagingRequestBean pagingRequestBean)
+	{
+		return new PagingRequest(
+			pagingRequestBean.getPageNumberOfTarget(),
+			pagingRequestBean.getPageSize(),
+			pagingRequestBean.getPageNumberAfterTarget()
+		);
+	}
+
+	/**
+	 * 提供所有的資料，初始化本物件
+	 *
+	 * @param newPageNumberOfTarget 目前要求的頁數，大於等於 1 或 {@link PagingRequestBean#LAST_PAGE}
+	 * @param newPageSize 每頁的資料筆數，大於等於 1
+	 * @param newPageNumberAfterTarget 本頁後顯示頁數，大於等於 0
+	 */
+	public PagingRequest(int newPageNumberOfTarget, int newPageSize, int newPageNumberAfterTarget)
+	{
+		isTrue(
+			newPageNumberOfTarget > 0 || newPageNumberOfTarget == PagingRequestBean.LAST_PAGE,
+			"Target page number must be >= 1, current: ", newPageNumberOfTarget
+		);
+		isTrue(
+			newPageSize > 0,
+			"Page size must be >= 1, current: ", String.valueOf(newPageSize)
+		);
+		isTrue(
+			newPageNumberAfterTarget >= 0,
+			"Page number after target page must be >= 0, current: ", String.valueOf(newPageNumberAfterTarget)
+		);
+
+		pageNumberOfTarget = newPageNumberOfTarget;
+		pageSize = newPageSize;
+		pageNumberAfterTarget = newPageNumberAfterTarget;
+
+		/**
+		 * 預先計算開始與最後的筆數(要求最後一頁時，查詢全部的資料)
+		 */
+		if (isLastPage()) {
+			firstRecordNumber = 0;
+			lastRecordNumber = Integer.MAX_VALUE;
+		} else {
+			firstRecordNumber = multiply(pageNumberOfTarget - 1, pageSize);
+			lastRecordNumber = add(multiply(add(pageNumberAfterTarget, 1), pageSize), 1);
+		}
+		// :~)
+	}
+
+	/**
+	 * 取得目前要求頁數
+	 *
+	 * @return 大於等於 1，或常數值 {@link PagingRequestBean#LAST_PAGE}
+	 */
+	public int getPageNumberOfTarget() { return pageNumberOfTarget; }
+	/**
+	 * 取得每頁筆數
+	 *
+	 * @return 大於等於 1
+	 */
+	public int getPageSize() { return pageSize; }
+	/**
+	 * 取得本頁後顯示頁數
+	 *
+	 * @return 大於等於 0
+	 */
+	public int getPageNumberAfterTarget() { return pageNumberAfterTarget; }
+
+	/**
+	 * 取得開始的資料筆數，為「要求頁碼 - 1」*「每頁筆數」，要求最後一頁時為 0
+	 *
+	 * @return 大於等於 0，最大值為 {@link Integer#MAX_VALUE}
+	 *
+	 * @see PagingResultBean#getFirstRecordNumber()
+	 */
+	public int getFirstRecordNumber() { return firstRecordNumber; }
+	/**
+	 * 取得最大回傳筆數，為「本頁後顯示頁數 + 1」*「每頁筆數」+ 1，要求最後一頁時為 {@link Integer#MAX_VALUE}
+	 *
+	 * @return 大於 0，最大值為 {@link Integer#MAX_VALUE}
+	 *
+	 * @see PagingResultBean#getLastRecordNumber()
+	 */
+	public int getLastRecordNumber() { return lastRecordNumber; }
+
+	/**
+	 * 判斷是否要求最後一頁
+	 *
+	 * @return 若要求頁數為 {@link PagingRequestBean#LAST_PAGE}，傳回 true
+	 */
+	public boolean isLastPage()
+	{
+		return pageNumberOfTarget == PagingRequestBean.LAST_PAGE;
+	}
+	/**
+	 * 判斷請求分頁是否還有前一頁，用來判斷是否需要執行第二次查詢
+	 *
+	 * @return 若要求頁數大於 1，傳回 true
+	 */
+	public boolean hasPreviousPage()
+	{
+		return pageNumberOfTarget > 1;
+	}
+
+	/**
+	 * 以不同的要求頁數，產生新的請求物件
+	 *
+	 * @param newPageNumberOfTarget 新的要求頁數
+	 *
+	 * @return 若頁數相同，傳回本物件
+	 */
+	public PagingRequest withPageNumberOfTarget(int newPageNumberOfTarget)
+	{
+		return newPageNumberOfTarget == pageNumberOfTarget ? this :
+			new PagingRequest(newPageNumberOfTarget, pageSize, pageNumberAfterTarget);
+	}
+
+	/**
+	 * 轉換為可變更的 {@link PagingRequestBean}
+	 *
+	 * @return 新的物件
+	 */
+	public PagingRequestBean toPagingRequestBean()
+	{
+		return new PagingRequestBean(pageNumberOfTarget, pageSize, pageNumberAfterTarget);
+	}
+
+	@Override
+	public boolean equals(Object other)
+	{
+		if (this == other) {
+			return true;
+		}
+		if (!(other instanceof PagingRequest)) {
+			return false;
+		}
+
+		PagingRequest otherRequest = (PagingRequest)other;
+		return pageNumberOfTarget == otherRequest.pageNumberOfTarget &&
+			pageSize == otherRequest.pageSize &&
+			pageNumberAfterTarget == otherRequest.pageNumberAfterTarget;
+	}
+	@Override
+	public int hashCode()
+	{
+		return (pageNumberOfTarget * 31 + pageSize) * 31 + pageNumberAfterTarget;
+	}
+
+	@Override
+	public String toString()
+	{
+		return String.format(
+			"Target Page: %s, Page Size: %s, Page Number After Target: %s",
+			pageNumberOfTarget, pageSize, pageNumberAfterTarget
+		);
+	}
+}
@@ -2,8 +2,8 @@ package guru.mikelue.jpa.paging;
 
 import static org.apache.commons.lang3.Validate.isTrue;
 
-import static guru.mikelue.jpa.commons.number.MathUtil.add;
 import static guru.mikelue.jpa.commons.number.MathUtil.multiply;
+import static guru.mikelue.jpa.commons.number.NumberUtil.intValue;
 
 /**
  * 分頁的結果物件，本類別有兩組方法，一組給 JPA 用來設定 {@link javax.persistence.Query#setFirstResult(int)} 與
@@ -22,6 +22,9 @@ import static guru.mikelue.jpa.commons.number.MathUtil.multiply;
  * <p>若第一次查不到資料，本物件提供 {@link #setResultSize(int, FetchPhase)}，目地讓 client code 重新從頭查詢資料，
  * 並重設新的資料筆數</p>
  *
+ * <p>若已知資料的總筆數，可用 {@link #setTotalSize(long, FetchPhase)} 直接計算出正確的分頁結果，
+ * 之後 {@link #getFirstRecordNumber()} 與 {@link #getLastRecordNumber()} 只會涵蓋所在頁的資料(不會多取資料)</p>
+ *
  * @see TwoPhasePagingRunner
  */
 public class PagingResultBean {
@@ -32,9 +35,11 @@ public class PagingResultBean {
 
 	private int resultPageNumberOfTarget = UNKNOWN_RESULT;
 	private int resultTotalPageNumber = UNKNOWN_RESULT;
+	private int resultTotalSize = UNKNOWN_RESULT;
+	private int resultPageCount = UNKNOWN_RESULT;
 	private ResultStatus resultStatus = ResultStatus.NotReady;
 
-	private PagingRequestBean pagingRequestBean = null;
+	private PagingRequest pagingRequest = null;
 
 	/**
 	 * 所有資料為 null 的建構子
@@ -65,32 +70,55 @@ public class PagingResultBean {
 	 */
 	public void setPagingRequestBean(PagingRequestBean newPagingRequestBean)
 	{
-		if (newPagingRequestBean != null) {
-			PagingRequestBean.checkValidPagingBean(newPagingRequestBean);
-			newPagingRequestBean = new PagingRequestBean(newPagingRequestBean);
-		}
-
-		pagingRequestBean = newPagingRequestBean;
+		setPagingRequest(
+			newPagingRequestBean == null ? null : PagingRequest.of(newPagingRequestBean)
+		);
+	}
+	/**
+	 * 設定已檢查過的分頁請求內容(不會複製與重新檢查)，所有之前查詢的筆數設定，會被還原為「未初始化」的狀態({@link #UNKNOWN_RESULT})。
+	 *
+	 * @param newPagingRequest 分頁的請求內容
+	 *
+	 * @see #getPagingRequest()
+	 */
+	public void setPagingRequest(PagingRequest newPagingRequest)
+	{
+		pagingRequest = newPagingRequest;
 
 		/**
 		 * 重設所有的查詢結果
 		 */
 		resultPageNumberOfTarget = UNKNOWN_RESULT;
 		resultTotalPageNumber = UNKNOWN_RESULT;
+		resultTotalSize = UNKNOWN_RESULT;
+		resultPageCount = UNKNOWN_RESULT;
 		resultStatus = ResultStatus.NotReady;
 		// :~)
 	}
 
 	/**
-	 * 取得分頁的請求內容，可能為 null。
+	 * 取得分頁的請求內容(複製的物件)，可能為 null。
+	 *
+	 * <p>若不需修改請求內容，可用 {@link #getPagingRequest()}，避免複製的成本</p>
 	 *
 	 * @return 分頁的請求內容，可能為 null
 	 *
-	 * @see #getPagingRequestBean()
+	 * @see #setPagingRequestBean(PagingRequestBean)
 	 */
 	public PagingRequestBean getPagingRequestBean()
 	{
-		return new PagingRequestBean(pagingRequestBean);
+		return pagingRequest == null ? null : pagingRequest.toPagingRequestBean();
+	}
+	/**
+	 * 取得不可變更的分頁請求內容，可能為 null。
+	 *
+	 * @return 分頁的請求內容，可能為 null
+	 *
+	 * @see #setPagingRequest(PagingRequest)
+	 */
+	public PagingRequest getPagingRequest()
+	{
+		return pagingRequest;
 	}
 
 	/**
@@ -100,31 +128,33 @@ public class PagingResultBean {
 	 *
 	 * <p>若請求分頁為 {@link PagingRequestBean#LAST_PAGE}(最後一頁)，會傳回 0</p>
 	 *
+	 * <p>若已呼叫 {@link #setTotalSize(long, FetchPhase)}，開始的筆數為「結果頁碼 - 1」*「每頁筆數」</p>
+	 *
 	 * @return 大於等於 0 的開始資料筆數，最大值為 {@link Integer#MAX_VALUE}
 	 *
 	 * @see #getLastRecordNumber()
 	 */
 	public int getFirstRecordNumber()
 	{
-		if (pagingRequestBean == null) {
+		if (pagingRequest == null) {
 			throw new IllegalStateException("Paging request is null");
 		}
 
 		/**
-		 * 要求最後一頁
+		 * 已知總筆數，直接以結果頁碼計算
 		 */
-		if (pagingRequestBean.getPageNumberOfTarget() == PagingRequestBean.LAST_PAGE) {
-			return 0;
+		if (isCountedPage()) {
+			return multiply(
+				resultPageNumberOfTarget - 1,
+				pagingRequest.getPageSize()
+			);
 		}
 		// :~)
 
 		/**
-		 * 超出 Integer 最大值，值接傳回最大值
+		 * 以請求計算(要求最後一頁時為 0)，超出 Integer 最大值，值接傳回最大值
 		 */
-		return multiply(
-			pagingRequestBean.getPageNumberOfTarget() - 1,
-			pagingRequestBean.getPageSize()
-		);
+		return pagingRequest.getFirstRecordNumber();
 		// :~)
 	}
 	/**
@@ -134,34 +164,30 @@ public class PagingResultBean {
 	 *
 	 * <p>若請求分頁為 {@link PagingRequestBean#LAST_PAGE}(最後一頁)，會傳回 {@link Integer#MAX_VALUE}</p>
 	 *
+	 * <p>若已呼叫 {@link #setTotalSize(long, FetchPhase)}，會傳回「每頁筆數」</p>
+	 *
 	 * @return 大於 0 最後一筆查詢的筆數，最大值為 {@link Integer#MAX_VALUE}
 	 *
 	 * @see #getFirstRecordNumber()
 	 */
 	public int getLastRecordNumber()
 	{
-		if (pagingRequestBean == null) {
+		if (pagingRequest == null) {
 			throw new IllegalStateException("Paging request is null");
 		}
 
 		/**
-		 * 要求最後一頁
+		 * 已知總筆數，只需要取得所在頁的資料
 		 */
-		if (pagingRequestBean.getPageNumberOfTarget() == PagingRequestBean.LAST_PAGE) {
-			return Integer.MAX_VALUE;
+		if (isCountedPage()) {
+			return pagingRequest.getPageSize();
 		}
 		// :~)
 
 		/**
-		 * 「本頁後顯示頁數 + 1」*「每頁筆數」+ 1
+		 * 以請求計算「本頁後顯示頁數 + 1」*「每頁筆數」+ 1(要求最後一頁時為 Integer 最大值)
 		 */
-		return
-			add(
-				multiply(
-					add(pagingRequestBean.getPageNumberAfterTarget(), 1), // 本頁後顯示頁數 + 1
-					pagingRequestBean.getPageSize() // 每頁筆數
-				), 1 // 最後結果加 1(用來判斷後面是否還有更多頁)
-			);
+		return pagingRequest.getLastRecordNumber();
 		// :~)
 	}
 
@@ -187,6 +213,8 @@ public class PagingResultBean {
 	 *
 	 * <p>若請求分頁為 {@link PagingRequestBean#LAST_PAGE}(最後一頁)，會以 {@link FetchPhase#LastFetch} 為策略</p>
 	 *
+	 * <p>呼叫本方法後，{@link #getResultTotalSize()} 與 {@link #getResultPageCount()} 會還原為 {@link #UNKNOWN_RESULT}</p>
+	 *
 	 * @param resultSize 結果的資料筆數，不得小於 0
 	 * @param resultMode 目前查詢的階段(第一次還是最後一次查詢)
 	 *
@@ -199,14 +227,21 @@ public class PagingResultBean {
 			"Result size must be >= 0, current: ", String.valueOf(resultSize)
 		);
 
-		if (pagingRequestBean == null) {
+		if (pagingRequest == null) {
 			throw new IllegalStateException("Paging request is null");
 		}
 
+		/**
+		 * 以結果筆數計算，不再有總筆數的資料
+		 */
+		resultTotalSize = UNKNOWN_RESULT;
+		resultPageCount = UNKNOWN_RESULT;
+		// :~)
+
 		/**
 		 * 要求最後一頁
 		 */
-		if (pagingRequestBean.getPageNumberOfTarget() == PagingRequestBean.LAST_PAGE) {
+		if (pagingRequest.isLastPage()) {
 			setResultPagingDataOfLastFetch(resultSize);
 			return;
 		}
@@ -224,6 +259,76 @@ public class PagingResultBean {
 		}
 	}
 
+	/**
+	 * 以資料的總筆數，設定結果的分頁資料，會產生精確的分頁結果.
+	 *
+	 * <p>若要求的頁碼超過全部資料頁數，resultMode 為 {@link FetchPhase#FirstFetch} 時，結果為 {@link ResultStatus#EmptyData}；
+	 * 為 {@link FetchPhase#LastFetch} 時，結果頁碼為最後一頁</p>
+	 *
+	 * <p>若請求分頁為 {@link PagingRequestBean#LAST_PAGE}(最後一頁)，結果頁碼為最後一頁</p>
+	 *
+	 * @param totalSize 資料的總筆數，不得小於 0
+	 * @param resultMode 要求的頁碼超過全部資料頁數時的處理方式，若為 null，預設為 {@link FetchPhase#FirstFetch}
+	 *
+	 * @see #getResultTotalSize()
+	 * @see #getResultPageCount()
+	 */
+	public void setTotalSize(long totalSize, FetchPhase resultMode)
+	{
+		isTrue(
+			totalSize >= 0,
+			"Total size must be >= 0, current: ", String.valueOf(totalSize)
+		);
+
+		if (pagingRequest == null) {
+			throw new IllegalStateException("Paging request is null");
+		}
+
+		int pageSize = pagingRequest.getPageSize();
+
+		resultTotalSize = intValue(totalSize);
+		resultPageCount = (resultTotalSize / pageSize) + (resultTotalSize % pageSize > 0 ? 1 : 0);
+
+		/**
+		 * 沒有任何資料(筆數為 0)
+		 */
+		if (resultPageCount == 0) {
+			setupEmptyData();
+			return;
+		}
+		// :~)
+
+		/**
+		 * 決定結果頁碼，要求最後一頁或頁碼超過全部資料頁數時(最後一次查詢)，為最後一頁
+		 */
+		int targetPageNumber = pagingRequest.getPageNumberOfTarget();
+		if (targetPageNumber == PagingRequestBean.LAST_PAGE) {
+			targetPageNumber = resultPageCount;
+		} else if (targetPageNumber > resultPageCount) {
+			if (resultMode != FetchPhase.LastFetch) {
+				setupEmptyData();
+				return;
+			}
+
+			targetPageNumber = resultPageCount;
+		}
+		// :~)
+
+		/**
+		 * 依剩餘的頁數，決定是否還有更多的分頁
+		 */
+		int remainingPageNumber = resultPageCount - targetPageNumber;
+		if (remainingPageNumber > pagingRequest.getPageNumberAfterTarget()) {
+			resultStatus = ResultStatus.HasMorePage;
+			setResultTotalPageNumber(pagingRequest.getPageNumberAfterTarget());
+		} else {
+			resultStatus = ResultStatus.ReachLastPage;
+			setResultTotalPageNumber(remainingPageNumber);
+		}
+		setResultPageNumberOfTarget(targetPageNumber);
+		// :~)
+	}
+
 	/**
 	 * 依查詢結果取得「目前結果頁碼」.
 	 *
@@ -248,6 +353,28 @@ public class PagingResultBean {
 	{
 		return resultTotalPageNumber;
 	}
+	/**
+	 * 取得資料的總筆數，只有在呼叫 {@link #setTotalSize(long, FetchPhase)} 後才會有值.
+	 *
+	 * @return 最小為 0 的資料總筆數，或是 {@link #UNKNOWN_RESULT}
+	 *
+	 * @see #setTotalSize(long, FetchPhase)
+	 */
+	public int getResultTotalSize()
+	{
+		return resultTotalSize;
+	}
+	/**
+	 * 取得全部資料的頁數，只有在呼叫 {@link #setTotalSize(long, FetchPhase)} 後才會有值.
+	 *
+	 * @return 最小為 0 的全部資料頁數，或是 {@link #UNKNOWN_RESULT}
+	 *
+	 * @see #setTotalSize(long, FetchPhase)
+	 */
+	public int getResultPageCount()
+	{
+		return resultPageCount;
+	}
 	/**
 	 * 依查詢結果取得查詢的狀態.
 	 *
@@ -262,6 +389,28 @@ public class PagingResultBean {
 		return resultStatus;
 	}
 
+	/**
+	 * 還原之前計算的分頁結果(例如從快取取得)
+	 *
+	 * @param newResultStatus 查詢結果的狀態
+	 * @param newResultPageNumberOfTarget 目前結果頁碼
+	 * @param newResultTotalPageNumber 全部資料頁數
+	 * @param newResultTotalSize 資料的總筆數，或是 {@link #UNKNOWN_RESULT}
+	 * @param newResultPageCount 全部資料的頁數，或是 {@link #UNKNOWN_RESULT}
+	 *
+	 * @see PageResultCache
+	 */
+	void restoreResult(
+		ResultStatus newResultStatus, int newResultPageNumberOfTarget, int newResultTotalPageNumber,
+		int newResultTotalSize, int newResultPageCount
+	) {
+		resultStatus = newResultStatus;
+		resultPageNumberOfTarget = newResultPageNumberOfTarget;
+		resultTotalPageNumber = newResultTotalPageNumber;
+		resultTotalSize = newResultTotalSize;
+		resultPageCount = newResultPageCount;
+	}
+
 	private void setResultPageNumberOfTarget(int newResultPageNumberOfTarget)
 	{
 		isTrue(
@@ -300,9 +449,9 @@ public class PagingResultBean {
 		/**
 		 * 資料筆數不滿或剛好一頁
 		 */
-		if (resultSize <= pagingRequestBean.getPageSize()) {
+		if (resultSize <= pagingRequest.getPageSize()) {
 			resultStatus = ResultStatus.ReachLastPage;
-			setResultPageNumberOfTarget(pagingRequestBean.getPageNumberOfTarget());
+			setResultPageNumberOfTarget(pagingRequest.getPageNumberOfTarget());
 			setResultTotalPageNumber(0);
 			return;
 		}
@@ -313,10 +462,10 @@ public class PagingResultBean {
 		 */
 		if (resultSize < getLastRecordNumber()) {
 			resultStatus = ResultStatus.ReachLastPage;
-			setResultPageNumberOfTarget(pagingRequestBean.getPageNumberOfTarget());
+			setResultPageNumberOfTarget(pagingRequest.getPageNumberOfTarget());
 			setResultTotalPageNumber(
-				(resultSize / pagingRequestBean.getPageSize() - 1) +
-				((resultSize % pagingRequestBean.getPageSize() == 0) ? 0 : 1)
+				(resultSize / pagingRequest.getPageSize() - 1) +
+				((resultSize % pagingRequest.getPageSize() == 0) ? 0 : 1)
 			);
 			return;
 		}
@@ -326,8 +475,8 @@ public class PagingResultBean {
 		 * 資料超過一頁(超過本頁後顯示頁數)
 		 */
 		resultStatus = ResultStatus.HasMorePage;
-		setResultPageNumberOfTarget(pagingRequestBean.getPageNumberOfTarget());
-		setResultTotalPageNumber(pagingRequestBean.getPageNumberAfterTarget());
+		setResultPageNumberOfTarget(pagingRequest.getPageNumberOfTarget());
+		setResultTotalPageNumber(pagingRequest.getPageNumberAfterTarget());
 		// :~)
 	}
 	/**
@@ -351,13 +500,19 @@ public class PagingResultBean {
 		 */
 		resultStatus = ResultStatus.ReachLastPage;
 		setResultPageNumberOfTarget(
-			(resultSize / pagingRequestBean.getPageSize()) +
-			(resultSize % pagingRequestBean.getPageSize() > 0 ? 1 : 0)
+			(resultSize / pagingRequest.getPageSize()) +
+			(resultSize % pagingRequest.getPageSize() > 0 ? 1 : 0)
 		);
 		setResultTotalPageNumber(0);
 		// :~)
 	}
 
+	private boolean isCountedPage()
+	{
+		return resultTotalSize != UNKNOWN_RESULT &&
+			resultStatus != ResultStatus.EmptyData;
+	}
+
 	private void setupEmptyData()
 	{
 		resultStatus = ResultStatus.EmptyData;
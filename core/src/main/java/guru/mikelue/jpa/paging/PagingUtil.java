@@ -2,15 +2,37 @@ package guru.mikelue.jpa.paging;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.stream.Stream;
+import javax.persistence.EntityManager;
 import javax.persistence.Query;
 import javax.persistence.TypedQuery;
 
+import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.reflect.FieldUtils;
+import org.apache.commons.lang3.reflect.MethodUtils;
+
+import guru.mikelue.jpa.commons.number.NumberUtil;
+import guru.mikelue.jpa.query.QueryUtil;
+import guru.mikelue.jpa.query.SortingBean;
+import guru.mikelue.jpa.query.SortingType;
+
+import static org.apache.commons.lang3.Validate.isTrue;
+import static org.apache.commons.lang3.Validate.notNull;
+
 /**
  * 分頁相關工具方法.
  *
- * <p>目前支援 {@link TwoPhasePagingRunner} 所提供的兩階段分頁策略</p>
+ * <p>目前支援 {@link TwoPhasePagingRunner} 所提供的兩階段分頁策略，
+ * 與以排序鍵值(Keyset/Seek)分頁的策略({@link #queryAndSeekToPage(TypedQuery, KeysetPagingResultBean)})，
+ * 大量資料可用串流的方式讀取({@link #queryAndStreamData(TypedQuery, EntityManager, PagingRequestBean, int)})</p>
  */
 public class PagingUtil {
+	private final static String SEEK_PARAMETER_PREFIX = "seekKey";
+
+	private final static String KEYWORD_WHERE = "WHERE";
+
+	private final static boolean HIBERNATE_PRESENT = isHibernatePresent();
+
 	private PagingUtil() {}
 
 	/**
@@ -51,6 +73,45 @@ public class PagingUtil {
 		);
 	}
 
+	/**
+	 * 將 List 資料分頁成所設定的內容，回傳的是與來源資料共用內容的唯讀檢視(不會複製資料).
+	 *
+	 * @param <T> 回傳的 List Generic Type
+	 * @param srcList 來源資料
+	 * @param pagingResultBean 分頁設定
+	 *
+	 * @return 不可修改的分頁內容，若分頁所在的資料不存在，會傳回空白的 List
+	 *
+	 * @see #filterDataToPageView(List, PagingResultBean, FetchPhase)
+	 */
+	public static <T> List<T> filterDataToPageView(List<T> srcList, PagingResultBean pagingResultBean)
+	{
+		return filterDataToPageView(srcList, pagingResultBean, FetchPhase.FirstFetch);
+	}
+	/**
+	 * 將 List 資料分頁成所設定的內容，回傳的是與來源資料共用內容的唯讀檢視(不會複製資料).
+	 *
+	 * <p>若來源資料為 {@link java.util.RandomAccess}，回傳的 List 亦為 {@link java.util.RandomAccess}。
+	 * 來源資料的結構改變後(例如增減資料)，不可再使用回傳的 List</p>
+	 *
+	 * @param <T> 回傳的 List Generic Type
+	 * @param srcList 來源資料
+	 * @param pagingResultBean 分頁設定
+	 * @param fetchPhase 查詢的策略，若為 null，預設策略為 {@link FetchPhase#FirstFetch}
+	 *
+	 * @return 不可修改的分頁內容，若分頁所在的資料不存在，會傳回空白的 List
+	 *
+	 * @see #filterDataToPageView(List, PagingResultBean)
+	 * @see #filterDataToPage(List, PagingResultBean, FetchPhase)
+	 * @see FetchPhase#viewOfPage(List, int)
+	 */
+	public static <T> List<T> filterDataToPageView(List<T> srcList, PagingResultBean pagingResultBean, FetchPhase fetchPhase)
+	{
+		return TwoPhasePagingRunner.<T>runTwoPhasePagingFilter(
+			new ListPagingFilter<T>(srcList, true), pagingResultBean, fetchPhase, true
+		);
+	}
+
 	/**
 	 * 執行查詢，並取得分頁設定的資料，只會執行一次查詢.
 	 *
@@ -129,6 +190,392 @@ public class PagingUtil {
 			new TypedQueryPagingFilter<T>(typedQuery), pagingResultBean, fetchPhase
 		);
 	}
+
+	/**
+	 * 執行查詢，並取得分頁設定的資料，只會執行一次查詢.
+	 *
+	 * <p>若要求「最後一頁」，會先執行 countQuery 取得總筆數，只取出最後一頁的資料，而不會取出全部的資料</p>
+	 *
+	 * @param query 要執行的查詢 JPA 物件，不得為 null
+	 * @param countQuery 取得總筆數的查詢(例如 SELECT COUNT(e) ...)，結果需為單一的 {@link Number}，不得為 null
+	 * @param pagingResultBean 分頁設定，不得為 null
+	 *
+	 * @return 符合的資料，若沒有符合的資料，或是分頁的資料不存在，會傳回 {@link List#size()} 為 0 的 {@link List}
+	 *
+	 * @see #queryAndFilterDataToPage(Query, Query, PagingResultBean, FetchPhase)
+	 * @see #queryAndFilterDataToPage(Query, PagingResultBean)
+	 */
+	public static List<Object> queryAndFilterDataToPage(Query query, Query countQuery, PagingResultBean pagingResultBean)
+	{
+		return TwoPhasePagingRunner.runTwoPhasePagingFilter(
+			new CountedQueryPagingFilter(query, countQuery), pagingResultBean
+		);
+	}
+	/**
+	 * 執行查詢，並取得分頁設定的資料.
+	 *
+	 * <p>參數 fetchPhase 若為 {@link FetchPhase#LastFetch}，若第一次查詢不到資料，會執行第二次查詢(最後一頁)</p>
+	 *
+	 * <p>若要求「最後一頁」，會先執行 countQuery 取得總筆數，只取出最後一頁的資料，而不會取出全部的資料</p>
+	 *
+	 * @param query 要執行的查詢 JPA 物件，不得為 null
+	 * @param countQuery 取得總筆數的查詢(例如 SELECT COUNT(e) ...)，結果需為單一的 {@link Number}，不得為 null
+	 * @param pagingResultBean 分頁設定，不得為 null
+	 * @param fetchPhase 查詢的策略，若為 null，預設策略為 {@link FetchPhase#FirstFetch}
+	 *
+	 * @return 符合的資料，若沒有任何資料，會傳回 {@link List#size()} 為 0 的 {@link List}
+	 *
+	 * @see #queryAndFilterDataToPage(Query, Query, PagingResultBean)
+	 * @see #queryAndFilterDataToPage(Query, PagingResultBean, FetchPhase)
+	 */
+	public static List<Object> queryAndFilterDataToPage(Query query, Query countQuery, PagingResultBean pagingResultBean, FetchPhase fetchPhase)
+	{
+		return TwoPhasePagingRunner.runTwoPhasePagingFilter(
+			new CountedQueryPagingFilter(query, countQuery), pagingResultBean, fetchPhase
+		);
+	}
+	/**
+	 * 執行查詢，並取得分頁設定的資料，只會執行一次查詢.
+	 *
+	 * <p>若要求「最後一頁」，會先執行 countQuery 取得總筆數，只取出最後一頁的資料，而不會取出全部的資料</p>
+	 *
+	 * @param <T> 回傳的 List Generic Type
+	 * @param typedQuery 要執行的查詢 JPA 物件，不得為 null
+	 * @param countQuery 取得總筆數的查詢(例如 SELECT COUNT(e) ...)，結果需為單一的 {@link Number}，不得為 null
+	 * @param pagingResultBean 分頁設定，不得為 null
+	 *
+	 * @return 符合的資料，若沒有符合的資料，或是分頁的資料不存在，會傳回 {@link List#size()} 為 0 的 {@link List}
+	 *
+	 * @see #queryAndFilterDataToPage(TypedQuery, Query, PagingResultBean, FetchPhase)
+	 * @see #queryAndFilterDataToPage(TypedQuery, PagingResultBean)
+	 */
+	public static <T> List<T> queryAndFilterDataToPage(TypedQuery<T> typedQuery, Query countQuery, PagingResultBean pagingResultBean)
+	{
+		return TwoPhasePagingRunner.runTwoPhasePagingFilter(
+			new CountedTypedQueryPagingFilter<T>(typedQuery, countQuery), pagingResultBean
+		);
+	}
+	/**
+	 * 執行查詢，並取得分頁設定的資料.
+	 *
+	 * <p>參數 fetchPhase 若為 {@link FetchPhase#LastFetch}，若第一次查詢不到資料，會執行第二次查詢(最後一頁)</p>
+	 *
+	 * <p>若要求「最後一頁」，會先執行 countQuery 取得總筆數，只取出最後一頁的資料，而不會取出全部的資料</p>
+	 *
+	 * @param <T> 回傳的 List Generic Type
+	 * @param typedQuery 要執行的查詢 JPA 物件，不得為 null
+	 * @param countQuery 取得總筆數的查詢(例如 SELECT COUNT(e) ...)，結果需為單一的 {@link Number}，不得為 null
+	 * @param pagingResultBean 分頁設定，不得為 null
+	 * @param fetchPhase 查詢的策略，若為 null，預設策略為 {@link FetchPhase#FirstFetch}
+	 *
+	 * @return 符合的資料，若沒有任何資料，會傳回 {@link List#size()} 為 0 的 {@link List}
+	 *
+	 * @see #queryAndFilterDataToPage(TypedQuery, Query, PagingResultBean)
+	 * @see #queryAndFilterDataToPage(TypedQuery, PagingResultBean, FetchPhase)
+	 */
+	public static <T> List<T> queryAndFilterDataToPage(TypedQuery<T> typedQuery, Query countQuery, PagingResultBean pagingResultBean, FetchPhase fetchPhase)
+	{
+		return TwoPhasePagingRunner.runTwoPhasePagingFilter(
+			new CountedTypedQueryPagingFilter<T>(typedQuery, countQuery), pagingResultBean, fetchPhase
+		);
+	}
+
+	/**
+	 * 先執行 countQuery 取得總筆數，再執行查詢取得所在頁的資料.
+	 *
+	 * <p>只會取出每頁筆數的資料，並可由 {@link PagingResultBean#getResultTotalSize()}
+	 * 與 {@link PagingResultBean#getResultPageCount()} 取得精確的總筆數與全部資料頁數</p>
+	 *
+	 * <p>參數 fetchPhase 若為 {@link FetchPhase#LastFetch}，要求的頁碼超過全部資料頁數時，會取出最後一頁的資料</p>
+	 *
+	 * @param query 要執行的查詢 JPA 物件，不得為 null
+	 * @param countQuery 取得總筆數的查詢，結果需為單一的 {@link Number}，不得為 null
+	 * @param pagingResultBean 分頁設定，不得為 null
+	 * @param fetchPhase 查詢的策略，若為 null，預設策略為 {@link FetchPhase#FirstFetch}
+	 *
+	 * @return 符合的資料，若沒有任何資料，會傳回 {@link List#size()} 為 0 的 {@link List}
+	 *
+	 * @see #queryAndCountDataToPage(TypedQuery, Query, PagingResultBean, FetchPhase)
+	 * @see guru.mikelue.jpa.query.QueryUtil#buildCountQueryString(String)
+	 */
+	public static List<Object> queryAndCountDataToPage(Query query, Query countQuery, PagingResultBean pagingResultBean, FetchPhase fetchPhase)
+	{
+		return TwoPhasePagingRunner.runCountedPagingFilter(
+			new CountedQueryPagingFilter(query, countQuery), pagingResultBean, fetchPhase
+		);
+	}
+	/**
+	 * 先執行 countQuery 取得總筆數，再執行查詢取得所在頁的資料.
+	 *
+	 * <p>只會取出每頁筆數的資料，並可由 {@link PagingResultBean#getResultTotalSize()}
+	 * 與 {@link PagingResultBean#getResultPageCount()} 取得精確的總筆數與全部資料頁數</p>
+	 *
+	 * <p>參數 fetchPhase 若為 {@link FetchPhase#LastFetch}，要求的頁碼超過全部資料頁數時，會取出最後一頁的資料</p>
+	 *
+	 * @param <T> 回傳的 List Generic Type
+	 * @param typedQuery 要執行的查詢 JPA 物件，不得為 null
+	 * @param countQuery 取得總筆數的查詢，結果需為單一的 {@link Number}，不得為 null
+	 * @param pagingResultBean 分頁設定，不得為 null
+	 * @param fetchPhase 查詢的策略，若為 null，預設策略為 {@link FetchPhase#FirstFetch}
+	 *
+	 * @return 符合的資料，若沒有任何資料，會傳回 {@link List#size()} 為 0 的 {@link List}
+	 *
+	 * @see #queryAndCountDataToPage(Query, Query, PagingResultBean, FetchPhase)
+	 * @see guru.mikelue.jpa.query.QueryUtil#buildCountQueryString(String)
+	 */
+	public static <T> List<T> queryAndCountDataToPage(TypedQuery<T> typedQuery, Query countQuery, PagingResultBean pagingResultBean, FetchPhase fetchPhase)
+	{
+		return TwoPhasePagingRunner.runCountedPagingFilter(
+			new CountedTypedQueryPagingFilter<T>(typedQuery, countQuery), pagingResultBean, fetchPhase
+		);
+	}
+
+	/**
+	 * 執行查詢，以串流(Stream)逐筆取得分頁設定範圍內的資料，適用於匯出大量資料的工作.
+	 *
+	 * <p>資料的範圍從要求頁碼的第一筆開始，共「每頁筆數 x (1 + 本頁後顯示頁數)」筆，
+	 * 不支援 {@link PagingRequestBean#LAST_PAGE}</p>
+	 *
+	 * <p>本方法以 Hibernate 的 {@link org.hibernate.ScrollableResults}(唯讀、只能向前)逐筆讀取資料，
+	 * 每讀取 fetchSize 筆資料，會呼叫一次 {@link EntityManager#clear()}，因此記憶體的使用量不會隨著資料筆數增加。
+	 * 已讀取的 Entity 會變成 detached 的狀態，對其所做的修改不會寫回資料庫</p>
+	 *
+	 * <p>使用完畢後需呼叫 {@link Stream#close()}(可用 try-with-resources)釋放資料庫的資源，
+	 * 讀取完全部的資料時，會自動釋放</p>
+	 *
+	 * @param <T> 回傳的 Stream Generic Type
+	 * @param typedQuery 要執行的查詢 JPA 物件(需由 Hibernate 實作)，不得為 null
+	 * @param entityManager 建立查詢的 EntityManager，不得為 null
+	 * @param pagingRequestBean 資料的範圍，不得為 null
+	 * @param fetchSize JDBC 每次取得的資料筆數，也是清除 persistence context 的間隔筆數，至少為 1
+	 *
+	 * @return 需關閉的 Stream，若沒有任何資料，會傳回空的 Stream
+	 *
+	 * @throws IllegalStateException Hibernate 不在 class path 中
+	 */
+	public static <T> Stream<T> queryAndStreamData(TypedQuery<T> typedQuery, EntityManager entityManager, PagingRequestBean pagingRequestBean, int fetchSize)
+	{
+		notNull(typedQuery, "Query is null");
+		notNull(entityManager, "Entity manager is null");
+		notNull(pagingRequestBean, "Paging request is null");
+		PagingRequestBean.checkValidPagingBean(pagingRequestBean);
+		isTrue(
+			pagingRequestBean.getPageNumberOfTarget() != PagingRequestBean.LAST_PAGE,
+			"Streaming data doesn't support last page"
+		);
+		isTrue(fetchSize > 0, "Fetch size must be >= 1, current: %d", fetchSize);
+
+		long pageSize = pagingRequestBean.getPageSize();
+		long firstResult = (pagingRequestBean.getPageNumberOfTarget() - 1) * pageSize;
+		isTrue(
+			firstResult <= Integer.MAX_VALUE,
+			"The first record is out of range: %d", firstResult
+		);
+
+		if (!HIBERNATE_PRESENT) {
+			throw new IllegalStateException("Streaming data requires Hibernate in class path");
+		}
+
+		return HibernateStreaming.scrollAndStream(
+			typedQuery, entityManager,
+			(int)firstResult, NumberUtil.intValue(pageSize * (1 + pagingRequestBean.getPageNumberAfterTarget())),
+			fetchSize
+		);
+	}
+
+	/**
+	 * 產生以排序鍵值(Keyset/Seek)分頁的 JPQL，會加上「排序鍵值大於(或小於)上一頁最後一筆」的條件與 ORDER BY.
+	 *
+	 * <p>qlString 需為 "SELECT ... FROM ... [WHERE ...]" 的格式，不得有 GROUP BY 或 ORDER BY(子查詢中的除外)。
+	 * 排序鍵值的條件以具名參數 :seekKey0, :seekKey1 ... 表示，
+	 * 由 {@link #queryAndSeekToPage(TypedQuery, KeysetPagingResultBean)} 設定</p>
+	 *
+	 * <p>因為 JPQL 不支援 (k1, k2) &gt; (?, ?)，條件會展開為
+	 * "(k1 &gt; :seekKey0) OR (k1 = :seekKey0 AND k2 &gt; :seekKey1)"，遞減排序的欄位會使用 "&lt;"</p>
+	 *
+	 * @param qlString 原本的 JPQL
+	 * @param requestBean 分頁的請求
+	 *
+	 * @return 加上排序鍵值條件與 ORDER BY 的 JPQL
+	 *
+	 * @throws IllegalArgumentException 若 JPQL 有 GROUP BY 或 ORDER BY
+	 */
+	public static String buildSeekQueryString(String qlString, KeysetPagingRequestBean requestBean)
+	{
+		notNull(qlString, "JPQL is null");
+		notNull(requestBean, "Keyset paging request is null");
+		isTrue(
+			QueryUtil.indexOfTopLevelKeyword(qlString, "GROUP BY") < 0 &&
+			QueryUtil.indexOfTopLevelKeyword(qlString, "ORDER BY") < 0,
+			"Unsupported \"GROUP BY\"/\"ORDER BY\" for keyset paging: %s", qlString
+		);
+
+		List<SortingBean> sortingBeans = requestBean.getSortingBeans();
+		StringBuilder seekQuery = new StringBuilder(qlString.trim());
+
+		/**
+		 * 不是第一頁，加上排序鍵值的條件
+		 */
+		if (!requestBean.isFirstPage()) {
+			StringBuilder seekCondition = new StringBuilder();
+			for (int i = 0; i < sortingBeans.size(); i++) {
+				if (i > 0) {
+					seekCondition.append(" OR ");
+				}
+
+				seekCondition.append("(");
+				for (int j = 0; j < i; j++) {
+					seekCondition.append(String.format(
+						"%s = :%s%d AND ", sortingBeans.get(j).getSortingKey(), SEEK_PARAMETER_PREFIX, j
+					));
+				}
+				seekCondition.append(String.format(
+					"%s %s :%s%d)",
+					sortingBeans.get(i).getSortingKey(),
+					sortingBeans.get(i).getSortingType() == SortingType.DESC ? "<" : ">",
+					SEEK_PARAMETER_PREFIX, i
+				));
+			}
+
+			/**
+			 * 只使用最外層(不在子查詢中)的 WHERE
+			 */
+			int whereIndex = QueryUtil.indexOfTopLevelKeyword(seekQuery.toString(), KEYWORD_WHERE);
+			if (whereIndex >= 0) {
+				int conditionIndex = whereIndex + KEYWORD_WHERE.length();
+				while (conditionIndex < seekQuery.length() && Character.isWhitespace(seekQuery.charAt(conditionIndex))) {
+					conditionIndex++;
+				}
+
+				seekQuery.insert(conditionIndex, "(");
+				seekQuery.append(") AND (").append(seekCondition).append(")");
+			} else {
+				seekQuery.append(" WHERE ").append(seekCondition);
+			}
+		}
+		// :~)
+
+		/**
+		 * 依排序的欄位加上 ORDER BY
+		 */
+		seekQuery.append(" ORDER BY ");
+		for (int i = 0; i < sortingBeans.size(); i++) {
+			if (i > 0) {
+				seekQuery.append(", ");
+			}
+
+			SortingBean sortingBean = sortingBeans.get(i);
+			seekQuery.append(sortingBean.getSortingKey()).append(" ").append(
+				sortingBean.getSortingType() == null ? SortingType.ASC : sortingBean.getSortingType()
+			);
+		}
+		// :~)
+
+		return seekQuery.toString();
+	}
+
+	/**
+	 * 執行以排序鍵值(Keyset/Seek)分頁的查詢，只會取出「每頁筆數 + 1」筆資料.
+	 *
+	 * <p>typedQuery 需以 {@link #buildSeekQueryString(String, KeysetPagingRequestBean)} 產生的 JPQL 建立，
+	 * 本方法會設定排序鍵值的參數，其餘參數由 client code 設定</p>
+	 *
+	 * <p>下一頁的排序鍵值，會依排序欄位的名稱(去除第一段的別名，例如 "c.owner.name" 為 "owner.name")，
+	 * 從本頁最後一筆資料的 getter(或欄位)取得，排序鍵值不得為 null</p>
+	 *
+	 * @param <T> 回傳的 List Generic Type
+	 * @param typedQuery 要執行的查詢 JPA 物件，不得為 null
+	 * @param resultBean 分頁的結果物件，不得為 null
+	 *
+	 * @return 符合的資料，若沒有任何資料，會傳回 {@link List#size()} 為 0 的 {@link List}
+	 *
+	 * @see KeysetPagingResultBean#getNextPagingRequestBean()
+	 */
+	public static <T> List<T> queryAndSeekToPage(TypedQuery<T> typedQuery, KeysetPagingResultBean resultBean)
+	{
+		notNull(typedQuery, "Query is null");
+		notNull(resultBean, "Keyset paging result bean is null");
+
+		KeysetPagingRequestBean requestBean = resultBean.getPagingRequestBean();
+		int pageSize = requestBean.getPageSize();
+
+		/**
+		 * 設定上一頁最後一筆的排序鍵值
+		 */
+		Object[] lastKeyValues = requestBean.getLastKeyValues();
+		if (lastKeyValues != null) {
+			for (int i = 0; i < lastKeyValues.length; i++) {
+				typedQuery.setParameter(SEEK_PARAMETER_PREFIX + i, lastKeyValues[i]);
+			}
+		}
+		// :~)
+
+		typedQuery.setFirstResult(0);
+		typedQuery.setMaxResults(pageSize == Integer.MAX_VALUE ? pageSize : pageSize + 1);
+		List<T> resultData = typedQuery.getResultList();
+
+		if (resultData.isEmpty()) {
+			resultBean.setResult(ResultStatus.EmptyData, null);
+			return resultData;
+		}
+		if (resultData.size() <= pageSize) {
+			resultBean.setResult(ResultStatus.ReachLastPage, null);
+			return resultData;
+		}
+
+		resultData = FetchPhase.FirstFetch.filterToPage(resultData, pageSize);
+		resultBean.setResult(
+			ResultStatus.HasMorePage,
+			readKeyValues(resultData.get(resultData.size() - 1), requestBean.getSortingBeans())
+		);
+		return resultData;
+	}
+
+	private static Object[] readKeyValues(Object entity, List<SortingBean> sortingBeans)
+	{
+		Object[] keyValues = new Object[sortingBeans.size()];
+
+		for (int i = 0; i < keyValues.length; i++) {
+			String[] propertyPath = StringUtils.split(sortingBeans.get(i).getSortingKey(), '.');
+
+			Object value = entity;
+			for (int j = propertyPath.length > 1 ? 1 : 0; j < propertyPath.length; j++) {
+				value = readProperty(value, propertyPath[j]);
+			}
+
+			keyValues[i] = value;
+		}
+
+		return keyValues;
+	}
+	private static Object readProperty(Object bean, String propertyName)
+	{
+		notNull(bean, "Cannot read property \"%s\" of null", propertyName);
+
+		String capitalizedName = StringUtils.capitalize(propertyName);
+		try {
+			for (String getterName: new String[] { "get" + capitalizedName, "is" + capitalizedName }) {
+				if (MethodUtils.getAccessibleMethod(bean.getClass(), getterName) != null) {
+					return MethodUtils.invokeMethod(bean, getterName);
+				}
+			}
+
+			return FieldUtils.readField(bean, propertyName, true);
+		} catch (Exception e) {
+			throw new IllegalArgumentException(
+				String.format("Cannot read sorting key \"%s\" of %s", propertyName, bean.getClass()), e
+			);
+		}
+	}
+	private static boolean isHibernatePresent()
+	{
+		try {
+			Class.forName("org.hibernate.ScrollableResults", false, PagingUtil.class.getClassLoader());
+			return true;
+		} catch (ClassNotFoundException e) {
+			return false;
+		}
+	}
 }
 
 /**
@@ -199,16 +646,73 @@ class TypedQueryPagingFilter<T> implements TwoPhasePagingFilter<T> {
 	}
 }
 
+/**
+ * 附有計算總筆數查詢的 {@link Query} 分頁查詢物件
+ */
+class CountedQueryPagingFilter extends QueryPagingFilter implements CountingPagingFilter<Object> {
+	private Query countQuery;
+
+	CountedQueryPagingFilter(Query newQuery, Query newCountQuery)
+	{
+		super(newQuery);
+
+		if (newCountQuery == null) {
+			throw new IllegalArgumentException("Count query is null");
+		}
+		countQuery = newCountQuery;
+	}
+
+	@Override
+	public long countTotalSize()
+	{
+		return countTotalSizeImpl(countQuery);
+	}
+
+	static long countTotalSizeImpl(Query countQuery)
+	{
+		return ((Number)countQuery.getSingleResult()).longValue();
+	}
+}
+
+/**
+ * 附有計算總筆數查詢的 {@link TypedQuery} 分頁查詢物件
+ */
+class CountedTypedQueryPagingFilter<T> extends TypedQueryPagingFilter<T> implements CountingPagingFilter<T> {
+	private Query countQuery;
+
+	CountedTypedQueryPagingFilter(TypedQuery<T> newQuery, Query newCountQuery)
+	{
+		super(newQuery);
+
+		if (newCountQuery == null) {
+			throw new IllegalArgumentException("Count query is null");
+		}
+		countQuery = newCountQuery;
+	}
+
+	@Override
+	public long countTotalSize()
+	{
+		return CountedQueryPagingFilter.countTotalSizeImpl(countQuery);
+	}
+}
+
 /**
  * {@link List} 資料查詢物件，若分頁所在的資料不存在，會傳回空 List，
- * 否則傳回複製後(Non-Deep Clone)的 List
+ * 否則傳回複製後(Non-Deep Clone)的 List，若為唯讀檢視模式，會傳回與來源資料共用內容的 List
  */
-class ListPagingFilter<T> implements TwoPhasePagingFilter<T> {
+class ListPagingFilter<T> implements CountingPagingFilter<T> {
 	private List<T> srcData;
+	private boolean pageView;
 
 	ListPagingFilter(List<T> newSrcData)
+	{
+		this(newSrcData, false);
+	}
+	ListPagingFilter(List<T> newSrcData, boolean newPageView)
 	{
 		srcData = newSrcData;
+		pageView = newPageView;
 	}
 
 	@Override
@@ -217,11 +721,13 @@ class ListPagingFilter<T> implements TwoPhasePagingFilter<T> {
 		/**
 		 * 若要求的第一筆資料，超出來源資料的筆數，開始筆數為總筆數
 		 */
-		return new ArrayList<T>(srcData.subList(
+		List<T> resultData = srcData.subList(
 			Math.min(srcData.size(), resultBean.getFirstRecordNumber()),
 			srcData.size()
-		));
+		);
 		// :~)
+
+		return pageView ? resultData : new ArrayList<T>(resultData);
 	}
 	@Override
 	public List<T> lastPhasePaging(PagingResultBean resultBean)
@@ -229,7 +735,12 @@ class ListPagingFilter<T> implements TwoPhasePagingFilter<T> {
 		/**
 		 * 第二次為全部的資料查詢
 		 */
-		return new ArrayList<T>(srcData);
+		return pageView ? srcData : new ArrayList<T>(srcData);
 		// :~)
 	}
+	@Override
+	public long countTotalSize()
+	{
+		return srcData.size();
+	}
 }
@@ -1,7 +1,13 @@
 package guru.mikelue.jpa.paging;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import static org.apache.commons.lang3.Validate.notNull;
 
@@ -22,12 +28,47 @@ import static org.apache.commons.lang3.Validate.notNull;
  * ^ 第二策略   ^ 第一策略
  * </pre>
  *
+ * <p>若傳入的 Closure 為 {@link CountingPagingFilter}，在要求「最後一頁」時，會先取得總筆數，
+ * 計算出最後一頁的頁碼後，只取出該頁的資料。
+ * 亦可用 {@link #runCountedPagingFilter(CountingPagingFilter, PagingResultBean, FetchPhase)}，
+ * 一律先取得總筆數，取得精確的分頁結果。</p>
+ *
+ * <p>可用 {@link #setPagingListener(PagingListener)} 設定監聽器，取得每次分頁的執行時間與資料筆數({@link PagingEvent})；
+ * 未設定時，不會計算任何統計資料</p>
+ *
  * @see PagingResultBean
  * @see TwoPhasePagingFilter
+ * @see CountingPagingFilter
+ * @see PagingListener
  */
 public class TwoPhasePagingRunner {
+	private final static Logger logger = LoggerFactory.getLogger(TwoPhasePagingRunner.class);
+
+	private static volatile PagingListener pagingListener = null;
+
 	private TwoPhasePagingRunner() {}
 
+	/**
+	 * 設定全域的分頁監聽器，每次分頁完成後會收到 {@link PagingEvent}
+	 *
+	 * @param newPagingListener 分頁監聽器，若為 null，代表不監聽
+	 *
+	 * @see MetricsPagingListener
+	 */
+	public static void setPagingListener(PagingListener newPagingListener)
+	{
+		pagingListener = newPagingListener;
+	}
+	/**
+	 * 取得全域的分頁監聽器
+	 *
+	 * @return 可能為 null
+	 */
+	public static PagingListener getPagingListener()
+	{
+		return pagingListener;
+	}
+
 	/**
 	 * 只執行第一階段分頁
 	 *
@@ -56,8 +97,46 @@ public class TwoPhasePagingRunner {
 	 * @see #runTwoPhasePagingFilter(TwoPhasePagingFilter, PagingResultBean)
 	 */
 	public static <T> List<T> runTwoPhasePagingFilter(TwoPhasePagingFilter<T> filter, PagingResultBean resultBean, FetchPhase fetchPhase)
+	{
+		return runTwoPhasePagingFilter(filter, resultBean, fetchPhase, false);
+	}
+	/**
+	 * 依設定執行多階段分頁，並可指定回傳所在資料的唯讀檢視.
+	 *
+	 * <p>若 pageView 為 true，會以 {@link FetchPhase#viewOfPage(List, int)} 取得所在的資料(不會複製資料)，
+	 * 否則以 {@link FetchPhase#filterToPage(List, int)} 取得複製的資料</p>
+	 *
+	 * @param <T> 回傳的 List Generic Type
+	 * @param filter 實作取得資料的 Closure
+	 * @param resultBean 分頁的資料物件
+	 * @param fetchPhase 要執行的階段
+	 * @param pageView 是否回傳唯讀檢視
+	 *
+	 * @return 可能為 Empty List 的結果
+	 *
+	 * @see #runTwoPhasePagingFilter(TwoPhasePagingFilter, PagingResultBean, FetchPhase)
+	 */
+	public static <T> List<T> runTwoPhasePagingFilter(TwoPhasePagingFilter<T> filter, PagingResultBean resultBean, FetchPhase fetchPhase, boolean pageView)
 	{
 		checkValidPagingResultBean(resultBean);
+
+		PagingListener listener = pagingListener;
+		if (listener == null) {
+			return runTwoPhasePagingFilter(filter, resultBean, fetchPhase, pageView, null);
+		}
+
+		PagingEvent event = new PagingEvent(isLastPageRequested(resultBean));
+		List<T> resultData = runTwoPhasePagingFilter(filter, resultBean, fetchPhase, pageView, event);
+		firePagingCompleted(listener, event, resultData, resultBean);
+
+		return resultData;
+	}
+
+	private static <T> List<T> runTwoPhasePagingFilter(
+		TwoPhasePagingFilter<T> filter, PagingResultBean resultBean, FetchPhase fetchPhase, boolean pageView,
+		PagingEvent event
+	) {
+		checkValidPagingResultBean(resultBean);
 		fetchPhase = processFetchPhase(fetchPhase);
 
 		/**
@@ -65,14 +144,20 @@ public class TwoPhasePagingRunner {
 		 * 1. 最後一筆往前取得每頁筆數為所在資料
 		 * 2. 請求後 N 頁一律為 0
 		 * 3. 不會進行第二次查詢
+		 *
+		 * 若可取得總筆數，只會查詢最後一頁的資料
 		 */
-		PagingRequestBean pagingRequestBean = resultBean.getPagingRequestBean();
-		if (pagingRequestBean.getPageNumberOfTarget() == PagingRequestBean.LAST_PAGE) {
-			List<T> resultData = filter.lastPhasePaging(resultBean);
+		PagingRequest pagingRequest = resultBean.getPagingRequest();
+		if (pagingRequest.isLastPage()) {
+			if (filter instanceof CountingPagingFilter) {
+				return runCountedPagingFilter((CountingPagingFilter<T>)filter, resultBean, FetchPhase.LastFetch, pageView, event);
+			}
+
+			List<T> resultData = lastPhasePaging(filter, resultBean, event);
 			resultBean.setResultSize(resultData.size(), FetchPhase.LastFetch);
 
-			return FetchPhase.LastFetch.filterToPage(
-				resultData, pagingRequestBean.getPageSize()
+			return toPage(
+				FetchPhase.LastFetch, resultData, pagingRequest.getPageSize(), pageView
 			);
 		}
 		// :~)
@@ -84,7 +169,7 @@ public class TwoPhasePagingRunner {
 		/**
 		 * 第一次查詢
 		 */
-		List<T> resultData = filter.firstPhasePaging(resultBean);
+		List<T> resultData = firstPhasePaging(filter, resultBean, event);
 		resultBean.setResultSize(resultData.size());
 		// :~)
 
@@ -97,25 +182,196 @@ public class TwoPhasePagingRunner {
 		if (
 			resultBean.getResultStatus() == ResultStatus.EmptyData &&
 			fetchPhase == FetchPhase.LastFetch &&
-			pagingRequestBean.hasPreviousPage()
+			pagingRequest.hasPreviousPage()
 		) {
 			/**
 			 * 第二階段查詢以「最後一頁」為查詢策略
 			 */
-			pagingRequestBean.setPageNumberOfTarget(PagingRequestBean.LAST_PAGE);
-			resultBean.setPagingRequestBean(pagingRequestBean);
+			resultBean.setPagingRequest(pagingRequest.withPageNumberOfTarget(PagingRequestBean.LAST_PAGE));
 			// :~)
 
-			return runTwoPhasePagingFilter(filter, resultBean); // 遞迴呼叫請求「最後一頁」
+			if (event != null) {
+				event.markSecondQuery();
+			}
+			return runTwoPhasePagingFilter(filter, resultBean, FetchPhase.FirstFetch, pageView, event); // 遞迴呼叫請求「最後一頁」
 		}
 		// :~)
 
-		return FetchPhase.FirstFetch.filterToPage(
-			resultData, resultBean.getPagingRequestBean().getPageSize()
+		return toPage(
+			FetchPhase.FirstFetch, resultData, pagingRequest.getPageSize(), pageView
 		);
 		// ================================================== :~)
 	}
 
+	/**
+	 * 以 {@link Executor} 非同步執行多階段分頁，兩個階段的查詢都在同一個工作(task)中執行.
+	 *
+	 * <p>本類別執行的路徑不使用 synchronized，因此可傳入每個工作一個 virtual thread 的 {@link Executor}，
+	 * 不會佔住(pin)載體執行緒；filter 若使用 JPA 的物件，每個工作需使用各自的 EntityManager</p>
+	 *
+	 * <p>resultBean 會在回傳的 {@link CompletableFuture} 完成前設定完畢</p>
+	 *
+	 * @param <T> 回傳的 List Generic Type
+	 * @param filter 實作取得資料的 Closure
+	 * @param resultBean 分頁的資料物件，在 {@link CompletableFuture} 完成前不可使用
+	 * @param fetchPhase 要執行的階段
+	 * @param executor 執行分頁的 {@link Executor}，不得為 null
+	 *
+	 * @return 可能為 Empty List 的結果
+	 *
+	 * @see #runTwoPhasePagingFilter(TwoPhasePagingFilter, PagingResultBean, FetchPhase)
+	 */
+	public static <T> CompletableFuture<List<T>> runTwoPhasePagingFilterAsync(
+		TwoPhasePagingFilter<T> filter, PagingResultBean resultBean, FetchPhase fetchPhase, Executor executor
+	) {
+		notNull(executor, "Executor is null");
+
+		return CompletableFuture.supplyAsync(
+			() -> runTwoPhasePagingFilter(filter, resultBean, fetchPhase), executor
+		);
+	}
+
+	/**
+	 * 先取得總筆數，再依精確的分頁結果，只取出所在頁的資料.
+	 *
+	 * <p>本方法一律會執行「計算總筆數」與「取得所在頁資料」兩次查詢，
+	 * 不會多取出本頁後顯示頁數的資料，並會設定 {@link PagingResultBean#getResultTotalSize()}
+	 * 與 {@link PagingResultBean#getResultPageCount()}</p>
+	 *
+	 * <p>參數 fetchPhase 若為 {@link FetchPhase#LastFetch}，要求的頁碼超過全部資料頁數時，會取出最後一頁的資料</p>
+	 *
+	 * <p>若計算總筆數後資料被刪除(所在頁沒有資料)，要求「最後一頁」或 fetchPhase 為 {@link FetchPhase#LastFetch} 時，
+	 * 會以 {@link TwoPhasePagingFilter#lastPhasePaging(PagingResultBean)} 重新查詢，此時不會有總筆數的資料</p>
+	 *
+	 * @param <T> 回傳的 List Generic Type
+	 * @param filter 實作取得資料與總筆數的 Closure
+	 * @param resultBean 分頁的資料物件
+	 * @param fetchPhase 要執行的階段
+	 *
+	 * @return 可能為 Empty List 的結果
+	 *
+	 * @see PagingResultBean#setTotalSize(long, FetchPhase)
+	 */
+	public static <T> List<T> runCountedPagingFilter(CountingPagingFilter<T> filter, PagingResultBean resultBean, FetchPhase fetchPhase)
+	{
+		checkValidPagingResultBean(resultBean);
+
+		PagingListener listener = pagingListener;
+		if (listener == null) {
+			return runCountedPagingFilter(filter, resultBean, fetchPhase, false, null);
+		}
+
+		PagingEvent event = new PagingEvent(isLastPageRequested(resultBean));
+		List<T> resultData = runCountedPagingFilter(filter, resultBean, fetchPhase, false, event);
+		firePagingCompleted(listener, event, resultData, resultBean);
+
+		return resultData;
+	}
+
+	private static <T> List<T> runCountedPagingFilter(
+		CountingPagingFilter<T> filter, PagingResultBean resultBean, FetchPhase fetchPhase, boolean pageView,
+		PagingEvent event
+	) {
+		checkValidPagingResultBean(resultBean);
+		fetchPhase = processFetchPhase(fetchPhase);
+
+		resultBean.setTotalSize(countTotalSize(filter, event), fetchPhase);
+		if (resultBean.getResultStatus() == ResultStatus.EmptyData) {
+			return pageView ? Collections.<T>emptyList() : new ArrayList<T>(0);
+		}
+
+		PagingRequest pagingRequest = resultBean.getPagingRequest();
+		List<T> resultData = firstPhasePaging(filter, resultBean, event);
+
+		/**
+		 * 計算總筆數後，資料已被刪除(所在頁沒有資料)，不再使用總筆數
+		 * 1. 要求最後一頁或策略為 LastFetch 時，以第二種策略重新查詢
+		 * 2. 其它情況，結果為 EmptyData
+		 */
+		if (resultData.isEmpty()) {
+			logger.debug("Data of counted page is absent, fallbacks to paging without total size");
+
+			resultBean.setResultSize(0, fetchPhase);
+			if (!pagingRequest.isLastPage() && fetchPhase != FetchPhase.LastFetch) {
+				return resultData;
+			}
+
+			if (event != null) {
+				event.markSecondQuery();
+			}
+			resultData = lastPhasePaging(filter, resultBean, event);
+			resultBean.setResultSize(resultData.size(), FetchPhase.LastFetch);
+
+			return toPage(
+				FetchPhase.LastFetch, resultData, pagingRequest.getPageSize(), pageView
+			);
+		}
+		// :~)
+
+		return toPage(
+			FetchPhase.FirstFetch, resultData, pagingRequest.getPageSize(), pageView
+		);
+	}
+
+	private static <T> List<T> firstPhasePaging(TwoPhasePagingFilter<T> filter, PagingResultBean resultBean, PagingEvent event)
+	{
+		if (event == null) {
+			return filter.firstPhasePaging(resultBean);
+		}
+
+		long startTime = System.nanoTime();
+		List<T> resultData = filter.firstPhasePaging(resultBean);
+		event.recordFirstPhase(System.nanoTime() - startTime, resultData.size());
+
+		return resultData;
+	}
+	private static <T> List<T> lastPhasePaging(TwoPhasePagingFilter<T> filter, PagingResultBean resultBean, PagingEvent event)
+	{
+		if (event == null) {
+			return filter.lastPhasePaging(resultBean);
+		}
+
+		long startTime = System.nanoTime();
+		List<T> resultData = filter.lastPhasePaging(resultBean);
+		event.recordLastPhase(System.nanoTime() - startTime, resultData.size());
+
+		return resultData;
+	}
+	private static long countTotalSize(CountingPagingFilter<?> filter, PagingEvent event)
+	{
+		if (event == null) {
+			return filter.countTotalSize();
+		}
+
+		long startTime = System.nanoTime();
+		long totalSize = filter.countTotalSize();
+		event.recordCount(System.nanoTime() - startTime);
+
+		return totalSize;
+	}
+
+	private static boolean isLastPageRequested(PagingResultBean resultBean)
+	{
+		return resultBean.getPagingRequest().isLastPage();
+	}
+	private static void firePagingCompleted(PagingListener listener, PagingEvent event, List<?> resultData, PagingResultBean resultBean)
+	{
+		event.complete(resultData.size(), resultBean.getResultStatus());
+
+		try {
+			listener.pagingCompleted(event);
+		} catch (RuntimeException e) {
+			logger.warn("Paging listener has error: " + listener.getClass().getName(), e);
+		}
+	}
+
+	private static <T> List<T> toPage(FetchPhase fetchPhase, List<T> resultData, int pageSize, boolean pageView)
+	{
+		return pageView ?
+			fetchPhase.viewOfPage(resultData, pageSize) :
+			fetchPhase.filterToPage(resultData, pageSize);
+	}
+
 	private static FetchPhase processFetchPhase(FetchPhase fetchPhase)
 	{
 		fetchPhase = fetchPhase == null ?
@@ -136,6 +392,6 @@ public class TwoPhasePagingRunner {
 	private static void checkValidPagingResultBean(PagingResultBean pagingResultBean)
 	{
 		notNull(pagingResultBean, "Paging result bean is null");
-		notNull(pagingResultBean.getPagingRequestBean(), "Request paging data is null");
+		notNull(pagingResultBean.getPagingRequest(), "Request paging data is null");
 	}
 }
@@ -0,0 +1,26 @@
+package guru.mikelue.jpa.query;
+
+import java.util.List;
+import javax.persistence.EntityManager;
+
+/**
+ * Client implements this interface to execute incremental query processing concurrently.
+ *
+ * <p>Every action is executed in its own thread with a dedicated {@link EntityManager},
+ * so the implementation must not share any {@link EntityManager} or query object with other actions.</p>
+ *
+ * @param <T> The type of result for query
+ *
+ * @see QueryUtil#getListResultByParallelQuery(java.util.concurrent.Executor, javax.persistence.EntityManagerFactory, ParallelListResultQueryAction, ParallelListResultQueryAction, ParallelListResultQueryAction...)
+ * @see TypedListResultQueryAction
+ */
+public interface ParallelListResultQueryAction<T> {
+    /**
+     * Gets the list of result. <strong>This method should return empty list if there is no data.</strong>
+     *
+     * @param entityManager The entity manager dedicated to this action, which is closed after this method returns
+     *
+     * @return The list of data
+     */
+    public List<T> getListResult(EntityManager entityManager);
+}
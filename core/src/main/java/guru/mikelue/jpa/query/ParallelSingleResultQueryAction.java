@@ -0,0 +1,25 @@
+package guru.mikelue.jpa.query;
+
+import javax.persistence.EntityManager;
+
+/**
+ * Client implements this interface to execute incremental query processing concurrently.
+ *
+ * <p>Every action is executed in its own thread with a dedicated {@link EntityManager},
+ * so the implementation must not share any {@link EntityManager} or query object with other actions.</p>
+ *
+ * @param <T> The type of result for query
+ *
+ * @see QueryUtil#getSingleResultByParallelQuery(java.util.concurrent.Executor, javax.persistence.EntityManagerFactory, ParallelSingleResultQueryAction, ParallelSingleResultQueryAction, ParallelSingleResultQueryAction...)
+ * @see TypedSingleResultQueryAction
+ */
+public interface ParallelSingleResultQueryAction<T> {
+    /**
+     * Gets the result or null if there is no data.<p>
+     *
+     * @param entityManager The entity manager dedicated to this action, which is closed after this method returns
+     *
+     * @return null if there is no data
+     */
+    public T getSingleResult(EntityManager entityManager);
+}
@@ -1,6 +1,20 @@
 package guru.mikelue.jpa.query;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
 import javax.persistence.NonUniqueResultException;
 import javax.persistence.NoResultException;
 import javax.persistence.Query;
@@ -15,6 +29,21 @@ import org.slf4j.LoggerFactory;
 public class QueryUtil {
     private static Logger logger = LoggerFactory.getLogger(QueryUtil.class);
 
+    private final static Pattern PATTERN_SELECT_CLAUSE = Pattern.compile(
+        "^\\s*SELECT\\s+(DISTINCT\\s+)?(.+?)\\s+(FROM\\s.+)$",
+        Pattern.CASE_INSENSITIVE | Pattern.DOTALL
+    );
+    private final static Pattern PATTERN_JOIN_FETCH = Pattern.compile(
+        "\\bJOIN\\s+FETCH\\b",
+        Pattern.CASE_INSENSITIVE
+    );
+    private final static Pattern PATTERN_SIMPLE_EXPRESSION = Pattern.compile(
+        "^[\\w.]+$"
+    );
+    private final static Pattern PATTERN_IDENTIFICATION_VARIABLE = Pattern.compile(
+        "^\\w+$"
+    );
+
     private QueryUtil() {}
 
     /**
@@ -162,6 +191,269 @@ public class QueryUtil {
 		return getListResultByIncrementalQueryImpl(firstAction, secondAction, actions);
     }
 
+    /**
+     * Gets data by multiple {@link TypedSingleResultQueryAction}s asynchronously,
+     * the actions are executed one by one(as {@link #getSingleResultByIncrementalQuery(TypedSingleResultQueryAction, TypedSingleResultQueryAction, TypedSingleResultQueryAction...)})
+     * in a single task of the executor.
+     *
+     * <p>The paths of this class don't use "synchronized", so the executor could be a virtual-thread-per-task one
+     * without pinning of carrier threads.</p>
+     *
+	 * @param <T> The type of result for query
+     * @param executor The executor to run the chain of actions
+     * @param firstAction The 1st action to retrieve data
+     * @param secondAction The 2ed action to retrieve data
+     * @param actions The remaining actions to retrieve data
+     *
+	 * @return The future of result
+     */
+    @SafeVarargs
+    public static <T> CompletableFuture<T> getSingleResultByIncrementalQueryAsync(
+        Executor executor,
+        TypedSingleResultQueryAction<? extends T> firstAction, TypedSingleResultQueryAction<? extends T> secondAction,
+        TypedSingleResultQueryAction<? extends T>... actions
+    ) {
+        if (executor == null) {
+            throw new IllegalArgumentException("Executor is null");
+        }
+
+        return CompletableFuture.supplyAsync(
+            () -> QueryUtil.<T>getSingleResultByIncrementalQueryImpl(firstAction, secondAction, actions), executor
+        );
+    }
+
+    /**
+     * Gets data by multiple {@link TypedListResultQueryAction}s asynchronously,
+     * the actions are executed one by one(as {@link #getListResultByIncrementalQuery(TypedListResultQueryAction, TypedListResultQueryAction, TypedListResultQueryAction...)})
+     * in a single task of the executor.
+     *
+     * <p>The paths of this class don't use "synchronized", so the executor could be a virtual-thread-per-task one
+     * without pinning of carrier threads.</p>
+     *
+	 * @param <T> The type of result for query
+     * @param executor The executor to run the chain of actions
+     * @param firstAction The 1st action to retrieve data
+     * @param secondAction The 2ed action to retrieve data
+     * @param actions The remaining actions to retrieve data
+     *
+	 * @return The future of result
+     */
+    @SafeVarargs
+    public static <T> CompletableFuture<List<T>> getListResultByIncrementalQueryAsync(
+        Executor executor,
+        TypedListResultQueryAction<T> firstAction, TypedListResultQueryAction<T> secondAction,
+        TypedListResultQueryAction<T>... actions
+    ) {
+        if (executor == null) {
+            throw new IllegalArgumentException("Executor is null");
+        }
+
+        return CompletableFuture.supplyAsync(
+            () -> getListResultByIncrementalQueryImpl(firstAction, secondAction, actions), executor
+        );
+    }
+
+    /**
+     * Gets data by multiple {@link ParallelSingleResultQueryAction}s which are executed concurrently,
+     * the result of the highest-priority action having viable data(not null) is returned.
+     *
+     * <p>The priority agrees with the parameters of method. Every action is executed by the executor
+     * with its own {@link EntityManager} created from the factory(and closed after the action returns),
+     * so the returned entity is detached.</p>
+     *
+     * <p>Once the result of higher-priority action is viable, the lower-priority actions would be cancelled(interrupted).
+     * The latency is about the slowest one of actions before(including) the viable one,
+     * instead of the summation of them by {@link #getSingleResultByIncrementalQuery(TypedSingleResultQueryAction, TypedSingleResultQueryAction, TypedSingleResultQueryAction...)}.</p>
+     *
+	 * @param <T> The type of result for query
+     * @param executor The executor to run actions, should be able to run all of the actions concurrently
+     * @param entityManagerFactory The factory to create an entity manager for every action
+     * @param firstAction The 1st action to retrieve data
+     * @param secondAction The 2ed action to retrieve data
+     * @param actions The remaining actions to retrieve data
+     *
+	 * @return The result of query
+     *
+     * @see ParallelSingleResultQueryAction
+     * @see #getSingleResultByIncrementalQuery(TypedSingleResultQueryAction, TypedSingleResultQueryAction, TypedSingleResultQueryAction...)
+     */
+    public static <T> T getSingleResultByParallelQuery(
+        Executor executor, EntityManagerFactory entityManagerFactory,
+        ParallelSingleResultQueryAction<? extends T> firstAction, ParallelSingleResultQueryAction<? extends T> secondAction,
+        ParallelSingleResultQueryAction<? extends T>... actions
+    ) {
+        List<Callable<T>> tasks = new ArrayList<Callable<T>>(actions.length + 2);
+        for (ParallelSingleResultQueryAction<? extends T> action: asActionList(firstAction, secondAction, actions)) {
+            tasks.add(withEntityManager(entityManagerFactory, action::getSingleResult));
+        }
+
+        return getViableResultByParallelQueryImpl(executor, tasks, result -> result != null);
+    }
+
+    /**
+     * Gets data by multiple {@link ParallelListResultQueryAction}s which are executed concurrently,
+     * the result of the highest-priority action having viable data(the size of result list is greater than 1) is returned.
+     *
+     * <p>The priority agrees with the parameters of method. Every action is executed by the executor
+     * with its own {@link EntityManager} created from the factory(and closed after the action returns),
+     * so the returned entities are detached.</p>
+     *
+     * <p>Once the result of higher-priority action is viable, the lower-priority actions would be cancelled(interrupted).
+     * The latency is about the slowest one of actions before(including) the viable one,
+     * instead of the summation of them by {@link #getListResultByIncrementalQuery(TypedListResultQueryAction, TypedListResultQueryAction, TypedListResultQueryAction...)}.</p>
+     *
+	 * @param <T> The type of result for query
+     * @param executor The executor to run actions, should be able to run all of the actions concurrently
+     * @param entityManagerFactory The factory to create an entity manager for every action
+     * @param firstAction The 1st action to retrieve data
+     * @param secondAction The 2ed action to retrieve data
+     * @param actions The remaining actions to retrieve data
+     *
+	 * @return The result of query
+     *
+     * @see ParallelListResultQueryAction
+     * @see #getListResultByIncrementalQuery(TypedListResultQueryAction, TypedListResultQueryAction, TypedListResultQueryAction...)
+     */
+    public static <T> List<T> getListResultByParallelQuery(
+        Executor executor, EntityManagerFactory entityManagerFactory,
+        ParallelListResultQueryAction<T> firstAction, ParallelListResultQueryAction<T> secondAction,
+        ParallelListResultQueryAction<T>... actions
+    ) {
+        List<Callable<List<T>>> tasks = new ArrayList<Callable<List<T>>>(actions.length + 2);
+        for (ParallelListResultQueryAction<T> action: asActionList(firstAction, secondAction, actions)) {
+            tasks.add(withEntityManager(entityManagerFactory, action::getListResult));
+        }
+
+        return getViableResultByParallelQueryImpl(executor, tasks, result -> result.size() > 0);
+    }
+
+    /**
+     * Builds a JPQL for counting rows from a JPQL which selects single entity(or single path expression).
+     *
+     * <p>The select clause would be replaced by "SELECT COUNT(...)"(with "DISTINCT" kept),
+     * the trailing "ORDER BY" clause would be removed, and "JOIN FETCH" would be replaced by "JOIN".</p>
+     *
+     * <p>The JPQL having "GROUP BY"/"HAVING"(in top level), or "SELECT DISTINCT" of path expression(e.g., "SELECT DISTINCT c.name"),
+     * is not supported, because the count of such query is not a single row or is not portable.
+     * The count query of them should be written by hand.</p>
+     *
+     * <p>The named/positional parameters are kept, so the client code should set the same parameters to the count query.</p>
+     *
+     * @param qlString The JPQL to be converted, e.g. "SELECT c FROM Car AS c WHERE c.name = :name ORDER BY c.id"
+     *
+     * @return The JPQL for counting, e.g. "SELECT COUNT(c) FROM Car AS c WHERE c.name = :name"
+     *
+     * @throws IllegalArgumentException if the select clause is not a single path expression,
+     * or the JPQL has "GROUP BY"/"HAVING" clause or "SELECT DISTINCT" of path expression
+     *
+     * @see guru.mikelue.jpa.paging.PagingUtil#queryAndCountDataToPage(TypedQuery, Query, guru.mikelue.jpa.paging.PagingResultBean, guru.mikelue.jpa.paging.FetchPhase)
+     */
+    public static String buildCountQueryString(String qlString)
+    {
+        Matcher matcher = PATTERN_SELECT_CLAUSE.matcher(qlString);
+        if (!matcher.matches()) {
+            throw new IllegalArgumentException("Unsupported JPQL(needs \"SELECT ... FROM ...\"): " + qlString);
+        }
+
+        String selectExpression = matcher.group(2).trim();
+        if (!PATTERN_SIMPLE_EXPRESSION.matcher(selectExpression).matches()) {
+            throw new IllegalArgumentException("Unsupported select clause for counting: " + selectExpression);
+        }
+
+        boolean distinct = matcher.group(1) != null;
+        if (distinct && !PATTERN_IDENTIFICATION_VARIABLE.matcher(selectExpression).matches()) {
+            throw new IllegalArgumentException("Unsupported \"SELECT DISTINCT\" of path expression for counting: " + selectExpression);
+        }
+
+        String fromClause = matcher.group(3);
+        if (indexOfTopLevelKeyword(fromClause, "GROUP BY") >= 0 || indexOfTopLevelKeyword(fromClause, "HAVING") >= 0) {
+            throw new IllegalArgumentException("Unsupported \"GROUP BY\"/\"HAVING\" for counting: " + qlString);
+        }
+
+        int orderByIndex = lastIndexOfTopLevelKeyword(fromClause, "ORDER BY");
+        if (orderByIndex >= 0) {
+            fromClause = fromClause.substring(0, orderByIndex).trim();
+        }
+        fromClause = PATTERN_JOIN_FETCH.matcher(fromClause).replaceAll("JOIN");
+
+        return String.format(
+            "SELECT COUNT(%s%s) %s",
+            distinct ? "DISTINCT " : "",
+            selectExpression, fromClause
+        );
+    }
+
+    /**
+     * Finds the first keyword(e.g., "WHERE") in top level of JPQL.
+     *
+     * <p>The keyword in parentheses(e.g., sub-query or function) or string literals is skipped,
+     * the spaces between words of keyword(e.g., "ORDER BY") could be any white spaces.</p>
+     *
+     * @param qlString The JPQL
+     * @param keyword The keyword(case-insensitive)
+     *
+     * @return The index of keyword, -1 if there is no such keyword in top level
+     *
+     * @see #lastIndexOfTopLevelKeyword(String, String)
+     */
+    public static int indexOfTopLevelKeyword(String qlString, String keyword)
+    {
+        return indexOfTopLevelKeyword(qlString, keyword, false);
+    }
+    /**
+     * Finds the last keyword(e.g., "ORDER BY") in top level of JPQL.
+     *
+     * @param qlString The JPQL
+     * @param keyword The keyword(case-insensitive)
+     *
+     * @return The index of keyword, -1 if there is no such keyword in top level
+     *
+     * @see #indexOfTopLevelKeyword(String, String)
+     */
+    public static int lastIndexOfTopLevelKeyword(String qlString, String keyword)
+    {
+        return indexOfTopLevelKeyword(qlString, keyword, true);
+    }
+
+	private static int indexOfTopLevelKeyword(String qlString, String keyword, boolean lastOne)
+	{
+		Matcher keywordMatcher = Pattern.compile(
+			"\\b" + keyword.trim().replaceAll("\\s+", "\\\\s+") + "\\b", Pattern.CASE_INSENSITIVE
+		).matcher(qlString);
+		keywordMatcher.useTransparentBounds(true); // "\\b" checks the character before region
+		char firstChar = Character.toUpperCase(keyword.trim().charAt(0));
+
+		int depth = 0;
+		boolean inLiteral = false;
+		int foundIndex = -1;
+		for (int i = 0; i < qlString.length(); i++) {
+			char c = qlString.charAt(i);
+
+			if (c == '\'') {
+				inLiteral = !inLiteral;
+				continue;
+			}
+			if (inLiteral) {
+				continue;
+			}
+
+			if (c == '(') {
+				depth++;
+			} else if (c == ')') {
+				depth--;
+			} else if (depth == 0 && Character.toUpperCase(c) == firstChar &&
+				keywordMatcher.region(i, qlString.length()).lookingAt()
+			) {
+				foundIndex = i;
+				if (!lastOne) {
+					break;
+				}
+			}
+		}
+
+		return foundIndex;
+	}
+
 	/**
 	 * This method as alias name of calling method to
 	 * prevent recursive calling of related methods.
@@ -245,4 +537,98 @@ public class QueryUtil {
 
         return result;
 	}
+
+	/**
+	 * Executes the tasks concurrently and gets the first viable result by the sequence of tasks.
+	 *
+	 * <p>The lower-priority tasks would be cancelled once the viable result is found,
+	 * or any of the tasks throws an exception.</p>
+	 *
+	 * @param <T> The type of result for query
+	 * @param executor The executor to run tasks
+	 * @param tasks The tasks ordered by priority
+	 * @param viableCheck Checks whether or not the result is viable
+	 *
+	 * @return The first viable result, or the result of last task if there is no viable one
+	 */
+	private static <T> T getViableResultByParallelQueryImpl(
+		Executor executor, List<Callable<T>> tasks, Predicate<? super T> viableCheck
+	) {
+		if (executor == null) {
+			throw new IllegalArgumentException("Executor is null");
+		}
+
+		List<Future<T>> futures = new ArrayList<Future<T>>(tasks.size());
+		T result = null;
+		try {
+			/**
+			 * The submission is inside of "try" block, so the submitted tasks would be cancelled
+			 * if the executor rejects any of the tasks
+			 */
+			for (Callable<T> task: tasks) {
+				FutureTask<T> future = new FutureTask<T>(task);
+				futures.add(future);
+				executor.execute(future);
+			}
+			// :~)
+
+			for (int i = 0; i < futures.size(); i++) {
+				result = futures.get(i).get();
+				if (viableCheck.test(result)) {
+					break;
+				}
+				logger.debug("Parallel query[{}] has no viable data", i + 1);
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("Interrupted while waiting for parallel queries", e);
+		} catch (ExecutionException e) {
+			if (e.getCause() instanceof RuntimeException) {
+				throw (RuntimeException)e.getCause();
+			}
+			if (e.getCause() instanceof Error) {
+				throw (Error)e.getCause();
+			}
+
+			throw new IllegalStateException("Parallel query has error", e.getCause());
+		} finally {
+			/**
+			 * Cancels the lower-priority(or all of the remaining) tasks
+			 */
+			for (Future<T> future: futures) {
+				future.cancel(true);
+			}
+			// :~)
+		}
+
+		return result;
+	}
+
+	private static <T> Callable<T> withEntityManager(
+		final EntityManagerFactory entityManagerFactory, final Function<EntityManager, ? extends T> action
+	) {
+		if (entityManagerFactory == null) {
+			throw new IllegalArgumentException("Entity manager factory is null");
+		}
+
+		return () -> {
+			EntityManager entityManager = entityManagerFactory.createEntityManager();
+			try {
+				return action.apply(entityManager);
+			} finally {
+				entityManager.close();
+			}
+		};
+	}
+
+	@SafeVarargs
+	private static <A> List<A> asActionList(A firstAction, A secondAction, A... actions)
+	{
+		List<A> allActions = new ArrayList<A>(actions.length + 2);
+		allActions.add(firstAction);
+		allActions.add(secondAction);
+		allActions.addAll(Arrays.asList(actions));
+
+		return allActions;
+	}
 }
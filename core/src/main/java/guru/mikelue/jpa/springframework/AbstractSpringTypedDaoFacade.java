@@ -1,20 +1,28 @@
 package guru.mikelue.jpa.springframework;
 
+import java.util.Collection;
+
 import guru.mikelue.jpa.dao.AbstractTypedDaoFacadeBase;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 /**
  * This class provides a skeleton for DAO object in <a href="http://www.springsource.org/">SpringFramework</a>.<p>
  *
- * The {@link #saveNew}, {@link #saveExisted}, and {@link #remove} methods are annotated with {@link Transactional},
+ * The {@link #saveNew}, {@link #saveExisted}, {@link #saveAllNew}, {@link #saveAllExisted}, {@link #remove}, {@link #removeById}, and {@link #removeAll} methods are annotated with {@link Transactional},
  * which perform transactional boundary to parent class.<p>
  *
+ * The {@link #getPageResultCache() cache of paging results} is invalidated after the transaction is committed as well.<p>
+ *
  * You should override the {@link #getEntityManager} method to accomplish the persistence context of this object.
  *
  * @param T type of entity
  * @param PK_T type of primary key of entity
  */
 public abstract class AbstractSpringTypedDaoFacade<T, PK_T> extends AbstractTypedDaoFacadeBase<T, PK_T> {
+    private final Object afterCommitInvalidationKey = new Object();
+
     public AbstractSpringTypedDaoFacade() {}
 
     @Override @Transactional
@@ -28,8 +36,72 @@ public abstract class AbstractSpringTypedDaoFacade<T, PK_T> extends AbstractType
         return super.saveExisted(newEntity);
     }
     @Override @Transactional
+    public int saveAllNew(Iterable<? extends T> newEntities)
+    {
+        return super.saveAllNew(newEntities);
+    }
+    @Override @Transactional
+    public int saveAllExisted(Iterable<? extends T> existedEntities)
+    {
+        return super.saveAllExisted(existedEntities);
+    }
+    @Override @Transactional
     public boolean remove(PK_T primaryKey)
     {
         return super.remove(primaryKey);
     }
+    @Override @Transactional
+    public boolean removeById(PK_T primaryKey)
+    {
+        return super.removeById(primaryKey);
+    }
+    @Override @Transactional
+    public int removeAll(Collection<? extends PK_T> primaryKeys)
+    {
+        return super.removeAll(primaryKeys);
+    }
+
+    /**
+     * Invalidates the cache of paging results immediately, and again after the current transaction is committed,
+     * so the result paged concurrently(before the committing) is not kept in cache.
+     *
+     * <p>The invalidation after committing is registered once per transaction.</p>
+     */
+    @Override
+    protected void invalidatePageResultCache()
+    {
+        super.invalidatePageResultCache();
+
+        if (getPageResultCache() == null ||
+            !TransactionSynchronizationManager.isSynchronizationActive() ||
+            TransactionSynchronizationManager.hasResource(afterCommitInvalidationKey)
+        ) {
+            return;
+        }
+
+        TransactionSynchronizationManager.bindResource(afterCommitInvalidationKey, Boolean.TRUE);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+            @Override
+            public void suspend()
+            {
+                TransactionSynchronizationManager.unbindResourceIfPossible(afterCommitInvalidationKey);
+            }
+            @Override
+            public void resume()
+            {
+                TransactionSynchronizationManager.bindResource(afterCommitInvalidationKey, Boolean.TRUE);
+            }
+            @Override
+            public void afterCommit()
+            {
+                getLogger().debug("Invalidate cache of paging results after committing");
+                AbstractSpringTypedDaoFacade.super.invalidatePageResultCache();
+            }
+            @Override
+            public void afterCompletion(int status)
+            {
+                TransactionSynchronizationManager.unbindResourceIfPossible(afterCommitInvalidationKey);
+            }
+        });
+    }
 }
@@ -0,0 +1,229 @@
+package guru.mikelue.jpa.dao;
+
+import guru.mikelue.jpa.model.Person;
+import guru.mikelue.jpa.paging.FetchPhase;
+import guru.mikelue.jpa.paging.PagingRequestBean;
+import guru.mikelue.jpa.paging.PagingResultBean;
+import guru.mikelue.jpa.paging.ResultStatus;
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.PersistenceException;
+import static javax.persistence.Persistence.createEntityManagerFactory;
+
+/**
+ * Tests the asynchronous DAO.
+ */
+public class AbstractAsyncTypedDaoFacadeTest {
+    private final static int NUMBER_OF_PEOPLE = 12;
+
+    private AsyncPersonDao testDao;
+
+    public AbstractAsyncTypedDaoFacadeTest() {}
+
+    /**
+     * Tests the overlapped lookups
+     */
+    @Test
+    public void find()
+    {
+        CompletableFuture<Person> firstPerson = testDao.find(1);
+        CompletableFuture<Person> secondPerson = testDao.find(2);
+        CompletableFuture<Person> notExistedPerson = testDao.find(999);
+
+        Assert.assertEquals(firstPerson.join().getName(), "person-1");
+        Assert.assertEquals(secondPerson.join().getName(), "person-2");
+        Assert.assertNull(notExistedPerson.join());
+    }
+    @Test
+    public void getResultList()
+    {
+        Assert.assertEquals(
+            testDao.getResultList(
+                " SELECT p" +
+                " FROM Person AS p"  +
+                " WHERE p.name = :name",
+                Collections.singletonMap("name", "person-3")
+            ).join().size(),
+            1
+        );
+    }
+    @Test
+    public void queryAndFilterDataToPage()
+    {
+        PagingResultBean resultBean = new PagingResultBean(new PagingRequestBean(2, 5, 0));
+
+        List<Person> people = testDao.queryAndFilterDataToPage(
+            " SELECT p" +
+            " FROM Person AS p"  +
+            " ORDER BY p.id",
+            null, resultBean, FetchPhase.FirstFetch
+        ).join();
+
+        Assert.assertEquals(people.size(), 5);
+        Assert.assertEquals(people.get(0).getId(), Integer.valueOf(6));
+        Assert.assertEquals(resultBean.getResultStatus(), ResultStatus.HasMorePage);
+    }
+    /**
+     * Tests the rollback of transaction if there is exception
+     */
+    @Test
+    public void supplyAsyncWithException()
+    {
+        CompletableFuture<Integer> failedFuture = testDao.supplyAsync(entityManager -> {
+            Person person = entityManager.find(Person.class, 1);
+            person.setName("Rolled back");
+            entityManager.flush();
+
+            throw new PersistenceException("Sample exception");
+        });
+
+        try {
+            failedFuture.join();
+            Assert.fail("Should throw exception");
+        } catch (CompletionException e) {
+            Assert.assertTrue(e.getCause() instanceof PersistenceException);
+        }
+
+        Assert.assertEquals(testDao.find(1).join().getName(), "person-1");
+    }
+
+    /**
+     * Tests the rejection of saturated executor, the operation must not be run by the calling thread
+     */
+    @Test
+    public void rejectBySaturatedExecutor() throws InterruptedException
+    {
+        /**
+         * Uses a dedicated DAO, so the other tests wouldn't be rejected while its queue is draining
+         */
+        AsyncPersonDao saturatedDao = new AsyncPersonDao();
+        saturatedDao.init("async-dao-saturated", 1, 1);
+        // :~)
+
+        ThreadPoolExecutor testExecutor = (ThreadPoolExecutor)saturatedDao.getExecutor();
+        final CountDownLatch startedLatch = new CountDownLatch(testExecutor.getMaximumPoolSize());
+        final CountDownLatch blockingLatch = new CountDownLatch(1);
+        final AtomicReference<Thread> operationThread = new AtomicReference<Thread>();
+
+        try {
+            /**
+             * Occupies all of the threads and fills the queue
+             */
+            for (int i = 0; i < testExecutor.getMaximumPoolSize(); i++) {
+                testExecutor.execute(() -> {
+                    startedLatch.countDown();
+                    awaitQuietly(blockingLatch);
+                });
+            }
+            Assert.assertTrue(startedLatch.await(5, TimeUnit.SECONDS));
+
+            for (int i = testExecutor.getQueue().remainingCapacity(); i > 0; i--) {
+                testExecutor.execute(() -> {});
+            }
+            // :~)
+
+            try {
+                saturatedDao.supplyAsync(entityManager -> {
+                    operationThread.set(Thread.currentThread());
+                    return null;
+                });
+                Assert.fail("Should throw RejectedExecutionException");
+            } catch (RejectedExecutionException e) {
+                // Expected
+            }
+
+            Assert.assertNull(operationThread.get(), "The rejected operation should not be executed");
+        } finally {
+            blockingLatch.countDown();
+            saturatedDao.release();
+        }
+    }
+    private static void awaitQuietly(CountDownLatch latch)
+    {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @BeforeClass
+    public void init()
+    {
+        testDao = new AsyncPersonDao();
+        testDao.init();
+
+        /**
+         * Build test data
+         */
+        testDao.supplyAsync(entityManager -> {
+            for (int i = 1; i <= NUMBER_OF_PEOPLE; i++) {
+                Person person = new Person();
+                person.setId(i);
+                person.setName("person-" + i);
+                person.setAddress("address: person-" + i);
+                entityManager.persist(person);
+            }
+            return null;
+        }).join();
+        // :~)
+    }
+    @AfterClass
+    public void release()
+    {
+        testDao.release();
+    }
+}
+
+/**
+ * As asynchronous DAO object for testing.
+ */
+class AsyncPersonDao extends AbstractAsyncTypedDaoFacade<Person, Integer> {
+    private EntityManagerFactory emf = null;
+    private ExecutorService executor = null;
+
+    AsyncPersonDao() {}
+
+    @Override
+    public EntityManagerFactory getEntityManagerFactory()
+    {
+        return emf;
+    }
+    @Override
+    public Executor getExecutor()
+    {
+        return executor;
+    }
+
+    public void init()
+    {
+        init("async-dao", 4, 16);
+    }
+    public void init(String nameOfDb, int maxThreads, int queueCapacity)
+    {
+        emf = createEntityManagerFactory(
+            "scrolling", Collections.singletonMap("javax.persistence.jdbc.url", "jdbc:hsqldb:mem:" + nameOfDb)
+        );
+        executor = newBoundedExecutor(maxThreads, queueCapacity);
+    }
+    public void release()
+    {
+        executor.shutdown();
+        emf.close();
+    }
+}
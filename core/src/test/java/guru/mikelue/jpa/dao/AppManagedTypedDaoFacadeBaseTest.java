@@ -1,11 +1,19 @@
 package guru.mikelue.jpa.dao;
 
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.read.ListAppender;
 import guru.mikelue.jpa.model.Person;
 import org.testng.Assert;
 import org.testng.annotations.AfterClass;
 import org.testng.annotations.BeforeClass;
 import org.testng.annotations.Test;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
 import javax.persistence.EntityManager;
 import javax.persistence.EntityManagerFactory;
 import javax.persistence.EntityTransaction;
@@ -20,6 +28,7 @@ public class AppManagedTypedDaoFacadeBaseTest {
 
     private final int FIRST_ID = 1;
     private final int SECOND_ID = 2;
+    private final int NOT_EXISTED_ID = 999;
 
     public AppManagedTypedDaoFacadeBaseTest() {}
 
@@ -107,6 +116,72 @@ public class AppManagedTypedDaoFacadeBaseTest {
         );
     }
 
+    /**
+     * Tests the timing of operations and the log of slow operations
+     */
+    @Test
+    public void timing()
+    {
+        final List<DaoOperation> timedOperations = new ArrayList<DaoOperation>();
+        ListAppender<ILoggingEvent> logAppender = new ListAppender<ILoggingEvent>();
+        Logger daoLogger = (Logger)testDao.getLogger();
+
+        logAppender.start();
+        daoLogger.addAppender(logAppender);
+        testDao.setTimingListener(new DaoTimingListener() {
+            @Override
+            public void operationTimed(Class<?> entityType, DaoOperation operation, long elapsedNanos)
+            {
+                Assert.assertEquals(entityType, Person.class);
+                Assert.assertTrue(elapsedNanos >= 0);
+                timedOperations.add(operation);
+            }
+        });
+        testDao.setSlowOperationThreshold(1, TimeUnit.NANOSECONDS);
+
+        try {
+            testDao.find(FIRST_ID);
+            testDao.createTypedQuery(
+                " SELECT p" +
+                " FROM Person AS p"  +
+                " WHERE p.name = :name"
+            )
+                .setParameter("name", "first person")
+                .getSingleResult();
+            testDao.createTypedNamedQuery("findByName")
+                .setParameter("name", "first person")
+                .getResultList();
+            testDao.remove(NOT_EXISTED_ID); // The loading of entity is not timed as "Find"
+        } finally {
+            testDao.setTimingListener(null);
+            testDao.setSlowOperationThreshold(0, TimeUnit.MILLISECONDS);
+            daoLogger.detachAppender(logAppender);
+            testDao.getEntityManager().close();
+        }
+
+        Assert.assertEquals(
+            timedOperations,
+            Arrays.asList(DaoOperation.Find, DaoOperation.Query, DaoOperation.Query, DaoOperation.Remove)
+        );
+
+        /**
+         * Asserts the log of slow operations
+         */
+        List<ILoggingEvent> slowLogs = new ArrayList<ILoggingEvent>();
+        for (ILoggingEvent event: logAppender.list) {
+            if (event.getLevel() == Level.WARN) {
+                slowLogs.add(event);
+            }
+        }
+        Assert.assertEquals(slowLogs.size(), 4);
+        Assert.assertTrue(
+            slowLogs.get(2).getFormattedMessage().contains("entity=Person operation=Query"),
+            slowLogs.get(2).getFormattedMessage()
+        );
+        Assert.assertTrue(slowLogs.get(2).getFormattedMessage().contains("target=[findByName]"));
+        // :~)
+    }
+
     private Person findPerson(int personId)
     {
         Person p = testDao.find(personId);
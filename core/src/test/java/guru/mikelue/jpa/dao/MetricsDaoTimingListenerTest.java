@@ -0,0 +1,40 @@
+package guru.mikelue.jpa.dao;
+
+import java.util.concurrent.TimeUnit;
+
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.Timer;
+import guru.mikelue.jpa.model.Person;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+public class MetricsDaoTimingListenerTest {
+    public MetricsDaoTimingListenerTest() {}
+
+    /**
+     * Tests the timers per entity type and operation
+     */
+    @Test
+    public void operationTimed()
+    {
+        MetricRegistry metricRegistry = new MetricRegistry();
+        MetricsDaoTimingListener testListener = new MetricsDaoTimingListener(metricRegistry, "app.dao");
+
+        testListener.operationTimed(Person.class, DaoOperation.Find, TimeUnit.MILLISECONDS.toNanos(3));
+        testListener.operationTimed(Person.class, DaoOperation.Find, TimeUnit.MILLISECONDS.toNanos(5));
+        testListener.operationTimed(Person.class, DaoOperation.Query, TimeUnit.MILLISECONDS.toNanos(7));
+
+        Timer findTimer = metricRegistry.timer("app.dao.Person.Find");
+        Assert.assertEquals(findTimer.getCount(), 2);
+        Assert.assertEquals(findTimer.getSnapshot().getMax(), TimeUnit.MILLISECONDS.toNanos(5));
+
+        Assert.assertEquals(metricRegistry.timer("app.dao.Person.Query").getCount(), 1);
+        Assert.assertEquals(metricRegistry.timer("app.dao.Person.SaveNew").getCount(), 0);
+    }
+
+    @Test(expectedExceptions=IllegalArgumentException.class)
+    public void blankPrefix()
+    {
+        new MetricsDaoTimingListener(new MetricRegistry(), " ");
+    }
+}
@@ -0,0 +1,91 @@
+package guru.mikelue.jpa.data;
+
+import java.util.EnumSet;
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import static javax.persistence.Persistence.createEntityManagerFactory;
+
+import guru.mikelue.jpa.model.Gadget;
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+/**
+ * This class tests the converters of {@link DbValueGetter} enumeration
+ */
+public class AbstractDbValueEnumConverterTest {
+    private EntityManagerFactory emf;
+
+	public AbstractDbValueEnumConverterTest() {}
+
+    /**
+     * Tests the conversion of enum and database value.<p>
+     */
+	@Test
+	public void convert()
+	{
+		Gadget.StatusConverter testConverter = new Gadget.StatusConverter();
+
+		Assert.assertEquals(testConverter.convertToDatabaseColumn(Gadget.Status.Retired), Integer.valueOf(9));
+		Assert.assertNull(testConverter.convertToDatabaseColumn(null));
+
+		Assert.assertEquals(testConverter.convertToEntityAttribute(2), Gadget.Status.Published);
+		Assert.assertNull(testConverter.convertToEntityAttribute(null));
+	}
+
+	@Test(expectedExceptions=IllegalArgumentException.class)
+	public void convertUnknownValue()
+	{
+		new Gadget.StatusConverter().convertToEntityAttribute(3);
+	}
+
+    /**
+     * Tests the converters used by JPA provider.<p>
+     */
+	@Test
+	public void persistAndLoad()
+	{
+		Gadget newGadget = new Gadget();
+		newGadget.setId(1);
+		newGadget.setStatus(Gadget.Status.Retired);
+		newGadget.setColors(EnumSet.of(Gadget.Color.Red, Gadget.Color.Blue));
+
+		EntityManager entityManager = emf.createEntityManager();
+		try {
+			entityManager.getTransaction().begin();
+			entityManager.persist(newGadget);
+			entityManager.getTransaction().commit();
+			entityManager.clear();
+
+			Assert.assertEquals(
+				((Number)entityManager.createNativeQuery("SELECT gd_colors FROM tt_gadget WHERE gd_id = 1").getSingleResult()).intValue(),
+				5
+			);
+
+			Gadget loadedGadget = entityManager.find(Gadget.class, 1);
+			Assert.assertEquals(loadedGadget.getStatus(), Gadget.Status.Retired);
+			Assert.assertEquals(loadedGadget.getColors(), EnumSet.of(Gadget.Color.Red, Gadget.Color.Blue));
+
+			Assert.assertEquals(
+				entityManager.createQuery("SELECT g FROM Gadget AS g WHERE g.status = :status", Gadget.class)
+					.setParameter("status", Gadget.Status.Retired)
+					.getResultList().size(),
+				1
+			);
+		} finally {
+			entityManager.close();
+		}
+	}
+
+    @BeforeClass
+    public void init()
+    {
+        emf = createEntityManagerFactory("converter");
+    }
+    @AfterClass
+    public void release()
+    {
+        emf.close();
+    }
+}
@@ -0,0 +1,39 @@
+package guru.mikelue.jpa.data;
+
+import java.util.EnumSet;
+
+import guru.mikelue.jpa.model.Gadget;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+/**
+ * This class tests the converter of {@link EnumSet} to joined value
+ */
+public class AbstractEnumSetConverterTest {
+	public AbstractEnumSetConverterTest() {}
+
+    /**
+     * Tests the conversion of {@link EnumSet} and joined value.<p>
+     */
+	@Test
+	public void convert()
+	{
+		Gadget.ColorsConverter testConverter = new Gadget.ColorsConverter();
+
+		Assert.assertEquals(
+			testConverter.convertToDatabaseColumn(EnumSet.of(Gadget.Color.Green, Gadget.Color.Blue)),
+			Integer.valueOf(6)
+		);
+		Assert.assertEquals(testConverter.convertToDatabaseColumn(EnumSet.noneOf(Gadget.Color.class)), Integer.valueOf(0));
+		Assert.assertNull(testConverter.convertToDatabaseColumn(null));
+
+		Assert.assertEquals(testConverter.convertToEntityAttribute(3), EnumSet.of(Gadget.Color.Red, Gadget.Color.Green));
+		Assert.assertEquals(testConverter.convertToEntityAttribute(null), EnumSet.noneOf(Gadget.Color.class));
+	}
+
+	@Test(expectedExceptions=IllegalArgumentException.class)
+	public void unsupportedTypeOfDbValue()
+	{
+		new AbstractEnumSetConverter<FakeStatus, Integer>(FakeStatus.class, (Class)Double.class) {};
+	}
+}
@@ -1,10 +1,15 @@
 package guru.mikelue.jpa.data;
 
+import org.apache.commons.lang3.time.DateUtils;
 import org.testng.Assert;
 import org.testng.annotations.DataProvider;
 import org.testng.annotations.Test;
 
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
 import java.util.Calendar;
+import java.util.TimeZone;
 import java.sql.Date;
 import java.sql.Timestamp;
 
@@ -49,6 +54,61 @@ public class DateTimeUtilTest {
         );
     }
 
+    /**
+     * Tests the arithmetic truncation, which must be same as the one by {@link Calendar}.<p>
+     */
+    @Test(dataProvider="TrimEpochMillisToSQLDate")
+    public void trimEpochMillisToSQLDate(
+        String testZoneId, int year, int month, int date, int hourOfDay
+    ) {
+        Calendar testCalendar = Calendar.getInstance(TimeZone.getTimeZone(testZoneId));
+        testCalendar.clear();
+        testCalendar.set(year, month, date, hourOfDay, 17, 33);
+        testCalendar.set(Calendar.MILLISECOND, 401);
+
+        Assert.assertEquals(
+            DateTimeUtil.trimToSQLDate(testCalendar.getTimeInMillis(), ZoneId.of(testZoneId).getRules()),
+            DateUtils.truncate(testCalendar, Calendar.DATE).getTimeInMillis()
+        );
+    }
+    @Test
+    public void trimEpochMillisToSQLTimestamp()
+    {
+        Assert.assertEquals(DateTimeUtil.trimToSQLTimestamp(2001L), 2000L);
+        Assert.assertEquals(DateTimeUtil.trimToSQLTimestamp(-1500L), -2000L);
+    }
+
+    /**
+     * Tests the conversion of {@link Instant} and {@link LocalDate}.<p>
+     */
+    @Test
+    public void convertJavaTime()
+    {
+        Calendar testCalendar = buildDateTime(2000, 1, 1, 2, 25, 10, 77);
+        Instant testInstant = Instant.ofEpochMilli(testCalendar.getTimeInMillis());
+
+        Assert.assertEquals(DateTimeUtil.convertToDate(testInstant), DateTimeUtil.convertToDate(testCalendar));
+        Assert.assertEquals(DateTimeUtil.convertToTimestamp(testInstant), DateTimeUtil.convertToTimestamp(testCalendar));
+        Assert.assertEquals(
+            DateTimeUtil.convertToDate(LocalDate.of(2000, 2, 1)),
+            DateTimeUtil.convertToDate(testCalendar)
+        );
+    }
+
+    @DataProvider(name="TrimEpochMillisToSQLDate")
+    private Object[][] getTrimEpochMillisToSQLDate()
+    {
+        return new Object[][] {
+            { "UTC", 2000, 0, 1, 0 },
+            { "UTC", 1960, 5, 30, 23 },
+            { "Asia/Taipei", 2000, 0, 1, 3 },
+            { "Asia/Taipei", 1960, 5, 30, 23 },
+            { "America/New_York", 2015, 2, 8, 10 }, // Start of daylight saving
+            { "America/New_York", 2015, 10, 1, 10 }, // End of daylight saving
+            { "America/Sao_Paulo", 2015, 9, 18, 10 }, // Midnight is in gap of transition
+        };
+    }
+
     @DataProvider(name="TrimToSQLDate")
     private Object[][] getTrimToSQLDate()
     {
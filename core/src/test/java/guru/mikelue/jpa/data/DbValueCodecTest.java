@@ -0,0 +1,110 @@
+package guru.mikelue.jpa.data;
+
+import java.util.EnumSet;
+
+import org.testng.Assert;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+/**
+ * This class tests the lookup of {@link DbValueCodec}
+ */
+public class DbValueCodecTest {
+	public DbValueCodecTest() {}
+
+    /**
+     * Tests the cached codec per enum type.<p>
+     */
+	@Test
+	public void of()
+	{
+		Assert.assertSame(DbValueCodec.of(FakeStatus.class), DbValueCodec.of(FakeStatus.class));
+		Assert.assertSame(
+			DbValueUtil.convertToIntMap(FakeStatus.class), DbValueUtil.convertToIntMap(FakeStatus.class)
+		);
+	}
+
+    /**
+     * Tests the dense lookup.<p>
+     */
+	@Test(dataProvider="DenseValues")
+	public void fromDbValueByDenseTable(long dbValue, FakeStatus expectedStatus)
+	{
+		Assert.assertEquals(DbValueCodec.of(FakeStatus.class).fromDbValue(dbValue), expectedStatus);
+	}
+    @DataProvider(name="DenseValues")
+    private Object[][] getDenseValues()
+    {
+        return new Object[][] {
+            { 1L, FakeStatus.Wait },
+            { 2L, FakeStatus.Working },
+            { 4L, FakeStatus.Stop },
+            { 3L, null },
+            { 0L, null },
+            { -1L, null },
+            { 1000L, null },
+        };
+    }
+
+    /**
+     * Tests the open-addressing lookup.<p>
+     */
+	@Test(dataProvider="SparseValues")
+	public void fromDbValueBySparseTable(long dbValue, SparseStatus expectedStatus)
+	{
+		Assert.assertEquals(DbValueCodec.of(SparseStatus.class).fromDbValue(dbValue), expectedStatus);
+	}
+    @DataProvider(name="SparseValues")
+    private Object[][] getSparseValues()
+    {
+        return new Object[][] {
+            { -7L, SparseStatus.Negative },
+            { 0L, SparseStatus.Zero },
+            { 1024L, SparseStatus.Large },
+            { 1L << 40, SparseStatus.Huge },
+            { 1L, null },
+            { 2048L, null },
+        };
+    }
+
+    /**
+     * Tests the encoding/decoding of joined value.<p>
+     */
+	@Test
+	public void joinedValue()
+	{
+		DbValueCodec<FakeStatus> codec = DbValueCodec.of(FakeStatus.class);
+
+		Assert.assertEquals(codec.fromJoinedValue(5), EnumSet.of(FakeStatus.Wait, FakeStatus.Stop));
+		Assert.assertEquals(codec.toJoinedValue(EnumSet.of(FakeStatus.Wait, FakeStatus.Stop)), 5L);
+		Assert.assertEquals(codec.toJoinedValue(null), 0L);
+		Assert.assertEquals(
+			DbValueUtil.enumSetToJoinedValue(Long.class, EnumSet.of(SparseStatus.Large, SparseStatus.Huge)),
+			Long.valueOf(1024L | (1L << 40))
+		);
+	}
+
+	@Test(expectedExceptions=IllegalArgumentException.class)
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	public void ofNonEnumType()
+	{
+		DbValueCodec.of((Class)DbValueGetter.class);
+	}
+}
+
+enum SparseStatus implements DbValueGetter<Long> {
+	Negative(-7), Zero(0), Large(1024), Huge(1L << 40);
+
+	private long dbValue;
+
+	SparseStatus(long newDbValue)
+	{
+		dbValue = newDbValue;
+	}
+
+	@Override
+	public Long getDbValue()
+	{
+		return dbValue;
+	}
+}
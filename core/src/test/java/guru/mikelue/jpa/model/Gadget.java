@@ -0,0 +1,81 @@
+package guru.mikelue.jpa.model;
+
+import java.util.EnumSet;
+
+import javax.persistence.*;
+
+import guru.mikelue.jpa.data.AbstractDbValueEnumConverter;
+import guru.mikelue.jpa.data.AbstractEnumSetConverter;
+import guru.mikelue.jpa.data.DbValueGetter;
+
+/**
+ * This entity is for testing of converters
+ */
+@Entity
+@Table(name="tt_gadget")
+public class Gadget {
+    public Gadget() {}
+
+    @Id
+    @Column(name="gd_id")
+    private Integer id;
+    @Convert(converter=StatusConverter.class)
+    @Column(name="gd_status", nullable=false)
+    private Status status;
+    @Convert(converter=ColorsConverter.class)
+    @Column(name="gd_colors")
+    private EnumSet<Color> colors;
+
+    public Integer getId() { return this.id; }
+    public void setId(Integer newId) { this.id = newId; }
+
+    public Status getStatus() { return this.status; }
+    public void setStatus(Status newStatus) { this.status = newStatus; }
+
+    public EnumSet<Color> getColors() { return this.colors; }
+    public void setColors(EnumSet<Color> newColors) { this.colors = newColors; }
+
+    public enum Status implements DbValueGetter<Integer> {
+        Draft(1), Published(2), Retired(9);
+
+        private int dbValue;
+        Status(int newDbValue)
+        {
+            dbValue = newDbValue;
+        }
+
+        @Override
+        public Integer getDbValue()
+        {
+            return dbValue;
+        }
+    }
+    public enum Color implements DbValueGetter<Integer> {
+        Red(1), Green(2), Blue(4);
+
+        private int dbValue;
+        Color(int newDbValue)
+        {
+            dbValue = newDbValue;
+        }
+
+        @Override
+        public Integer getDbValue()
+        {
+            return dbValue;
+        }
+    }
+
+    @Converter
+    public static class StatusConverter extends AbstractDbValueEnumConverter<Status, Integer>
+        implements AttributeConverter<Status, Integer>
+    {
+        public StatusConverter() { super(Status.class); }
+    }
+    @Converter
+    public static class ColorsConverter extends AbstractEnumSetConverter<Color, Integer>
+        implements AttributeConverter<EnumSet<Color>, Integer>
+    {
+        public ColorsConverter() { super(Color.class, Integer.class); }
+    }
+}
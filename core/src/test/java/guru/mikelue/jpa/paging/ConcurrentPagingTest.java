@@ -0,0 +1,140 @@
+package guru.mikelue.jpa.paging;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+
+import guru.mikelue.jpa.model.Person;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+import org.testng.Assert;
+
+import static javax.persistence.Persistence.createEntityManagerFactory;
+
+/**
+ * 測試大量並行的分頁查詢(每個工作使用各自的 EntityManager)
+ */
+public class ConcurrentPagingTest {
+	private Logger logger = LoggerFactory.getLogger(ConcurrentPagingTest.class);
+
+	private final static int NUMBER_OF_PEOPLE = 95;
+	private final static int NUMBER_OF_PAGINGS = 10000;
+
+	private EntityManagerFactory emf;
+
+	public ConcurrentPagingTest() {}
+
+	/**
+	 * 以 {@link TwoPhasePagingRunner#runTwoPhasePagingFilterAsync} 執行 10k 個並行的分頁查詢
+	 */
+	@Test
+	public void runTwoPhasePagingFilterAsync()
+	{
+		ExecutorService executor = Executors.newFixedThreadPool(64);
+
+		try {
+			long startTime = System.nanoTime();
+
+			List<CompletableFuture<Integer>> futures = new ArrayList<CompletableFuture<Integer>>(NUMBER_OF_PAGINGS);
+			for (int i = 0; i < NUMBER_OF_PAGINGS; i++) {
+				final int targetPage = i % 12 + 1;
+
+				/**
+				 * 每個工作使用各自的 EntityManager，在分頁完成後關閉
+				 */
+				final EntityManager em = emf.createEntityManager();
+				final PagingResultBean resultBean = new PagingResultBean(new PagingRequestBean(targetPage, 10, 1));
+
+				futures.add(
+					TwoPhasePagingRunner.runTwoPhasePagingFilterAsync(
+						new TypedQueryPagingFilter<Person>(
+							em.createQuery("SELECT p FROM Person AS p ORDER BY p.id", Person.class)
+						),
+						resultBean, FetchPhase.LastFetch, executor
+					)
+						.whenComplete((people, exception) -> em.close())
+						.thenApply(people -> people.isEmpty() ? -1 : resultBean.getResultPageNumberOfTarget())
+				);
+				// :~)
+			}
+
+			for (int i = 0; i < NUMBER_OF_PAGINGS; i++) {
+				Assert.assertEquals(
+					futures.get(i).join().intValue(), Math.min(i % 12 + 1, 10)
+				);
+			}
+
+			logger.info(
+				"[{}] concurrent pagings in {} ms",
+				NUMBER_OF_PAGINGS, (System.nanoTime() - startTime) / 1000000
+			);
+		} finally {
+			executor.shutdown();
+		}
+	}
+
+	/**
+	 * 測試以 {@link java.util.concurrent.Executor} 執行分頁
+	 */
+	@Test
+	public void runTwoPhasePagingFilterAsyncWithListData()
+	{
+		ExecutorService executor = Executors.newSingleThreadExecutor();
+		List<Integer> testData = new ArrayList<Integer>(NUMBER_OF_PEOPLE);
+		for (int i = 1; i <= NUMBER_OF_PEOPLE; i++) {
+			testData.add(i);
+		}
+
+		try {
+			PagingResultBean resultBean = new PagingResultBean(new PagingRequestBean(11, 10, 0));
+
+			Assert.assertEquals(
+				TwoPhasePagingRunner.runTwoPhasePagingFilterAsync(
+					new ListPagingFilter<Integer>(testData), resultBean, FetchPhase.LastFetch, executor
+				).join().get(0).intValue(),
+				91
+			);
+			Assert.assertEquals(resultBean.getResultPageNumberOfTarget(), 10);
+		} finally {
+			executor.shutdown();
+		}
+	}
+
+	@BeforeClass
+	public void init()
+	{
+		emf = createEntityManagerFactory(
+			"scrolling", Collections.singletonMap("javax.persistence.jdbc.url", "jdbc:hsqldb:mem:concurrent-paging")
+		);
+
+		/**
+		 * Build test data
+		 */
+		EntityManager em = emf.createEntityManager();
+		em.getTransaction().begin();
+		for (int i = 1; i <= NUMBER_OF_PEOPLE; i++) {
+			Person person = new Person();
+			person.setId(i);
+			person.setName("person-" + i);
+			person.setAddress("address: person-" + i);
+			em.persist(person);
+		}
+		em.getTransaction().commit();
+		em.close();
+		// :~)
+	}
+	@AfterClass
+	public void release()
+	{
+		emf.close();
+	}
+}
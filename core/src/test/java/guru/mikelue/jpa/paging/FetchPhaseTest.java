@@ -3,6 +3,7 @@ package guru.mikelue.jpa.paging;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.RandomAccess;
 
 import org.apache.commons.lang3.ArrayUtils;
 import org.testng.Assert;
@@ -44,6 +45,27 @@ public class FetchPhaseTest {
 		);
 	}
 
+	@Test(dataProvider="variousPageSize")
+	public void viewOfPage(int testPageSize)
+	{
+		List<Integer> firstPage = FetchPhase.FirstFetch.viewOfPage(testData, testPageSize);
+		List<Integer> lastPage = FetchPhase.LastFetch.viewOfPage(testData, testPageSize);
+
+		Assert.assertEquals(
+			firstPage, FetchPhase.FirstFetch.filterToPage(testData, testPageSize)
+		);
+		Assert.assertEquals(
+			lastPage, FetchPhase.LastFetch.filterToPage(testData, testPageSize)
+		);
+		Assert.assertTrue(firstPage instanceof RandomAccess);
+		Assert.assertTrue(lastPage instanceof RandomAccess);
+	}
+	@Test(expectedExceptions=UnsupportedOperationException.class)
+	public void viewOfPageIsReadOnly()
+	{
+		FetchPhase.FirstFetch.viewOfPage(testData, dataSize).set(0, -1);
+	}
+
 	@DataProvider(name="variousPageSize", parallel=true)
 	private Object[][] variousPageSize()
 	{
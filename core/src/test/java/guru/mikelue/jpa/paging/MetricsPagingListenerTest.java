@@ -0,0 +1,157 @@
+package guru.mikelue.jpa.paging;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.codahale.metrics.MetricRegistry;
+
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+/**
+ * 測試分頁監聽器與 Metrics 的發佈
+ */
+public class MetricsPagingListenerTest {
+	public MetricsPagingListenerTest() {}
+
+	private static final List<Integer> testData;
+	static {
+		testData = new ArrayList<Integer>(25);
+		for (int i = 1; i <= 25; i++) {
+			testData.add(i);
+		}
+	}
+
+	private MetricRegistry metricRegistry;
+
+	@BeforeMethod
+	public void setupListener()
+	{
+		metricRegistry = new MetricRegistry();
+		TwoPhasePagingRunner.setPagingListener(
+			new MetricsPagingListener(metricRegistry, "paging")
+		);
+	}
+	@AfterMethod
+	public void removeListener()
+	{
+		TwoPhasePagingRunner.setPagingListener(null);
+	}
+
+	/**
+	 * 測試第一階段沒有資料，執行第二次查詢的統計資料
+	 */
+	@Test
+	public void secondQuery()
+	{
+		List<Integer> result = TwoPhasePagingRunner.runTwoPhasePagingFilter(
+			new NonCountingListFilter(), new PagingResultBean(new PagingRequestBean(5, 10, 0)),
+			FetchPhase.LastFetch
+		);
+		Assert.assertEquals(result.size(), 10);
+
+		Assert.assertEquals(metricRegistry.counter("paging.calls").getCount(), 1);
+		Assert.assertEquals(metricRegistry.counter("paging.second-query").getCount(), 1);
+		Assert.assertEquals(metricRegistry.counter("paging.last-page").getCount(), 1);
+		Assert.assertEquals(metricRegistry.timer("paging.first-phase.latency").getCount(), 1);
+		Assert.assertEquals(metricRegistry.timer("paging.last-phase.latency").getCount(), 1);
+		Assert.assertEquals(metricRegistry.timer("paging.count.latency").getCount(), 0);
+
+		Assert.assertEquals(metricRegistry.histogram("paging.rows.fetched").getSnapshot().getMax(), 25);
+		Assert.assertEquals(metricRegistry.histogram("paging.rows.returned").getSnapshot().getMax(), 10);
+		Assert.assertEquals(metricRegistry.histogram("paging.rows.discarded").getSnapshot().getMax(), 15);
+	}
+
+	/**
+	 * 測試第一階段即取得資料的統計資料
+	 */
+	@Test
+	public void firstPhaseOnly()
+	{
+		final List<PagingEvent> events = new ArrayList<PagingEvent>();
+		TwoPhasePagingRunner.setPagingListener(new PagingListener() {
+			@Override
+			public void pagingCompleted(PagingEvent event)
+			{
+				events.add(event);
+			}
+		});
+
+		TwoPhasePagingRunner.runTwoPhasePagingFilter(
+			new NonCountingListFilter(), new PagingResultBean(new PagingRequestBean(1, 10, 1)),
+			FetchPhase.LastFetch
+		);
+
+		Assert.assertEquals(events.size(), 1);
+
+		PagingEvent event = events.get(0);
+		Assert.assertTrue(event.isFirstPhaseExecuted());
+		Assert.assertFalse(event.isLastPhaseExecuted());
+		Assert.assertFalse(event.isSecondQueryExecuted());
+		Assert.assertFalse(event.isLastPagePathTaken());
+		Assert.assertEquals(event.getFetchedRows(), 21);
+		Assert.assertEquals(event.getReturnedRows(), 10);
+		Assert.assertEquals(event.getResultStatus(), ResultStatus.HasMorePage);
+	}
+
+	/**
+	 * 測試以總筆數取得最後一頁的統計資料
+	 */
+	@Test
+	public void lastPageWithCount()
+	{
+		PagingResultBean resultBean = new PagingResultBean(new PagingRequestBean(PagingRequestBean.LAST_PAGE, 10, 0));
+		TwoPhasePagingRunner.runTwoPhasePagingFilter(
+			new ListPagingFilter<Integer>(testData), resultBean
+		);
+
+		Assert.assertEquals(metricRegistry.counter("paging.last-page").getCount(), 1);
+		Assert.assertEquals(metricRegistry.counter("paging.second-query").getCount(), 0);
+		Assert.assertEquals(metricRegistry.timer("paging.count.latency").getCount(), 1);
+		Assert.assertEquals(metricRegistry.histogram("paging.rows.returned").getSnapshot().getMax(), 5);
+	}
+
+	/**
+	 * 測試監聽器丟出例外，不影響分頁的結果
+	 */
+	@Test
+	public void listenerWithException()
+	{
+		TwoPhasePagingRunner.setPagingListener(new PagingListener() {
+			@Override
+			public void pagingCompleted(PagingEvent event)
+			{
+				throw new IllegalStateException("Failed listener");
+			}
+		});
+
+		Assert.assertEquals(
+			TwoPhasePagingRunner.runTwoPhasePagingFilter(
+				new NonCountingListFilter(), new PagingResultBean(new PagingRequestBean(2, 10, 0))
+			).size(),
+			10
+		);
+	}
+
+	private static class NonCountingListFilter implements TwoPhasePagingFilter<Integer> {
+		@Override
+		public List<Integer> firstPhasePaging(PagingResultBean resultBean)
+		{
+			int firstRecordNumber = resultBean.getFirstRecordNumber();
+			if (firstRecordNumber >= testData.size()) {
+				return new ArrayList<Integer>(0);
+			}
+
+			return new ArrayList<Integer>(testData.subList(
+				firstRecordNumber, Math.min(testData.size(), firstRecordNumber + resultBean.getLastRecordNumber())
+			));
+		}
+		@Override
+		public List<Integer> lastPhasePaging(PagingResultBean resultBean)
+		{
+			return new ArrayList<Integer>(testData);
+		}
+	}
+}
@@ -0,0 +1,163 @@
+package guru.mikelue.jpa.paging;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+
+import guru.mikelue.jpa.model.Person;
+
+import mockit.Invocation;
+import mockit.Mock;
+import mockit.MockUp;
+
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+import org.testng.Assert;
+
+import static javax.persistence.Persistence.createEntityManagerFactory;
+
+/**
+ * 測試分頁查詢結果的快取
+ */
+public class PageResultCacheTest {
+	private final static int NUMBER_OF_PEOPLE = 25;
+	private final static String QL_PEOPLE =
+		" SELECT p" +
+		" FROM Person AS p" +
+		" WHERE p.address LIKE :address" +
+		" ORDER BY p.id DESC";
+
+	private EntityManagerFactory emf;
+	private EntityManager em;
+
+	public PageResultCacheTest() {}
+
+	/**
+	 * 測試快取命中時，資料與分頁結果與查詢時相同
+	 */
+	@Test
+	public void queryAndFilterDataToPage()
+	{
+		PageResultCache testCache = new PageResultCache(8, 1, TimeUnit.MINUTES);
+
+		PagingResultBean queriedResultBean = new PagingResultBean(new PagingRequestBean(2, 10, 3));
+		List<Person> queriedPeople = queryPeople(testCache, queriedResultBean);
+
+		em.clear();
+
+		PagingResultBean cachedResultBean = new PagingResultBean(new PagingRequestBean(2, 10, 3));
+		List<Person> cachedPeople = queryPeople(testCache, cachedResultBean);
+
+		Assert.assertEquals(testCache.getMissCount(), 1);
+		Assert.assertEquals(testCache.getHitCount(), 1);
+
+		Assert.assertEquals(cachedPeople, queriedPeople);
+		Assert.assertEquals(cachedPeople.get(0).getId(), Integer.valueOf(15));
+		Assert.assertEquals(cachedResultBean.getResultStatus(), queriedResultBean.getResultStatus());
+		Assert.assertEquals(cachedResultBean.getResultPageNumberOfTarget(), 2);
+		Assert.assertEquals(cachedResultBean.getResultTotalPageNumber(), queriedResultBean.getResultTotalPageNumber());
+
+		/**
+		 * 不同的參數，不會命中快取
+		 */
+		queryPeople(testCache, new PagingResultBean(new PagingRequestBean(3, 10, 3)));
+		Assert.assertEquals(testCache.getMissCount(), 2);
+		// :~)
+	}
+
+	/**
+	 * 測試快取的失效(清除、過期與容量)
+	 */
+	@Test
+	public void invalidate()
+	{
+		PageResultCache testCache = new PageResultCache(8, 1, TimeUnit.MINUTES);
+
+		queryPeople(testCache, new PagingResultBean(new PagingRequestBean(1, 10, 0)));
+		testCache.invalidate(Person.class);
+		queryPeople(testCache, new PagingResultBean(new PagingRequestBean(1, 10, 0)));
+		Assert.assertEquals(testCache.getMissCount(), 2);
+
+		PageResultCache expiredCache = new PageResultCache(8, 1, TimeUnit.NANOSECONDS);
+		queryPeople(expiredCache, new PagingResultBean(new PagingRequestBean(1, 10, 0)));
+		queryPeople(expiredCache, new PagingResultBean(new PagingRequestBean(1, 10, 0)));
+		Assert.assertEquals(expiredCache.getHitCount(), 0);
+
+		PageResultCache smallCache = new PageResultCache(1, 1, TimeUnit.MINUTES);
+		queryPeople(smallCache, new PagingResultBean(new PagingRequestBean(1, 10, 0)));
+		queryPeople(smallCache, new PagingResultBean(new PagingRequestBean(2, 10, 0)));
+		Assert.assertEquals(smallCache.size(), 1);
+	}
+
+	/**
+	 * 測試查詢期間快取被清除時，不儲存查詢的結果
+	 */
+	@Test
+	public void invalidateWhileQuerying()
+	{
+		final PageResultCache testCache = new PageResultCache(8, 1, TimeUnit.MINUTES);
+
+		/**
+		 * 在查詢之後、儲存快取之前，清除快取
+		 */
+		MockUp<PagingResultBean> invalidatingMockUp = new MockUp<PagingResultBean>() {
+			@Mock
+			void setResultSize(Invocation invocation, int size, FetchPhase fetchPhase)
+			{
+				invocation.proceed(size, fetchPhase);
+				testCache.invalidate(Person.class);
+			}
+		};
+		queryPeople(testCache, new PagingResultBean(new PagingRequestBean(1, 10, 0)));
+		invalidatingMockUp.tearDown();
+		// :~)
+
+		Assert.assertEquals(testCache.size(), 0);
+
+		queryPeople(testCache, new PagingResultBean(new PagingRequestBean(1, 10, 0)));
+		queryPeople(testCache, new PagingResultBean(new PagingRequestBean(1, 10, 0)));
+		Assert.assertEquals(testCache.getMissCount(), 2);
+		Assert.assertEquals(testCache.getHitCount(), 1);
+	}
+
+	private List<Person> queryPeople(PageResultCache testCache, PagingResultBean resultBean)
+	{
+		return testCache.queryAndFilterDataToPage(
+			em, Person.class, QL_PEOPLE, Collections.singletonMap("address", "address:%"),
+			resultBean, FetchPhase.LastFetch
+		);
+	}
+
+	@BeforeClass
+	public void init()
+	{
+		emf = createEntityManagerFactory(
+			"scrolling", Collections.singletonMap("javax.persistence.jdbc.url", "jdbc:hsqldb:mem:page-result-cache")
+		);
+		em = emf.createEntityManager();
+
+		/**
+		 * Build test data
+		 */
+		em.getTransaction().begin();
+		for (int i = 1; i <= NUMBER_OF_PEOPLE; i++) {
+			Person person = new Person();
+			person.setId(i);
+			person.setName("person-" + i);
+			person.setAddress("address: person-" + i);
+			em.persist(person);
+		}
+		em.getTransaction().commit();
+		em.clear();
+		// :~)
+	}
+	@AfterClass
+	public void release()
+	{
+		em.close();
+		emf.close();
+	}
+}
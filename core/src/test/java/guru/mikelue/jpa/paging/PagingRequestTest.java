@@ -0,0 +1,76 @@
+package guru.mikelue.jpa.paging;
+
+import org.testng.Assert;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+/**
+ * 不可變更的分頁請求測試
+ */
+public class PagingRequestTest {
+	public PagingRequestTest() {}
+
+	/**
+	 * 測試預先計算的開始與最後筆數
+	 */
+	@Test(dataProvider="RecordNumbers")
+	public void recordNumbers(
+		int pageNumberOfTarget, int pageSize, int pageNumberAfterTarget,
+		int expectedFirstRecordNumber, int expectedLastRecordNumber
+	) {
+		PagingRequest testRequest = new PagingRequest(pageNumberOfTarget, pageSize, pageNumberAfterTarget);
+
+		Assert.assertEquals(testRequest.getFirstRecordNumber(), expectedFirstRecordNumber);
+		Assert.assertEquals(testRequest.getLastRecordNumber(), expectedLastRecordNumber);
+	}
+	@DataProvider(name="RecordNumbers")
+	private Object[][] getRecordNumbers()
+	{
+		return new Object[][] {
+			{ 1, 10, 0, 0, 11 },
+			{ 3, 10, 2, 20, 31 },
+			{ PagingRequestBean.LAST_PAGE, 10, 2, 0, Integer.MAX_VALUE },
+			{ Integer.MAX_VALUE, Integer.MAX_VALUE, Integer.MAX_VALUE, Integer.MAX_VALUE, Integer.MAX_VALUE }, // 溢位
+		};
+	}
+
+	/**
+	 * 測試不合法的資料
+	 */
+	@Test(expectedExceptions=IllegalArgumentException.class)
+	public void invalidPageSize()
+	{
+		PagingRequest.of(new PagingRequestBean());
+	}
+
+	/**
+	 * 測試變更要求頁數與轉換
+	 */
+	@Test
+	public void withPageNumberOfTarget()
+	{
+		PagingRequest testRequest = new PagingRequest(3, 10, 1);
+
+		Assert.assertSame(testRequest.withPageNumberOfTarget(3), testRequest);
+
+		PagingRequest lastPageRequest = testRequest.withPageNumberOfTarget(PagingRequestBean.LAST_PAGE);
+		Assert.assertTrue(lastPageRequest.isLastPage());
+		Assert.assertFalse(lastPageRequest.hasPreviousPage());
+		Assert.assertEquals(testRequest.getPageNumberOfTarget(), 3);
+
+		Assert.assertEquals(PagingRequest.of(testRequest.toPagingRequestBean()), testRequest);
+	}
+
+	/**
+	 * 測試 {@link PagingResultBean} 不複製請求
+	 */
+	@Test
+	public void sharedByPagingResultBean()
+	{
+		PagingResultBean testResultBean = new PagingResultBean(new PagingRequestBean(2, 10, 0));
+
+		Assert.assertSame(testResultBean.getPagingRequest(), testResultBean.getPagingRequest());
+		Assert.assertEquals(testResultBean.getPagingRequest(), new PagingRequest(2, 10, 0));
+		Assert.assertNull(new PagingResultBean().getPagingRequestBean());
+	}
+}
@@ -131,6 +131,111 @@ public class PagingResultBeanTest {
 		);
 	}
 
+	/**
+	 * 測試以總筆數設定查詢結果
+	 *
+	 * @param testRequestBean 要測試的分頁請求設定
+	 * @param testTotalSize 測試的資料總筆數
+	 * @param testFetchPhase 測試的查詢策略
+	 * @param expectedResultStatus 預期的結果狀態
+	 * @param expectedPageNumberOfTarget 預期的所在頁碼
+	 * @param expectedPageNumberAfterTarget 預期本頁後頁碼
+	 * @param expectedPageCount 預期的全部資料頁數
+	 */
+	@Test(dataProvider="variousTotalSize")
+	public void setTotalSize(
+		PagingRequestBean testRequestBean, int testTotalSize, FetchPhase testFetchPhase,
+		ResultStatus expectedResultStatus, int expectedPageNumberOfTarget, int expectedPageNumberAfterTarget,
+		int expectedPageCount
+	) {
+		PagingResultBean resultBean = new PagingResultBean(testRequestBean);
+		resultBean.setTotalSize(testTotalSize, testFetchPhase);
+		assertPagingResult(
+			resultBean,
+			expectedResultStatus, expectedPageNumberOfTarget, expectedPageNumberAfterTarget
+		);
+		Assert.assertEquals(resultBean.getResultTotalSize(), testTotalSize);
+		Assert.assertEquals(resultBean.getResultPageCount(), expectedPageCount);
+	}
+	/**
+	 * 測試以總筆數設定查詢結果後，取得資料的開始與最後筆數(只涵蓋所在頁)
+	 */
+	@Test
+	public void recordNumberAfterSetTotalSize()
+	{
+		PagingResultBean resultBean = new PagingResultBean(
+			new PagingRequestBean(PagingRequestBean.LAST_PAGE, 10, 3)
+		);
+		resultBean.setTotalSize(77, FetchPhase.FirstFetch);
+
+		Assert.assertEquals(resultBean.getFirstRecordNumber(), 70);
+		Assert.assertEquals(resultBean.getLastRecordNumber(), 10);
+
+		/**
+		 * 以結果筆數重新設定後，還原為原本的計算方式
+		 */
+		resultBean.setResultSize(7);
+		Assert.assertEquals(resultBean.getFirstRecordNumber(), 0);
+		Assert.assertEquals(resultBean.getLastRecordNumber(), Integer.MAX_VALUE);
+		Assert.assertEquals(resultBean.getResultTotalSize(), PagingResultBean.UNKNOWN_RESULT);
+		// :~)
+	}
+
+	@DataProvider(name="variousTotalSize")
+	private Object[][] variousTotalSize()
+	{
+		return new Object[][] {
+			/**
+			 * 一般情況測試(還有更多分頁)
+			 */
+			new Object[] {
+				new PagingRequestBean(5, 10, 3), 95, FetchPhase.FirstFetch,
+				ResultStatus.HasMorePage, 5, 3, 10
+			},
+			// :~)
+			/**
+			 * 一般情況測試(本頁後頁數不足)
+			 */
+			new Object[] {
+				new PagingRequestBean(5, 10, 3), 61, FetchPhase.FirstFetch,
+				ResultStatus.ReachLastPage, 5, 2, 7
+			},
+			// :~)
+			/**
+			 * 超出全部資料頁數(第一次查詢)
+			 */
+			new Object[] {
+				new PagingRequestBean(11, 10, 3), 95, FetchPhase.FirstFetch,
+				ResultStatus.EmptyData, 0, 0, 10
+			},
+			// :~)
+			/**
+			 * 超出全部資料頁數(最後一次查詢)
+			 */
+			new Object[] {
+				new PagingRequestBean(11, 10, 3), 95, FetchPhase.LastFetch,
+				ResultStatus.ReachLastPage, 10, 0, 10
+			},
+			// :~)
+			/**
+			 * 最後一頁測試
+			 */
+			new Object[] {
+				new PagingRequestBean(PagingRequestBean.LAST_PAGE, 10, 3), 11, FetchPhase.FirstFetch,
+				ResultStatus.ReachLastPage, 2, 0, 2
+			},
+			// :~)
+			/**
+			 * 沒有任何資料
+			 */
+			new Object[] {
+				new PagingRequestBean(5, 10, 3), 0, FetchPhase.LastFetch,
+				ResultStatus.EmptyData, 0, 0, 0
+			},
+			// :~)
+		};
+	}
+
 	private static void assertPagingResult(
 		PagingResultBean resultBean, ResultStatus expectedResultStatus,
 		int expectedPageNumberOfTarget, int expectedPageNumberAfterTarget
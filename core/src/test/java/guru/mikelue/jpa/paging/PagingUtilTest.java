@@ -1,10 +1,16 @@
 package guru.mikelue.jpa.paging;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import javax.persistence.Query;
 import javax.persistence.TypedQuery;
 
+import guru.mikelue.jpa.model.Car;
+import guru.mikelue.jpa.query.SortingBean;
+import guru.mikelue.jpa.query.SortingType;
+
 import org.apache.commons.lang3.ArrayUtils;
 import mockit.Mocked;
 import mockit.NonStrictExpectations;
@@ -52,6 +58,28 @@ public class PagingUtilTest {
 		);
 	}
 
+	/**
+	 * 測試 List 資料分頁(唯讀檢視)
+	 */
+	@Test(dataProvider="variousListPagingTestData")
+	public void filterDataToPageView(
+		PagingRequestBean requestBean,
+		List<Integer> resultData, List<Integer> expectedData,
+		int expectedTargetPageNumber, int expectedTotalPageNumber
+	) {
+		PagingResultBean resultBean = new PagingResultBean(requestBean);
+
+		Assert.assertEquals(
+			PagingUtil.filterDataToPageView(resultData, resultBean, FetchPhase.LastFetch), expectedData
+		);
+		Assert.assertEquals(
+			resultBean.getResultPageNumberOfTarget(), expectedTargetPageNumber
+		);
+		Assert.assertEquals(
+			resultBean.getResultTotalPageNumber(), expectedTotalPageNumber
+		);
+	}
+
 	/**
 	 * 測試 Query 資料分頁
 	 */
@@ -81,6 +109,223 @@ public class PagingUtilTest {
 		);
 	}
 
+	/**
+	 * 測試附有計算總筆數查詢的 Query 資料分頁(最後一頁只取出所在頁的資料)
+	 */
+	@Test
+	public void queryAndFilterDataToPageWithCountQuery(
+		@Mocked final Query testCountQuery
+	) {
+		PagingResultBean resultBean = new PagingResultBean(
+			new PagingRequestBean(PagingRequestBean.LAST_PAGE, 20, 3)
+		);
+
+		new NonStrictExpectations()
+		{{
+			testCountQuery.getSingleResult();
+			result = 95L;
+
+			testTypedQuery.setFirstResult(80); times = 1;
+			testTypedQuery.setMaxResults(20); times = 1;
+			testTypedQuery.getResultList();
+			result = testData.subList(80, 95);
+		}};
+
+		Assert.assertEquals(
+			PagingUtil.queryAndFilterDataToPage(testTypedQuery, testCountQuery, resultBean, FetchPhase.LastFetch),
+			testData.subList(80, 95)
+		);
+		Assert.assertEquals(
+			resultBean.getResultPageNumberOfTarget(), 5
+		);
+		Assert.assertEquals(
+			resultBean.getResultTotalPageNumber(), 0
+		);
+	}
+
+	/**
+	 * 測試先計算總筆數的 Query 資料分頁(只取出所在頁的資料)
+	 */
+	@Test
+	public void queryAndCountDataToPage(
+		@Mocked final Query testCountQuery
+	) {
+		PagingResultBean resultBean = new PagingResultBean(
+			new PagingRequestBean(5, 10, 3)
+		);
+
+		new NonStrictExpectations()
+		{{
+			testCountQuery.getSingleResult();
+			result = 95L;
+
+			testTypedQuery.setFirstResult(40); times = 1;
+			testTypedQuery.setMaxResults(10); times = 1;
+			testTypedQuery.getResultList();
+			result = testData.subList(40, 50);
+		}};
+
+		Assert.assertEquals(
+			PagingUtil.queryAndCountDataToPage(testTypedQuery, testCountQuery, resultBean, FetchPhase.LastFetch),
+			testData.subList(40, 50)
+		);
+		Assert.assertEquals(resultBean.getResultStatus(), ResultStatus.HasMorePage);
+		Assert.assertEquals(resultBean.getResultPageNumberOfTarget(), 5);
+		Assert.assertEquals(resultBean.getResultTotalPageNumber(), 3);
+		Assert.assertEquals(resultBean.getResultTotalSize(), 95);
+		Assert.assertEquals(resultBean.getResultPageCount(), 10);
+	}
+
+	/**
+	 * 測試產生以排序鍵值分頁的 JPQL
+	 */
+	@Test(dataProvider="variousSeekQueryString")
+	public void buildSeekQueryString(
+		String testQlString, KeysetPagingRequestBean testRequestBean, String expectedQlString
+	) {
+		Assert.assertEquals(
+			PagingUtil.buildSeekQueryString(testQlString, testRequestBean),
+			expectedQlString
+		);
+	}
+
+	/**
+	 * 測試以排序鍵值分頁的查詢，與下一頁的請求
+	 */
+	@Test
+	public void queryAndSeekToPage(
+		@Mocked final TypedQuery<Car> testCarQuery
+	) {
+		final List<Car> testCars = new ArrayList<Car>();
+		for (int i = 11; i <= 14; i++) {
+			Car car = new Car();
+			car.setId(i);
+			car.setName("car-" + i);
+			testCars.add(car);
+		}
+
+		KeysetPagingResultBean resultBean = new KeysetPagingResultBean(
+			new KeysetPagingRequestBean(
+				3, sortingOfCar, new Object[] { "car-10", 10 }
+			)
+		);
+
+		new NonStrictExpectations()
+		{{
+			testCarQuery.setParameter("seekKey0", "car-10"); times = 1;
+			testCarQuery.setParameter("seekKey1", 10); times = 1;
+			testCarQuery.setMaxResults(4); times = 2;
+			testCarQuery.getResultList();
+			result = testCars;
+		}};
+
+		Assert.assertEquals(
+			PagingUtil.queryAndSeekToPage(testCarQuery, resultBean),
+			testCars.subList(0, 3)
+		);
+		Assert.assertEquals(resultBean.getResultStatus(), ResultStatus.HasMorePage);
+		Assert.assertEquals(
+			resultBean.getNextPagingRequestBean().getLastKeyValues(),
+			new Object[] { "car-13", 13 }
+		);
+
+		/**
+		 * 最後一頁(沒有下一頁的請求)
+		 */
+		resultBean = new KeysetPagingResultBean(resultBean.getNextPagingRequestBean());
+
+		new NonStrictExpectations()
+		{{
+			testCarQuery.getResultList();
+			result = testCars.subList(3, 4);
+		}};
+
+		Assert.assertEquals(
+			PagingUtil.queryAndSeekToPage(testCarQuery, resultBean).size(), 1
+		);
+		Assert.assertEquals(resultBean.getResultStatus(), ResultStatus.ReachLastPage);
+		Assert.assertNull(resultBean.getNextPagingRequestBean());
+		// :~)
+	}
+
+	private static final List<SortingBean> sortingOfCar = Arrays.asList(
+		new SortingBean("c.name", SortingType.DESC),
+		new SortingBean("c.id", SortingType.ASC)
+	);
+
+	@DataProvider(name="variousSeekQueryString")
+	private Object[][] variousSeekQueryString()
+	{
+		return new Object[][] {
+			/**
+			 * 第一頁
+			 */
+			new Object[] {
+				"SELECT c FROM Car AS c",
+				new KeysetPagingRequestBean(10, sortingOfCar),
+				"SELECT c FROM Car AS c ORDER BY c.name DESC, c.id ASC"
+			},
+			// :~)
+			/**
+			 * 沒有 WHERE 條件
+			 */
+			new Object[] {
+				"SELECT c FROM Car AS c",
+				new KeysetPagingRequestBean(10, sortingOfCar, new Object[] { "car", 1 }),
+				"SELECT c FROM Car AS c" +
+				" WHERE (c.name < :seekKey0) OR (c.name = :seekKey0 AND c.id > :seekKey1)" +
+				" ORDER BY c.name DESC, c.id ASC"
+			},
+			// :~)
+			/**
+			 * 已有 WHERE 條件
+			 */
+			new Object[] {
+				"SELECT c FROM Car AS c WHERE c.address = :a OR c.address = :b",
+				new KeysetPagingRequestBean(10, sortingOfCar, new Object[] { "car", 1 }),
+				"SELECT c FROM Car AS c WHERE (c.address = :a OR c.address = :b)" +
+				" AND ((c.name < :seekKey0) OR (c.name = :seekKey0 AND c.id > :seekKey1))" +
+				" ORDER BY c.name DESC, c.id ASC"
+			},
+			// :~)
+			/**
+			 * 子查詢中的 WHERE 條件
+			 */
+			new Object[] {
+				"SELECT c FROM Car AS c WHERE c.id IN (SELECT c2.id FROM Car c2 WHERE c2.address = :a)",
+				new KeysetPagingRequestBean(10, sortingOfCar, new Object[] { "car", 1 }),
+				"SELECT c FROM Car AS c WHERE (c.id IN (SELECT c2.id FROM Car c2 WHERE c2.address = :a))" +
+				" AND ((c.name < :seekKey0) OR (c.name = :seekKey0 AND c.id > :seekKey1))" +
+				" ORDER BY c.name DESC, c.id ASC"
+			},
+			new Object[] {
+				"SELECT c FROM Car AS c JOIN c.owner o ON o.id IN (SELECT p.id FROM Person p WHERE p.id > 0)",
+				new KeysetPagingRequestBean(10, sortingOfCar, new Object[] { "car", 1 }),
+				"SELECT c FROM Car AS c JOIN c.owner o ON o.id IN (SELECT p.id FROM Person p WHERE p.id > 0)" +
+				" WHERE (c.name < :seekKey0) OR (c.name = :seekKey0 AND c.id > :seekKey1)" +
+				" ORDER BY c.name DESC, c.id ASC"
+			},
+			// :~)
+		};
+	}
+
+	/**
+	 * 測試以排序鍵值分頁時，不支援的 JPQL
+	 */
+	@Test(dataProvider="unsupportedSeekQueryString", expectedExceptions=IllegalArgumentException.class)
+	public void buildSeekQueryStringWithUnsupportedQuery(String testQlString)
+	{
+		PagingUtil.buildSeekQueryString(testQlString, new KeysetPagingRequestBean(10, sortingOfCar));
+	}
+	@DataProvider(name="unsupportedSeekQueryString")
+	private Object[][] unsupportedSeekQueryString()
+	{
+		return new Object[][] {
+			{ "SELECT c FROM Car AS c ORDER BY c.id" },
+			{ "SELECT c.name FROM Car AS c GROUP BY c.name" },
+		};
+	}
+
 	@DataProvider(name="variousQueryPagingTestData")
 	private Object[][] variousQueryPagingTestData()
 	{
@@ -0,0 +1,125 @@
+package guru.mikelue.jpa.paging;
+
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.TypedQuery;
+
+import guru.mikelue.jpa.model.Person;
+
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+import org.testng.Assert;
+
+import static javax.persistence.Persistence.createEntityManagerFactory;
+
+/**
+ * 測試以 Hibernate ScrollableResults 串流讀取資料的功能
+ */
+public class ScrollableResultsIteratorTest {
+	private final static int NUMBER_OF_PEOPLE = 25;
+
+	private EntityManagerFactory emf;
+	private EntityManager em;
+
+	public ScrollableResultsIteratorTest() {}
+
+	/**
+	 * 測試串流讀取資料的範圍
+	 */
+	@Test(dataProvider="variousStreamingRange")
+	public void queryAndStreamData(
+		PagingRequestBean requestBean, int expectedFirstId, int expectedSize
+	) {
+		List<Integer> resultIds;
+		try (Stream<Person> people = PagingUtil.queryAndStreamData(
+			createQuery(), em, requestBean, 4
+		)) {
+			resultIds = people.map(Person::getId).collect(Collectors.toList());
+		}
+
+		Assert.assertEquals(resultIds.size(), expectedSize);
+		if (expectedSize > 0) {
+			Assert.assertEquals(resultIds.get(0).intValue(), expectedFirstId);
+		}
+	}
+	@DataProvider(name="variousStreamingRange")
+	private Object[][] getVariousStreamingRange()
+	{
+		return new Object[][] {
+			{ new PagingRequestBean(1, 10, 0), 1, 10 }, // 第一頁
+			{ new PagingRequestBean(2, 10, 5), 11, 15 }, // 範圍超出資料
+			{ new PagingRequestBean(1, Integer.MAX_VALUE, 0), 1, NUMBER_OF_PEOPLE }, // 全部的資料
+			{ new PagingRequestBean(4, 10, 0), 0, 0 }, // 沒有資料
+		};
+	}
+
+	/**
+	 * 測試每讀取 fetchSize 筆資料，會清除 persistence context
+	 */
+	@Test
+	public void clearPersistenceContext()
+	{
+		try (Stream<Person> people = PagingUtil.queryAndStreamData(
+			createQuery(), em, new PagingRequestBean(1, 10, 0), 3
+		)) {
+			List<Person> loadedPeople = people.limit(4).collect(Collectors.toList());
+
+			Assert.assertFalse(em.contains(loadedPeople.get(0)));
+			Assert.assertTrue(em.contains(loadedPeople.get(3)));
+		}
+	}
+
+	/**
+	 * 測試不支援最後一頁
+	 */
+	@Test(expectedExceptions=IllegalArgumentException.class)
+	public void lastPageIsNotSupported()
+	{
+		PagingUtil.queryAndStreamData(
+			createQuery(), em, new PagingRequestBean(PagingRequestBean.LAST_PAGE, 10, 0), 3
+		);
+	}
+
+	private TypedQuery<Person> createQuery()
+	{
+		return em.createQuery(
+			" SELECT p" +
+			" FROM Person AS p" +
+			" ORDER BY p.id ASC",
+			Person.class
+		);
+	}
+
+	@BeforeClass
+	public void init()
+	{
+		emf = createEntityManagerFactory("scrolling");
+		em = emf.createEntityManager();
+
+		/**
+		 * Build test data
+		 */
+		em.getTransaction().begin();
+		for (int i = 1; i <= NUMBER_OF_PEOPLE; i++) {
+			Person person = new Person();
+			person.setId(i);
+			person.setName("person-" + i);
+			person.setAddress("address: person-" + i);
+			em.persist(person);
+		}
+		em.getTransaction().commit();
+		em.clear();
+		// :~)
+	}
+	@AfterClass
+	public void release()
+	{
+		em.close();
+		emf.close();
+	}
+}
@@ -1,6 +1,8 @@
 package guru.mikelue.jpa.paging;
 
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.List;
 import static java.util.Arrays.asList;
 
 import mockit.Expectations;
@@ -212,4 +214,153 @@ public class TwoPhasePagingRunnerTest {
 			filter, resultBean, FetchPhase.FirstFetch
 		);
 	}
+
+	/**
+	 * 測試可計算總筆數時，取得最後一頁資料的情況(只取出最後一頁的資料)
+	 */
+	@Test
+	public void lastPageWithCount()
+	{
+		FakeCountingPagingFilter countingFilter = new FakeCountingPagingFilter(95);
+
+		PagingResultBean resultBean = new PagingResultBean(
+			new PagingRequestBean(PagingRequestBean.LAST_PAGE, 10, 3)
+		);
+		List<Integer> resultData = TwoPhasePagingRunner.runTwoPhasePagingFilter(
+			countingFilter, resultBean, FetchPhase.FirstFetch
+		);
+
+		Assert.assertEquals(resultData.size(), 5);
+		Assert.assertEquals(resultData.get(0), Integer.valueOf(91));
+		Assert.assertEquals(countingFilter.firstRecordNumber, 90);
+		Assert.assertFalse(countingFilter.lastPhaseCalled);
+
+		Assert.assertEquals(resultBean.getResultStatus(), ResultStatus.ReachLastPage);
+		Assert.assertEquals(resultBean.getResultPageNumberOfTarget(), 10);
+		Assert.assertEquals(resultBean.getResultTotalPageNumber(), 0);
+	}
+	/**
+	 * 測試計算總筆數後，資料被刪除(總筆數與資料不符)的情況，會以第二種策略取得最後一頁
+	 */
+	@Test
+	public void lastPageWithStaleCount()
+	{
+		FakeCountingPagingFilter countingFilter = new FakeCountingPagingFilter(80, 95);
+
+		PagingResultBean resultBean = new PagingResultBean(
+			new PagingRequestBean(PagingRequestBean.LAST_PAGE, 10, 3)
+		);
+		List<Integer> resultData = TwoPhasePagingRunner.runTwoPhasePagingFilter(
+			countingFilter, resultBean, FetchPhase.FirstFetch
+		);
+
+		Assert.assertEquals(countingFilter.firstRecordNumber, 90);
+		Assert.assertTrue(countingFilter.lastPhaseCalled);
+
+		Assert.assertEquals(resultData.size(), 10);
+		Assert.assertEquals(resultData.get(0), Integer.valueOf(71));
+		Assert.assertEquals(resultBean.getResultStatus(), ResultStatus.ReachLastPage);
+		Assert.assertEquals(resultBean.getResultPageNumberOfTarget(), 8);
+		Assert.assertEquals(resultBean.getResultTotalSize(), PagingResultBean.UNKNOWN_RESULT);
+	}
+	/**
+	 * 測試計算總筆數後，資料被刪除，策略為 FirstFetch 時，結果為沒有資料
+	 */
+	@Test
+	public void firstFetchWithStaleCount()
+	{
+		FakeCountingPagingFilter countingFilter = new FakeCountingPagingFilter(80, 95);
+
+		PagingResultBean resultBean = new PagingResultBean(
+			new PagingRequestBean(9, 10, 3)
+		);
+		List<Integer> resultData = TwoPhasePagingRunner.runCountedPagingFilter(
+			countingFilter, resultBean, FetchPhase.FirstFetch
+		);
+
+		Assert.assertEquals(resultData.size(), 0);
+		Assert.assertFalse(countingFilter.lastPhaseCalled);
+		Assert.assertEquals(resultBean.getResultStatus(), ResultStatus.EmptyData);
+	}
+	/**
+	 * 測試可計算總筆數時，沒有任何資料的情況
+	 */
+	@Test
+	public void lastPageWithZeroCount()
+	{
+		FakeCountingPagingFilter countingFilter = new FakeCountingPagingFilter(0);
+
+		PagingResultBean resultBean = new PagingResultBean(
+			new PagingRequestBean(5, 10, 3)
+		);
+		List<Integer> resultData = TwoPhasePagingRunner.runTwoPhasePagingFilter(
+			countingFilter, resultBean, FetchPhase.LastFetch
+		);
+
+		Assert.assertEquals(resultData.size(), 0);
+		Assert.assertFalse(countingFilter.lastPhaseCalled);
+		Assert.assertEquals(resultBean.getResultStatus(), ResultStatus.EmptyData);
+		Assert.assertEquals(resultBean.getResultPageNumberOfTarget(), 0);
+	}
+}
+
+/**
+ * 以 1 ~ totalSize 的整數為資料，並記錄查詢位置的 {@link CountingPagingFilter}
+ */
+class FakeCountingPagingFilter implements CountingPagingFilter<Integer> {
+	private final int totalSize;
+	private final int countedSize;
+
+	int firstRecordNumber = -1;
+	boolean lastPhaseCalled = false;
+
+	FakeCountingPagingFilter(int newTotalSize)
+	{
+		this(newTotalSize, newTotalSize);
+	}
+	/**
+	 * 總筆數(countedSize)與實際資料筆數(totalSize)不同，模擬計算總筆數後資料被刪除的情況，
+	 * 此時可執行第二階段查詢
+	 */
+	FakeCountingPagingFilter(int newTotalSize, int newCountedSize)
+	{
+		totalSize = newTotalSize;
+		countedSize = newCountedSize;
+	}
+
+	@Override
+	public List<Integer> firstPhasePaging(PagingResultBean resultBean)
+	{
+		firstRecordNumber = resultBean.getFirstRecordNumber();
+
+		List<Integer> resultData = new ArrayList<Integer>();
+		for (int i = firstRecordNumber + 1;
+			i <= totalSize && resultData.size() < resultBean.getLastRecordNumber();
+			i++
+		) {
+			resultData.add(i);
+		}
+
+		return resultData;
+	}
+	@Override
+	public List<Integer> lastPhasePaging(PagingResultBean resultBean)
+	{
+		lastPhaseCalled = true;
+		if (countedSize == totalSize) {
+			throw new UnsupportedOperationException("Should not fetch all of the data");
+		}
+
+		List<Integer> resultData = new ArrayList<Integer>();
+		for (int i = 1; i <= totalSize && resultData.size() < resultBean.getLastRecordNumber(); i++) {
+			resultData.add(i);
+		}
+
+		return resultData;
+	}
+	@Override
+	public long countTotalSize()
+	{
+		return countedSize;
+	}
 }
@@ -10,6 +10,15 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
 import javax.persistence.NoResultException;
 import javax.persistence.NonUniqueResultException;
 import javax.persistence.PersistenceException;
@@ -23,6 +32,10 @@ public class QueryUtilTest {
 	private Query mockQuery;
 	@Mocked
 	private TypedQuery<Integer> mockTypedQuery;
+	@Mocked
+	private EntityManagerFactory mockEntityManagerFactory;
+	@Mocked
+	private EntityManager mockEntityManager;
 
 	/**
 	 * Tests the normal situation(without exception) for getting single result of mockQuery.<p>
@@ -232,6 +245,275 @@ public class QueryUtilTest {
         );
         // :~)
     }
+
+    /**
+     * Tests the asynchronous incremental query for single/list result
+     */
+    @Test
+    public void getResultByIncrementalQueryAsync() throws Exception
+    {
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+
+        try {
+            SingleResultQueryAction nullAction = new FakeSingleQueryAction();
+            ListResultQueryAction emptyAction = new FakeListQueryAction();
+
+            Assert.assertEquals(
+                QueryUtil.<Object>getSingleResultByIncrementalQueryAsync(
+                    executor, nullAction, new FakeSingleQueryAction("async value")
+                ).get(2, TimeUnit.SECONDS),
+                "async value"
+            );
+            Assert.assertEquals(
+                QueryUtil.getListResultByIncrementalQueryAsync(
+                    executor, emptyAction, emptyAction, new FakeListQueryAction(4)
+                ).get(2, TimeUnit.SECONDS).size(),
+                4
+            );
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Tests the parallel query for single result
+     */
+    @Test
+    public void getSingleResultByParallelQuery()
+    {
+        ExecutorService executor = Executors.newCachedThreadPool();
+        recordEntityManager();
+        ParallelSingleResultQueryAction<String> nullAction = entityManager -> null;
+
+        try {
+            Assert.assertNull(
+                QueryUtil.getSingleResultByParallelQuery(
+                    executor, mockEntityManagerFactory, nullAction, nullAction
+                )
+            );
+
+            /**
+             * Asserts the viable data of higher priority is returned
+             */
+            Assert.assertEquals(
+                QueryUtil.getSingleResultByParallelQuery(
+                    executor, mockEntityManagerFactory,
+                    nullAction, entityManager -> "test value 2", entityManager -> "test value 3"
+                ),
+                "test value 2"
+            );
+            // :~)
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+    /**
+     * Tests the cancellation of lower-priority actions in parallel query
+     */
+    @Test
+    public void cancelLowerPriorityQuery() throws InterruptedException
+    {
+        ExecutorService executor = Executors.newCachedThreadPool();
+        recordEntityManager();
+        final CountDownLatch startedLatch = new CountDownLatch(1);
+        final CountDownLatch blockedLatch = new CountDownLatch(1);
+        final CountDownLatch interruptedLatch = new CountDownLatch(1);
+
+        try {
+            Assert.assertEquals(
+                QueryUtil.getSingleResultByParallelQuery(
+                    executor, mockEntityManagerFactory,
+                    entityManager -> {
+                        try {
+                            startedLatch.await();
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                        }
+                        return "test value 1";
+                    },
+                    entityManager -> {
+                        startedLatch.countDown();
+                        try {
+                            blockedLatch.await();
+                        } catch (InterruptedException e) {
+                            interruptedLatch.countDown();
+                        }
+                        return "test value 2";
+                    }
+                ),
+                "test value 1"
+            );
+
+            Assert.assertTrue(interruptedLatch.await(5, TimeUnit.SECONDS));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+    /**
+     * Tests the cancellation of submitted actions while the executor rejects the remaining ones
+     */
+    @Test
+    public void parallelQueryRejectedByExecutor() throws InterruptedException
+    {
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(
+            1, 1, 0L, TimeUnit.MILLISECONDS, new SynchronousQueue<Runnable>()
+        );
+        recordEntityManager();
+        final CountDownLatch blockedLatch = new CountDownLatch(1);
+
+        try {
+            QueryUtil.getSingleResultByParallelQuery(
+                executor, mockEntityManagerFactory,
+                entityManager -> {
+                    try {
+                        blockedLatch.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    return "test value 1";
+                },
+                entityManager -> "test value 2"
+            );
+            Assert.fail("The parallel query should be rejected by executor");
+        } catch (RejectedExecutionException e) {
+            /**
+             * The blocked action must be cancelled, otherwise the executor cannot be terminated
+             */
+            executor.shutdown();
+            Assert.assertTrue(executor.awaitTermination(5, TimeUnit.SECONDS));
+            // :~)
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+    /**
+     * Tests the exception thrown by parallel query
+     */
+    @Test(expectedExceptions=PersistenceException.class)
+    public void parallelQueryWithException()
+    {
+        ExecutorService executor = Executors.newCachedThreadPool();
+        recordEntityManager();
+
+        try {
+            QueryUtil.getSingleResultByParallelQuery(
+                executor, mockEntityManagerFactory,
+                entityManager -> { throw new PersistenceException("Sample exception"); },
+                entityManager -> "test value 2"
+            );
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+    /**
+     * Tests the parallel query for list result
+     */
+    @Test
+    public void getListResultByParallelQuery()
+    {
+        ExecutorService executor = Executors.newCachedThreadPool();
+        recordEntityManager();
+        ParallelListResultQueryAction<Integer> emptyAction = entityManager -> Collections.<Integer>emptyList();
+
+        try {
+            Assert.assertEquals(
+                QueryUtil.getListResultByParallelQuery(
+                    executor, mockEntityManagerFactory, emptyAction, emptyAction
+                ).size(),
+                0
+            );
+            Assert.assertEquals(
+                QueryUtil.getListResultByParallelQuery(
+                    executor, mockEntityManagerFactory,
+                    emptyAction, entityManager -> Arrays.asList(1, 2), entityManager -> Arrays.asList(1, 2, 3)
+                ).size(),
+                2
+            );
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Tests the building of JPQL for counting
+     */
+    @Test(dataProvider="BuildCountQueryString")
+    public void buildCountQueryString(
+        String testQlString, String expectedQlString
+    ) {
+        Assert.assertEquals(
+            QueryUtil.buildCountQueryString(testQlString),
+            expectedQlString
+        );
+    }
+    @DataProvider(name="BuildCountQueryString")
+    private Object[][] getBuildCountQueryString()
+    {
+        return new Object[][] {
+            {
+                "SELECT c FROM Car AS c WHERE c.name = :name ORDER BY c.id DESC",
+                "SELECT COUNT(c) FROM Car AS c WHERE c.name = :name"
+            },
+            {
+                " select distinct c from Car c join fetch c.owner o order by o.name",
+                "SELECT COUNT(DISTINCT c) from Car c JOIN c.owner o"
+            },
+            {
+                "SELECT c.id FROM Car AS c WHERE c.id IN (SELECT p.id FROM Person p)",
+                "SELECT COUNT(c.id) FROM Car AS c WHERE c.id IN (SELECT p.id FROM Person p)"
+            },
+            { // Function in "ORDER BY"
+                "SELECT c FROM Car AS c WHERE c.name LIKE 'order by %' ORDER BY UPPER(c.name), c.id",
+                "SELECT COUNT(c) FROM Car AS c WHERE c.name LIKE 'order by %'"
+            },
+            { // "ORDER BY" in sub-query is kept
+                "SELECT c FROM Car AS c WHERE c.id IN (SELECT p.id FROM Person p ORDER BY p.id)",
+                "SELECT COUNT(c) FROM Car AS c WHERE c.id IN (SELECT p.id FROM Person p ORDER BY p.id)"
+            },
+        };
+    }
+    /**
+     * Tests the unsupported JPQL for building count query
+     */
+    @Test(dataProvider="UnsupportedCountQueryString", expectedExceptions=IllegalArgumentException.class)
+    public void buildCountQueryStringWithUnsupportedQuery(String testQlString)
+    {
+        QueryUtil.buildCountQueryString(testQlString);
+    }
+    @DataProvider(name="UnsupportedCountQueryString")
+    private Object[][] getUnsupportedCountQueryString()
+    {
+        return new Object[][] {
+            { "SELECT c.id, c.name FROM Car AS c" },
+            { "SELECT c.owner FROM Car AS c GROUP BY c.owner" },
+            { "SELECT c.owner FROM Car AS c GROUP BY c.owner HAVING COUNT(c) > 1 ORDER BY c.owner" },
+            { "SELECT DISTINCT c.name FROM Car AS c" },
+        };
+    }
+
+    /**
+     * Tests the finding of keywords in top level of JPQL
+     */
+    @Test
+    public void indexOfTopLevelKeyword()
+    {
+        String testQlString =
+            "SELECT c FROM Car AS c WHERE c.somewhere = 'a where' AND c.id IN (SELECT p.id FROM Person p WHERE p.id > 0) ORDER  BY c.id";
+
+        Assert.assertEquals(QueryUtil.indexOfTopLevelKeyword(testQlString, "WHERE"), testQlString.indexOf("WHERE"));
+        Assert.assertEquals(QueryUtil.lastIndexOfTopLevelKeyword(testQlString, "WHERE"), testQlString.indexOf("WHERE"));
+        Assert.assertEquals(QueryUtil.indexOfTopLevelKeyword(testQlString, "order by"), testQlString.indexOf("ORDER"));
+        Assert.assertEquals(QueryUtil.indexOfTopLevelKeyword(testQlString, "GROUP BY"), -1);
+    }
+
+    private void recordEntityManager()
+    {
+        new NonStrictExpectations()
+        {{
+            mockEntityManagerFactory.createEntityManager();
+            result = mockEntityManager;
+        }};
+    }
 }
 
 class FakeSingleQueryAction implements SingleResultQueryAction {
@@ -1,19 +1,38 @@
 package guru.mikelue.jpa.springframework;
 
 import guru.mikelue.jpa.model.Car;
+import guru.mikelue.jpa.paging.FetchPhase;
+import guru.mikelue.jpa.paging.PageResultCache;
+import guru.mikelue.jpa.paging.PagingRequestBean;
+import guru.mikelue.jpa.paging.PagingResultBean;
 
 import org.springframework.test.context.ContextConfiguration;
 import org.springframework.test.context.TestExecutionListeners;
 import org.springframework.test.context.testng.AbstractTestNGSpringContextTests;
 import org.springframework.test.context.transaction.TransactionalTestExecutionListener;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testng.annotations.AfterMethod;
 import org.testng.annotations.BeforeMethod;
 import org.testng.annotations.Test;
 import org.testng.Assert;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 import javax.inject.Inject;
 import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
 import javax.persistence.PersistenceContext;
+import javax.persistence.PersistenceUnit;
 
 /**
  * This class tests the skeleton of JPA operations in SpringFramework.
@@ -24,10 +43,16 @@ public class AbstractSpringTypedDaoFacadeTest extends AbstractTestNGSpringContex
     @PersistenceContext(unitName="container-managed")
     private EntityManager entityManager;
 
+    @PersistenceUnit(unitName="container-managed")
+    private EntityManagerFactory entityManagerFactory;
+
     @Inject
     private SpringCarDao testDao;
+    @Inject
+    private PlatformTransactionManager transactionManager;
 
     private final int CAR_ID = 1;
+    private final int COMMITTED_CAR_ID = 401;
 
     public AbstractSpringTypedDaoFacadeTest() {}
 
@@ -55,6 +80,44 @@ public class AbstractSpringTypedDaoFacadeTest extends AbstractTestNGSpringContex
         );
     }
     @Test @Transactional
+    public void saveAllNew()
+    {
+        List<Car> newCars = new ArrayList<Car>();
+        for (int i = 101; i <= 105; i++) {
+            Car c = new Car();
+            c.setId(i);
+            c.setName("Batch Car " + i);
+            c.setAddress("Batch Address " + i);
+            newCars.add(c);
+        }
+
+        testDao.setBatchSize(2);
+        Assert.assertEquals(
+            testDao.saveAllNew(newCars), 5
+        );
+        Assert.assertFalse(entityManager.contains(newCars.get(4)));
+
+        for (Car c: newCars) {
+            Assert.assertNotNull(testDao.find(c.getId()));
+        }
+    }
+    @Test @Transactional
+    public void saveAllExisted()
+    {
+        final String newName = "New Name Value By Batch";
+
+        Car c = testDao.find(CAR_ID);
+        entityManager.clear();
+        c.setName(newName);
+
+        Assert.assertEquals(
+            testDao.saveAllExisted(Arrays.asList(c)), 1
+        );
+        Assert.assertEquals(
+            testDao.find(CAR_ID).getName(), newName
+        );
+    }
+    @Test @Transactional
     public void remove()
     {
         Car c = testDao.find(CAR_ID);
@@ -67,9 +130,188 @@ public class AbstractSpringTypedDaoFacadeTest extends AbstractTestNGSpringContex
         );
     }
 
+    @Test @Transactional
+    public void removeById()
+    {
+        Assert.assertTrue(testDao.removeById(CAR_ID));
+        Assert.assertFalse(testDao.removeById(CAR_ID));
+
+        Assert.assertNull(
+            testDao.find(CAR_ID)
+        );
+    }
+    /**
+     * Tests the detaching of managed entity removed by bulk statement
+     */
+    @Test @Transactional
+    public void removeManagedEntityById()
+    {
+        Car managedCar = testDao.find(CAR_ID);
+        managedCar.setName("Changed before removal");
+
+        Assert.assertTrue(testDao.removeById(CAR_ID));
+        Assert.assertFalse(entityManager.contains(managedCar));
+
+        entityManager.flush();
+        Assert.assertNull(
+            testDao.find(CAR_ID)
+        );
+    }
+    @Test @Transactional
+    public void removeAll()
+    {
+        List<Car> newCars = new ArrayList<Car>();
+        for (int i = 201; i <= 205; i++) {
+            Car c = new Car();
+            c.setId(i);
+            c.setName("Removed Car " + i);
+            c.setAddress("Removed Address " + i);
+            newCars.add(c);
+        }
+        testDao.saveAllNew(newCars);
+
+        testDao.setMaxInListSize(2);
+        Assert.assertEquals(
+            testDao.removeAll(Arrays.asList(CAR_ID, 201, 202, 203, 204, 205, 999)), 6
+        );
+        Assert.assertEquals(
+            testDao.removeAll(Collections.<Integer>emptyList()), 0
+        );
+
+        Assert.assertNull(testDao.find(CAR_ID));
+        Assert.assertNull(testDao.find(205));
+        Assert.assertFalse(entityManager.contains(newCars.get(0)));
+    }
+
+    @Test @Transactional
+    public void findAll()
+    {
+        List<Car> newCars = new ArrayList<Car>();
+        for (int i = 301; i <= 305; i++) {
+            Car c = new Car();
+            c.setId(i);
+            c.setName("Found Car " + i);
+            c.setAddress("Found Address " + i);
+            newCars.add(c);
+        }
+        testDao.saveAllNew(newCars);
+
+        Car managedCar = testDao.find(303);
+
+        testDao.setMaxInListSize(2);
+        Map<Integer, Car> foundCars = testDao.findAll(Arrays.asList(305, CAR_ID, 303, 999, 301, 302, 304));
+
+        Assert.assertEquals(
+            new ArrayList<Integer>(foundCars.keySet()),
+            Arrays.asList(305, CAR_ID, 303, 301, 302, 304)
+        );
+        Assert.assertSame(foundCars.get(303), managedCar);
+        Assert.assertEquals(foundCars.get(305).getName(), "Found Car 305");
+    }
+
+    /**
+     * Tests the default size of IN list, HSQLDB dialect has no limit
+     */
+    @Test @Transactional
+    public void defaultMaxInListSize()
+    {
+        Assert.assertEquals(testDao.getMaxInListSize(), SpringCarDao.DEFAULT_MAX_IN_LIST_SIZE);
+    }
+
+    @Test @Transactional
+    public void invalidatePageResultCache()
+    {
+        PageResultCache pageResultCache = new PageResultCache(8, 1, TimeUnit.MINUTES);
+        pageResultCache.queryAndFilterDataToPage(
+            entityManager, Car.class, "SELECT c FROM Car AS c ORDER BY c.id", null,
+            new PagingResultBean(new PagingRequestBean(1, 10, 0)), FetchPhase.FirstFetch
+        );
+        Assert.assertEquals(pageResultCache.size(), 1);
+
+        testDao.setPageResultCache(pageResultCache);
+        try {
+            testDao.removeById(CAR_ID);
+            Assert.assertEquals(pageResultCache.size(), 0);
+        } finally {
+            testDao.setPageResultCache(null);
+        }
+    }
+
+    /**
+     * Tests the paging concurrently with an uncommitted save,
+     * the result of the paging must not be kept in cache after committing.
+     */
+    @Test
+    public void invalidatePageResultCacheAfterCommit() throws Exception
+    {
+        final PageResultCache pageResultCache = new PageResultCache(8, 1, TimeUnit.MINUTES);
+        final ExecutorService executor = Executors.newSingleThreadExecutor();
+
+        testDao.setPageResultCache(pageResultCache);
+        try {
+            new TransactionTemplate(transactionManager).execute(status -> {
+                Car c = new Car();
+                c.setId(COMMITTED_CAR_ID);
+                c.setName("Committed Car");
+                c.setAddress("Committed Address");
+                testDao.saveNew(c);
+
+                /**
+                 * Pages by another thread before committing
+                 */
+                try {
+                    Assert.assertEquals(
+                        executor.submit(() -> pageCommittedCars(pageResultCache)).get().size(), 0
+                    );
+                } catch (InterruptedException | ExecutionException e) {
+                    throw new IllegalStateException(e);
+                }
+                Assert.assertEquals(pageResultCache.size(), 1);
+                // :~)
+
+                return null;
+            });
+
+            Assert.assertEquals(pageResultCache.size(), 0);
+            Assert.assertEquals(pageCommittedCars(pageResultCache).size(), 1);
+        } finally {
+            executor.shutdownNow();
+            testDao.setPageResultCache(null);
+            testDao.removeById(COMMITTED_CAR_ID);
+        }
+    }
+    private List<Car> pageCommittedCars(PageResultCache pageResultCache)
+    {
+        EntityManager pagingEntityManager = entityManagerFactory.createEntityManager();
+        try {
+            return pageResultCache.queryAndFilterDataToPage(
+                pagingEntityManager, Car.class, "SELECT c FROM Car AS c WHERE c.name = :name ORDER BY c.id",
+                Collections.singletonMap("name", "Committed Car"),
+                new PagingResultBean(new PagingRequestBean(1, 10, 0)), FetchPhase.FirstFetch
+            );
+        } finally {
+            pagingEntityManager.close();
+        }
+    }
+
+    /**
+     * Restores the settings of shared DAO object
+     */
+    @AfterMethod
+    public void restoreDao()
+    {
+        testDao.setBatchSize(SpringCarDao.DEFAULT_BATCH_SIZE);
+        testDao.setMaxInListSize(0);
+    }
+
     @BeforeMethod
     public void prepareData()
     {
+        // The test committing transaction by itself doesn't need the data
+        if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+            return;
+        }
+
         /**
          * Prepare test data
          */
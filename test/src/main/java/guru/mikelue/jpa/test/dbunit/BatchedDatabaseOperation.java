@@ -0,0 +1,99 @@
+package guru.mikelue.jpa.test.dbunit;
+
+import org.dbunit.DatabaseUnitException;
+import org.dbunit.database.DatabaseConfig;
+import org.dbunit.database.IDatabaseConnection;
+import org.dbunit.dataset.IDataSet;
+import org.dbunit.operation.DatabaseOperation;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import static org.apache.commons.lang3.Validate.isTrue;
+import static org.dbunit.database.DatabaseConfig.FEATURE_BATCHED_STATEMENTS;
+import static org.dbunit.database.DatabaseConfig.PROPERTY_BATCH_SIZE;
+
+import java.sql.SQLException;
+
+/**
+ * This operation runs the enclosed {@link DatabaseOperation} with JDBC-batched statements.
+ *
+ * <p>The operations of rows(e.g. {@link DatabaseOperation#INSERT}) in <a href="http://www.dbunit.org/">DbUnit</a>
+ * reuse the prepared statement for rows having same columns. While this operation is executing,
+ * {@link DatabaseConfig#FEATURE_BATCHED_STATEMENTS} is enabled and {@link DatabaseConfig#PROPERTY_BATCH_SIZE} is set,
+ * so the rows are sent by {@link java.sql.PreparedStatement#executeBatch()} for every batch.</p>
+ *
+ * <p>The configuration of connection is restored after the execution.
+ * If the database doesn't support batch updates, the rows are executed one by one.</p>
+ *
+ * @see guru.mikelue.jpa.test.dbunit.annotation.DataSetOperation#BatchedInsert
+ */
+public class BatchedDatabaseOperation extends DatabaseOperation {
+    /**
+     * The default number of rows for a batch
+     */
+    public final static int DEFAULT_BATCH_SIZE = 100;
+
+    private Logger logger = LoggerFactory.getLogger(BatchedDatabaseOperation.class);
+
+    private final DatabaseOperation enclosedOperation;
+    private final int batchSize;
+
+    /**
+     * Constructs this operation with {@link #DEFAULT_BATCH_SIZE}.
+     *
+     * @param newEnclosedOperation The operation to be executed with batched statements
+     */
+    public BatchedDatabaseOperation(DatabaseOperation newEnclosedOperation)
+    {
+        this(newEnclosedOperation, DEFAULT_BATCH_SIZE);
+    }
+    /**
+     * Constructs this operation with the number of rows for a batch.
+     *
+     * @param newEnclosedOperation The operation to be executed with batched statements
+     * @param newBatchSize The number of rows for a batch, must be &gt;= 1
+     */
+    public BatchedDatabaseOperation(DatabaseOperation newEnclosedOperation, int newBatchSize)
+    {
+        isTrue(newBatchSize >= 1, "Batch size must be >= 1, current: %d", newBatchSize);
+
+        enclosedOperation = newEnclosedOperation;
+        batchSize = newBatchSize;
+    }
+
+    /**
+     * Gets the number of rows for a batch.
+     *
+     * @return The batch size
+     */
+    public int getBatchSize()
+    {
+        return batchSize;
+    }
+
+    @Override
+    public void execute(IDatabaseConnection connection, IDataSet dataSet)
+        throws DatabaseUnitException, SQLException
+    {
+        DatabaseConfig config = connection.getConfig();
+
+        Object oldBatchedStatements = config.getProperty(FEATURE_BATCHED_STATEMENTS);
+        Object oldBatchSize = config.getProperty(PROPERTY_BATCH_SIZE);
+
+        logger.debug("Execute [{}] with batch size: {}", enclosedOperation.getClass().getSimpleName(), batchSize);
+
+        config.setProperty(FEATURE_BATCHED_STATEMENTS, Boolean.TRUE);
+        config.setProperty(PROPERTY_BATCH_SIZE, batchSize);
+        try {
+            enclosedOperation.execute(connection, dataSet);
+        } finally {
+            config.setProperty(FEATURE_BATCHED_STATEMENTS, oldBatchedStatements);
+            config.setProperty(PROPERTY_BATCH_SIZE, oldBatchSize);
+        }
+    }
+
+    @Override
+    public String toString()
+    {
+        return String.format("Batched[%s] : [%d]", enclosedOperation, batchSize);
+    }
+}
@@ -4,24 +4,37 @@ import org.dbunit.database.DatabaseDataSourceConnection;
 import org.dbunit.database.IDatabaseConnection;
 import org.dbunit.dataset.IDataSet;
 import org.dbunit.dataset.datatype.IDataTypeFactory;
+import org.dbunit.dataset.stream.IDataSetProducer;
+import org.dbunit.dataset.stream.StreamingDataSet;
 import org.dbunit.operation.DatabaseOperation;
 import org.dbunit.operation.TransactionOperation;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import static org.dbunit.database.DatabaseConfig.PROPERTY_DATATYPE_FACTORY;
 
+import java.sql.Connection;
 import java.sql.SQLException;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
 import javax.sql.DataSource;
 
 /**
  * This class is a builder class for running {@link DatabaseOperation}.
  *
  * <p>This class only supports {@link DataSource} currently.</p>
+ *
+ * <p>By default, a new {@link DatabaseDataSourceConnection} is opened(and configured) for every operation.
+ * With {@link #setReuseConnection(boolean) reusing of connection}, the configured connection(and the cached meta data of tables by DbUnit)
+ * is kept for following operations, until {@link #releaseReusedConnection()} is called.</p>
  */
 public class DbUnitBuilder {
     private static Logger logger = LoggerFactory.getLogger(DbUnitBuilder.class);
     private boolean runAsTransaction = false;
 
+    private volatile boolean reuseConnection = false;
+    private IDatabaseConnection reusedConnection = null;
+    private final Lock reusedConnectionLock = new ReentrantLock();
+
     /**
      * This configurer does nothing when gets called.
      *
@@ -92,24 +105,18 @@ public class DbUnitBuilder {
     public void runDatabaseOperation(
         IDataSet sourceDataSet, DatabaseOperation dbOperation
     ) {
-        IDatabaseConnection dbConn = null;
-
-        /**
-         * Prepare and configure database connection
-         */
-        try {
-            dbConn = new DatabaseDataSourceConnection(dataSource);
-        } catch (Exception e) {
-            logger.error("Preparing database connection error", e);
-            throw new DbUnitExecuteException(this, e);
+        if (reuseConnection) {
+            runDatabaseOperationWithReusedConnection(sourceDataSet, dbOperation);
+            return;
         }
-        // :~)
+
+        IDatabaseConnection dbConn = openConnection();
 
         /**
          * Execute the operation and ensure that the connection will be released completely
          */
         try {
-            doRunDatabaseOperation(dbConn, sourceDataSet, dbOperation);
+            executeDatabaseOperation(dbConn, sourceDataSet, dbOperation);
         } catch (DbUnitExecuteException e) {
             throw e;
         } catch (Exception e) {
@@ -120,6 +127,23 @@ public class DbUnitBuilder {
         // :~)
     }
 
+    /**
+     * This method run database operation with {@link StreamingDataSet} of the producer,
+     * the rows are not kept in memory.
+     *
+     * <p>Only forward operation(e.g. {@link DatabaseOperation#INSERT}) is supported by {@link StreamingDataSet}.</p>
+     *
+     * @param sourceProducer the producer of data set, e.g. {@link YamlDataSetProducer}
+     * @param dbOperation the operation run to database
+     *
+     * @see #runDatabaseOperation(IDataSet, DatabaseOperation)
+     */
+    public void runDatabaseOperation(
+        IDataSetProducer sourceProducer, DatabaseOperation dbOperation
+    ) {
+        runDatabaseOperation(new StreamingDataSet(sourceProducer), dbOperation);
+    }
+
     /**
      * Checks whether the operation of dataset is run in transaction.
 	 *
@@ -143,9 +167,149 @@ public class DbUnitBuilder {
         runAsTransaction = newRunAsTransaction;
     }
 
-    private void doRunDatabaseOperation(
-        IDatabaseConnection dbConn, IDataSet sourceDataSet, DatabaseOperation dbOperation
+    /**
+     * Checks whether the connection is reused by following operations.
+     *
+     * @return true if the connection is reused
+     *
+     * @see #setReuseConnection
+     */
+    public boolean isReuseConnection()
+    {
+        return reuseConnection;
+    }
+    /**
+     * Setup whether the connection is reused by following operations.
+     *
+     * <p>If the reused connection is not auto-commit, it is committed after every successful operation,
+     * or is rolled back if the operation is failed. The connection is discarded if the operation is failed or the connection has been closed.
+     * The operations are executed one by one while reusing connection.</p>
+     *
+     * <p>Because the meta data of tables is cached by the connection,
+     * {@link #releaseReusedConnection()} should be called after the schema is changed.</p>
+     *
+     * @param newReuseConnection true to reuse connection, false to release the reused connection
+     *
+     * @see #releaseReusedConnection()
+     */
+    public void setReuseConnection(boolean newReuseConnection)
+    {
+        reuseConnection = newReuseConnection;
+
+        if (!newReuseConnection) {
+            releaseReusedConnection();
+        }
+    }
+    /**
+     * Closes the reused connection(if there is one), the following operation would open a new one.
+     *
+     * <p>Client should call this method at the end of suite if {@link #setReuseConnection(boolean) reusing connection}.</p>
+     */
+    public void releaseReusedConnection()
+    {
+        reusedConnectionLock.lock();
+        try {
+            IDatabaseConnection releasedConnection = reusedConnection;
+            reusedConnection = null;
+
+            releaseConnection(releasedConnection);
+        } finally {
+            reusedConnectionLock.unlock();
+        }
+    }
+
+    private void runDatabaseOperationWithReusedConnection(
+        IDataSet sourceDataSet, DatabaseOperation dbOperation
     ) {
+        reusedConnectionLock.lock();
+        try {
+            if (reusedConnection == null || isClosed(reusedConnection)) {
+                logger.debug("Open connection for reusing");
+                reusedConnection = openConnection();
+            }
+
+            /**
+             * Execute the operation and discard the connection if any error occurs
+             */
+            boolean success = false;
+            try {
+                executeDatabaseOperation(reusedConnection, sourceDataSet, dbOperation);
+                commitReusedConnection();
+                success = true;
+            } catch (DbUnitExecuteException e) {
+                throw e;
+            } catch (Exception e) {
+                throw new DbUnitExecuteException(this, e);
+            } finally {
+                if (!success) {
+                    logger.debug("Discard reused connection");
+                    discardReusedConnection();
+                }
+            }
+            // :~)
+        } finally {
+            reusedConnectionLock.unlock();
+        }
+    }
+    private void commitReusedConnection() throws SQLException
+    {
+        Connection jdbcConn = reusedConnection.getConnection();
+
+        if (!jdbcConn.getAutoCommit()) {
+            logger.debug("Commit reused connection");
+            jdbcConn.commit();
+        }
+    }
+    private void discardReusedConnection()
+    {
+        IDatabaseConnection discardedConnection = reusedConnection;
+        reusedConnection = null;
+
+        /**
+         * Rollback the uncommitted changes of failed operation before the connection is closed
+         */
+        try {
+            Connection jdbcConn = discardedConnection.getConnection();
+            if (!jdbcConn.isClosed() && !jdbcConn.getAutoCommit()) {
+                logger.debug("Rollback reused connection");
+                jdbcConn.rollback();
+            }
+        } catch (SQLException e) {
+            logger.warn("Rollback reused connection error", e);
+        }
+        // :~)
+
+        try {
+            releaseConnection(discardedConnection);
+        } catch (DbUnitExecuteException e) {
+            logger.warn("Discarding reused connection error", e);
+        }
+    }
+    private boolean isClosed(IDatabaseConnection dbConn)
+    {
+        try {
+            return dbConn.getConnection().isClosed();
+        } catch (SQLException e) {
+            logger.warn("Checking reused connection error", e);
+            return true;
+        }
+    }
+
+    private IDatabaseConnection openConnection()
+    {
+        IDatabaseConnection dbConn = null;
+
+        /**
+         * Prepare database connection
+         */
+        try {
+            dbConn = new DatabaseDataSourceConnection(dataSource);
+        } catch (Exception e) {
+            logger.error("Preparing database connection error", e);
+            throw new DbUnitExecuteException(this, e);
+        }
+        // :~)
+
         /**
          * Configure database connection
          */
@@ -155,6 +319,7 @@ public class DbUnitBuilder {
             );
         } catch (Exception e) {
             logger.error("Preparing database connection error", e);
+            releaseConnection(dbConn);
             throw new DbUnitExecuteException(this, e);
         }
 
@@ -162,10 +327,17 @@ public class DbUnitBuilder {
             connConfigurer.config(dbConn);
         } catch (Exception e) {
             logger.error("Customize database connection error", e);
+            releaseConnection(dbConn);
             throw new DbUnitExecuteException(this, e);
         }
         // :~)
 
+        return dbConn;
+    }
+
+    private void executeDatabaseOperation(
+        IDatabaseConnection dbConn, IDataSet sourceDataSet, DatabaseOperation dbOperation
+    ) {
         logger.debug("Before executing database operation[{}].", dbOperation);
 
         /**
@@ -175,7 +347,9 @@ public class DbUnitBuilder {
             if (logger.isInfoEnabled()) {
                 logger.info(
                     "Perform DataSet: [{}] : Operation: [{}]",
-                    sourceDataSet.getTableNames(), dbOperation.getClass().getSimpleName()
+                    // The names of tables are unknown before streaming
+                    sourceDataSet instanceof StreamingDataSet ? "<Streaming>" : sourceDataSet.getTableNames(),
+                    dbOperation.getClass().getSimpleName()
                 );
             }
 
@@ -4,21 +4,16 @@ import java.io.InputStream;
 import java.io.Reader;
 import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.Collection;
-import java.util.Collections;
 import java.util.HashMap;
-import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Set;
 import static java.sql.Types.*;
 
-import org.apache.commons.lang3.mutable.MutableInt;
 import org.dbunit.dataset.AbstractDataSet;
+import org.dbunit.dataset.AbstractTable;
 import org.dbunit.dataset.Column;
-import org.dbunit.dataset.CompositeTable;
 import org.dbunit.dataset.DataSetException;
-import org.dbunit.dataset.DefaultTable;
 import org.dbunit.dataset.DefaultTableIterator;
 import org.dbunit.dataset.DefaultTableMetaData;
 import org.dbunit.dataset.IDataSet;
@@ -27,7 +22,6 @@ import org.dbunit.dataset.ITableIterator;
 import org.dbunit.dataset.ITableMetaData;
 import org.dbunit.dataset.NoSuchColumnException;
 import org.dbunit.dataset.datatype.DataType;
-import org.dbunit.dataset.datatype.DataType;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.yaml.snakeyaml.Yaml;
@@ -163,194 +157,101 @@ public class YamlDataSet extends AbstractDataSet {
         ));
     }
 
+    /**
+     * Builds the columnar table in one pass of rows(O(rows × columns)).
+     *
+     * The union of columns(in order of appearance) is collected first,
+     * and the type of column is resolved only if the type of a cell is different from the current one.
+     */
     private ITable makeITable(String tableName, List<Map<String, Object>> dataOfTable)
     {
-        ITable resultTable = null;
+        /**
+         * Collect the union of columns and resolve their types
+         */
+        Map<String, DataType> typesOfColumns = new LinkedHashMap<String, DataType>();
 
-        int r = 0;
         for (Map<String, Object> rowDefAndData: dataOfTable) {
-            logger.trace("Processing table[{}], row number: {}", tableName, ++r);
-
-            resultTable = mergeTwoTables(tableName, resultTable, makeITable(tableName, rowDefAndData));
-            //if (resultTable == null) {
-                //resultTable = makeITable(tableName, rowDefAndData);
-            //} else {
-                //resultTable = new CompositeTable(
-                    //resultTable, makeITable(tableName, rowDefAndData)
-                //);
-            //}
+            for (Map.Entry<String, Object> cell: rowDefAndData.entrySet()) {
+                String nameOfColumn = cell.getKey();
+                DataType typeOfCell = DataType.forObject(cell.getValue());
+                DataType currentType = typesOfColumns.get(nameOfColumn);
+
+                if (currentType == null) {
+                    typesOfColumns.put(nameOfColumn, typeOfCell);
+                } else if (!currentType.equals(typeOfCell)) {
+                    typesOfColumns.put(
+                        nameOfColumn, figureOutAProperDataType(nameOfColumn, currentType, typeOfCell)
+                    );
+                }
+            }
         }
+        // :~)
 
-        return resultTable;
-    }
-    private ITable makeITable(String tableName, Map<String, Object> rowDefAndData)
-    {
         /**
          * Build column definition
          */
-        Column[] columns = new Column[rowDefAndData.size()];
-        Object[] cellData = new Object[rowDefAndData.size()];
+        Column[] columns = new Column[typesOfColumns.size()];
+        Map<String, Integer> indexesOfColumns = new HashMap<String, Integer>(typesOfColumns.size() * 2);
 
         int i = 0;
-        for (Map.Entry<String, Object> cell: rowDefAndData.entrySet()) {
-            logger.trace("Build Column: [{}], value: [{}]", cell.getKey(), cell.getValue());
-            cellData[i] = cell.getValue();
-            columns[i] = new Column(
-                cell.getKey(),
-                DataType.forObject(cellData[i])
-            );
+        for (Map.Entry<String, DataType> typeOfColumn: typesOfColumns.entrySet()) {
+            logger.trace("Build Column: [{}], type: [{}]", typeOfColumn.getKey(), typeOfColumn.getValue());
 
+            columns[i] = new Column(typeOfColumn.getKey(), typeOfColumn.getValue());
+            indexesOfColumns.put(typeOfColumn.getKey(), i);
             i++;
         }
         // :~)
 
-        DefaultTable resultTable = new DefaultTable(tableName, columns);
-
-        try {
-            resultTable.addRow(cellData);
-        } catch (DataSetException e) {
-            logger.error("Build row of data error", e);
-            throw new RuntimeException(e);
-        }
-
-        return resultTable;
-    }
-    private ITable mergeTwoTables(String tableName, ITable leftTable, ITable rightTable)
-    {
-        if (leftTable == null) {
-            return rightTable;
-        }
-
-        ITableMetaData leftTableMetaData = leftTable.getTableMetaData(),
-                       rightTableMetaData = rightTable.getTableMetaData();
-
         /**
-         * Compare columns of two tables
+         * Fill data by columns(absent cells are null)
          */
-        Set<Column> leftColumnSet, rightColumnSet;
-        try {
-            leftColumnSet = new HashSet<Column>(Arrays.asList(
-                leftTableMetaData.getColumns()
-            ));
-            rightColumnSet = new HashSet<Column>(Arrays.asList(
-                rightTableMetaData.getColumns()
-            ));
-
-        } catch (DataSetException e) {
-            throw new RuntimeException(e);
-        }
+        Object[][] valuesOfColumns = new Object[columns.length][dataOfTable.size()];
 
-        if (leftColumnSet.equals(rightColumnSet)) {
-            logger.trace("[Combine] Two rows is equal.");
-            return new CompositeTable(leftTable, rightTable);
+        int r = 0;
+        for (Map<String, Object> rowDefAndData: dataOfTable) {
+            for (Map.Entry<String, Object> cell: rowDefAndData.entrySet()) {
+                valuesOfColumns[indexesOfColumns.get(cell.getKey())][r] = cell.getValue();
+            }
+
+            r++;
         }
         // :~)
 
-        DefaultTable newTable = new DefaultTable(
-            new DefaultTableMetaData(
-                tableName,
-                combineMetaData(leftColumnSet, rightColumnSet)
-            )
-        );
-
-        /**
-         * Merge data into new table
-         */
-        MutableInt rowNumber = new MutableInt(0);
-
-        mergeDataToTable(newTable, leftTable, rowNumber);
-        mergeDataToTable(newTable, rightTable, rowNumber);
-        // :~)
+        logger.debug("Table[{}] is built. Columns: [{}]. Rows: [{}]", tableName, columns.length, r);
 
-        return newTable;
+        return new ColumnarTable(new DefaultTableMetaData(tableName, columns), valuesOfColumns, r);
     }
 
-	private Column[] combineMetaData(Set<Column> leftColumns, Set<Column> rightColumns)
+	/**
+	 * Choose a more compatible type of column as the final one
+	 */
+	private DataType figureOutAProperDataType(String nameOfColumn, DataType leftType, DataType rightType)
 	{
-		/**
-		 * Collect the name for all of the columns
-		 */
-		Map<String, Column> nameMapOfLeftColumns = buildMapOfColumnName(leftColumns);
-		Map<String, Column> nameMapOfRightColumns = buildMapOfColumnName(rightColumns);
-
-		Set<String> nameOfAllColumns = new HashSet<String>(leftColumns.size() + rightColumns.size());
-		nameOfAllColumns.addAll(nameMapOfLeftColumns.keySet());
-		nameOfAllColumns.addAll(nameMapOfRightColumns.keySet());
-		// :~)
-
-		Set<Column> resultColumns = new HashSet<Column>();
-
-		/**
-		 * Merge the schema by their result of meged name for columns
-		 */
-		for (String nameOfColumn: nameOfAllColumns) {
-			Column columnOnLeftSchema = nameMapOfLeftColumns.get(nameOfColumn);
-			Column columnOnRightSchema = nameMapOfRightColumns.get(nameOfColumn);
-
-			Column choosedColumn = figureOutAProperColumn(
-				columnOnLeftSchema, columnOnRightSchema
-			);
-
-			logger.info("Add column to merged schema: {}", choosedColumn);
-
-			resultColumns.add(choosedColumn);
-		}
-		// :~)
-
-		return resultColumns.toArray(new Column[0]);
-	}
-	private Column figureOutAProperColumn(Column leftColumn, Column rightColumn)
-	{
-		/**
-		 * Add column if there is only one side has such column
-		 */
-		if (leftColumn != null && rightColumn == null) {
-			logger.trace("Use column definition only existing at left: {}", leftColumn);
-			return leftColumn;
-		}
-		if (leftColumn == null && rightColumn != null) {
-			logger.trace("Use column definition only existing at right: {}", rightColumn);
-			return rightColumn;
-		}
-		// :~)
-
-		/**
-		 * Adds column(any one of two is acceptable)
-		 */
-		if (leftColumn.equals(rightColumn)) {
-			logger.trace("The definition of two columns are same.");
-			return leftColumn;
-		}
-		// :~)
-
-		/**
-		 * Choose a more compatible type of column as the final one
-		 */
-		int compatibleWeightOfLeft = compatibleWeightOfDataType(leftColumn.getDataType());
-		int compatibleWeightOfRight = compatibleWeightOfDataType(rightColumn.getDataType());
+		int compatibleWeightOfLeft = compatibleWeightOfDataType(leftType);
+		int compatibleWeightOfRight = compatibleWeightOfDataType(rightType);
 
 		logger.trace(
-			"Compare weight of compatibility. Left Type: [{}]W[{}] Right Type: [{}]W[{}]",
-			leftColumn.getDataType(), rightColumn.getDataType(),
-			compatibleWeightOfLeft, compatibleWeightOfRight
+			"Compare weight of compatibility. Column: [{}]. Left Type: [{}]W[{}] Right Type: [{}]W[{}]",
+			new Object[] {
+				nameOfColumn,
+				leftType, compatibleWeightOfLeft,
+				rightType, compatibleWeightOfRight
+			}
 		);
 
 		if (compatibleWeightOfLeft > compatibleWeightOfRight) {
-			logger.trace("Choose column from left: {}", leftColumn);
-			return leftColumn;
+			return leftType;
 		}
 		if (compatibleWeightOfRight > compatibleWeightOfLeft) {
-			logger.trace("Choose column from right: {}", rightColumn);
-			return rightColumn;
+			return rightType;
 		}
 
 		logger.error(
-			"Can't discriminate the compatible for columns. Type(Left): [{}] Type(Right): [{}]",
-			leftColumn.getDataType(),
-			rightColumn.getDataType()
+			"Can't discriminate the compatible for columns. Column: [{}]. Type(Left): [{}] Type(Right): [{}]",
+			nameOfColumn, leftType, rightType
 		);
-		throw new RuntimeException("Can't discriminate the compatible for columns.");
-		// :~)
+		throw new RuntimeException("Can't discriminate the compatible for columns: " + nameOfColumn);
 	}
 	private int compatibleWeightOfDataType(DataType dataType)
 	{
@@ -406,48 +307,36 @@ public class YamlDataSet extends AbstractDataSet {
 			//STRUCT
 		}
 	}
-	private Map<String, Column> buildMapOfColumnName(Collection<Column> columns)
-	{
-		Map<String, Column> nameOfColumns = new HashMap<String, Column>(columns.size());
-
-		for (Column c: columns) {
-			nameOfColumns.put(c.getColumnName(), c);
-		}
-
-		return nameOfColumns;
-	}
-
-    private void mergeDataToTable(DefaultTable mergeTable, ITable srcTable, MutableInt numberOfRow)
-    {
-        logger.debug("Merge table rows: [{}]. Source table rows: [{}]",
-            mergeTable.getRowCount(), srcTable.getRowCount()
-        );
-
-        for (int i = 0; i < srcTable.getRowCount(); i++) {
-            try {
-                mergeTable.addRow();
-
-                for (Column c: srcTable.getTableMetaData().getColumns()) {
-                    Object value = srcTable.getValue(i, c.getColumnName());
-
-                    logger.debug(
-                        "Merge data. Row: [{}]. Column: [{}]. Data: [{}]",
-                        new Object[] {
-                            i, c.getColumnName(), value
-                        }
-                    );
-
-                    mergeTable.setValue(
-                        numberOfRow.intValue(), c.getColumnName(),
-                        value
-                    );
-                }
-            } catch (DataSetException e) {
-                logger.error("Merge data into new table error", e);
-                throw new RuntimeException(e);
-            }
+    /**
+     * The read-only table whose values are stored by columns.
+     */
+    private static class ColumnarTable extends AbstractTable {
+        private final ITableMetaData metaData;
+        private final Object[][] valuesOfColumns;
+        private final int rowCount;
+
+        private ColumnarTable(ITableMetaData newMetaData, Object[][] newValuesOfColumns, int newRowCount)
+        {
+            metaData = newMetaData;
+            valuesOfColumns = newValuesOfColumns;
+            rowCount = newRowCount;
+        }
 
-            numberOfRow.increment();
+        @Override
+        public ITableMetaData getTableMetaData()
+        {
+            return metaData;
+        }
+        @Override
+        public int getRowCount()
+        {
+            return rowCount;
+        }
+        @Override
+        public Object getValue(int row, String column) throws DataSetException
+        {
+            assertValidRowIndex(row);
+            return valuesOfColumns[getColumnIndex(column)][row];
         }
     }
 
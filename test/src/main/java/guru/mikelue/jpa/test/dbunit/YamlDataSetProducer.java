@@ -0,0 +1,359 @@
+package guru.mikelue.jpa.test.dbunit;
+
+import java.io.InputStream;
+import java.io.Reader;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.dbunit.dataset.Column;
+import org.dbunit.dataset.DataSetException;
+import org.dbunit.dataset.DefaultTableMetaData;
+import org.dbunit.dataset.datatype.DataType;
+import org.dbunit.dataset.stream.DefaultConsumer;
+import org.dbunit.dataset.stream.IDataSetConsumer;
+import org.dbunit.dataset.stream.IDataSetProducer;
+import org.dbunit.dataset.stream.StreamingDataSet;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.yaml.snakeyaml.Yaml;
+import org.yaml.snakeyaml.constructor.SafeConstructor;
+import org.yaml.snakeyaml.error.YAMLException;
+import org.yaml.snakeyaml.events.AliasEvent;
+import org.yaml.snakeyaml.events.Event;
+import org.yaml.snakeyaml.events.ScalarEvent;
+import org.yaml.snakeyaml.nodes.NodeId;
+import org.yaml.snakeyaml.nodes.ScalarNode;
+import org.yaml.snakeyaml.nodes.Tag;
+import org.yaml.snakeyaml.reader.UnicodeReader;
+import org.yaml.snakeyaml.resolver.Resolver;
+
+/**
+ * This class is a streaming {@link IDataSetProducer} of YAML, which has the same format as {@link YamlDataSet}.
+ *
+ * <p>The YAML is parsed by events of <a href="http://www.snakeyaml.org/">SnakeYaml</a>,
+ * so only one row is kept in memory and very large fixture could be used with {@link StreamingDataSet}:</p>
+ *
+ * <pre>{@code
+ * dbUnitBuilder.runDatabaseOperation(
+ *     new YamlDataSetProducer(inputStream), DatabaseOperation.INSERT
+ * );
+ * }</pre>
+ *
+ * <p>Differences from {@link YamlDataSet}:</p>
+ * <ul>
+ * 		<li>The type of every column is {@link DataType#UNKNOWN}, the operation of DbUnit resolves types from database.</li>
+ * 		<li>A row lacking some columns of the previous rows is produced with null values.
+ * 		If a row has new column, the table is ended and is started again(with the same name) with all of the known columns.</li>
+ * 		<li>Like {@link StreamingDataSet}, only forward operation(e.g. INSERT, UPDATE, REFRESH) is supported.</li>
+ * 		<li>Only aliases of scalar values(e.g. {@code d1_account: *account}) are supported.
+ * 		Aliases of mappings or sequences, including the merge key({@code <<: *base}), raise {@link DataSetException}.</li>
+ * </ul>
+ *
+ * <p>The source of YAML is not closed by this producer.</p>
+ *
+ * @see DbUnitBuilder#runDatabaseOperation(IDataSetProducer, org.dbunit.operation.DatabaseOperation)
+ */
+public class YamlDataSetProducer implements IDataSetProducer {
+    private Logger logger = LoggerFactory.getLogger(YamlDataSetProducer.class);
+
+    private final Reader reader;
+    private final Resolver resolver = new Resolver();
+    private final ScalarConstructor scalarConstructor = new ScalarConstructor();
+    private IDataSetConsumer consumer = new DefaultConsumer();
+    private final Map<String, Object> anchoredScalars = new HashMap<String, Object>();
+
+    /**
+     * Initalize producer of YAML from {@link InputStream}(BOM is respected and removed).
+     *
+     * @param inputStream the content of string in YAML format
+     */
+    public YamlDataSetProducer(InputStream inputStream)
+    {
+        this(new UnicodeReader(inputStream));
+    }
+    /**
+     * Initalize producer of YAML from {@link Reader}(BOM must not be present).
+     *
+     * @param newReader the content of string in YAML format
+     */
+    public YamlDataSetProducer(Reader newReader)
+    {
+        reader = newReader;
+    }
+
+    @Override
+    public void setConsumer(IDataSetConsumer newConsumer)
+    {
+        consumer = newConsumer;
+    }
+
+    @Override
+    public void produce() throws DataSetException
+    {
+        logger.trace("Producing YAML data from Reader: {}", reader);
+
+        anchoredScalars.clear();
+        try {
+            produce(new Yaml().parse(reader).iterator());
+        } catch (YAMLException e) {
+            logger.error("Parsing YAML error", e);
+            throw new DataSetException(e);
+        }
+    }
+
+    private void produce(Iterator<Event> events) throws DataSetException
+    {
+        consumer.startDataSet();
+
+        expectEvent(events, Event.ID.StreamStart);
+
+        /**
+         * Empty document
+         */
+        Event event = events.next();
+        if (event.is(Event.ID.StreamEnd)) {
+            consumer.endDataSet();
+            return;
+        }
+        // :~)
+
+        expectEvent(event, Event.ID.DocumentStart);
+        expectEvent(events, Event.ID.MappingStart);
+
+        /**
+         * Process every block as table
+         */
+        int numberOfTables = 0;
+        while (!(event = events.next()).is(Event.ID.MappingEnd)) {
+            expectEvent(event, Event.ID.Scalar);
+
+            produceTable(((ScalarEvent)event).getValue(), events);
+            numberOfTables++;
+        }
+        // :~)
+
+        logger.info("Number of produced tables: {}", numberOfTables);
+
+        consumer.endDataSet();
+    }
+
+    private void produceTable(String tableName, Iterator<Event> events) throws DataSetException
+    {
+        logger.debug("Producing table: {}", tableName);
+
+        TableEmitter tableEmitter = new TableEmitter(tableName);
+        Event event = events.next();
+
+        /**
+         * Multiple rows' data
+         */
+        if (event.is(Event.ID.SequenceStart)) {
+            while (!(event = events.next()).is(Event.ID.SequenceEnd)) {
+                if (!event.is(Event.ID.MappingStart)) {
+                    throw newUnsupportedTableException(tableName, event);
+                }
+
+                tableEmitter.emitRow(readRow(tableName, events));
+            }
+
+            tableEmitter.end();
+            return;
+        }
+        // :~)
+
+        /**
+         * Single row's data
+         */
+        if (event.is(Event.ID.MappingStart)) {
+            tableEmitter.emitRow(readRow(tableName, events));
+            tableEmitter.end();
+            return;
+        }
+        // :~)
+
+        throw newUnsupportedTableException(tableName, event);
+    }
+
+    /**
+     * Reads the events of a mapping(the start of mapping has been read).
+     */
+    private Map<String, Object> readRow(String tableName, Iterator<Event> events) throws DataSetException
+    {
+        Map<String, Object> rowDefAndData = new LinkedHashMap<String, Object>();
+
+        Event event;
+        while (!(event = events.next()).is(Event.ID.MappingEnd)) {
+            expectEvent(event, Event.ID.Scalar);
+            String nameOfColumn = ((ScalarEvent)event).getValue();
+
+            event = events.next();
+
+            /**
+             * Alias of anchored scalar value
+             */
+            if (event.is(Event.ID.Alias)) {
+                rowDefAndData.put(nameOfColumn, resolveAlias(tableName, nameOfColumn, (AliasEvent)event));
+                continue;
+            }
+            // :~)
+
+            if (!event.is(Event.ID.Scalar)) {
+                logger.error("Unsupported value of column. Table: [{}]. Column: [{}]. Event: {}", tableName, nameOfColumn, event);
+                throw new DataSetException(String.format(
+                    "Value of column[%s.%s] must be a YAML scalar. Not supported content: %s",
+                    tableName, nameOfColumn, event
+                ));
+            }
+
+            ScalarEvent scalarEvent = (ScalarEvent)event;
+            Object value = constructScalar(scalarEvent);
+            if (scalarEvent.getAnchor() != null) {
+                anchoredScalars.put(scalarEvent.getAnchor(), value);
+            }
+
+            rowDefAndData.put(nameOfColumn, value);
+        }
+
+        return rowDefAndData;
+    }
+
+    /**
+     * Gets the value of anchored scalar, the anchor of mapping or sequence(e.g., merge key "<<") is not supported.
+     */
+    private Object resolveAlias(String tableName, String nameOfColumn, AliasEvent aliasEvent) throws DataSetException
+    {
+        String anchor = aliasEvent.getAnchor();
+        if (!anchoredScalars.containsKey(anchor)) {
+            logger.error("Unsupported alias of column. Table: [{}]. Column: [{}]. Alias: [{}]", tableName, nameOfColumn, anchor);
+            throw new DataSetException(String.format(
+                "Alias[*%s] of column[%s.%s] must refer to an anchored scalar value(merge key \"<<\" is not supported)",
+                anchor, tableName, nameOfColumn
+            ));
+        }
+
+        return anchoredScalars.get(anchor);
+    }
+
+    /**
+     * Resolves the tag(as composer of SnakeYaml) and constructs the value of scalar.
+     */
+    private Object constructScalar(ScalarEvent scalarEvent)
+    {
+        String tag = scalarEvent.getTag();
+        Tag nodeTag;
+        boolean resolved = false;
+
+        if (tag == null || tag.equals("!")) {
+            nodeTag = resolver.resolve(
+                NodeId.scalar, scalarEvent.getValue(), scalarEvent.getImplicit().canOmitTagInPlainScalar()
+            );
+            resolved = true;
+        } else {
+            nodeTag = new Tag(tag);
+        }
+
+        return scalarConstructor.construct(new ScalarNode(
+            nodeTag, resolved, scalarEvent.getValue(),
+            scalarEvent.getStartMark(), scalarEvent.getEndMark(), scalarEvent.getStyle()
+        ));
+    }
+
+    private void expectEvent(Iterator<Event> events, Event.ID expectedId) throws DataSetException
+    {
+        expectEvent(events.next(), expectedId);
+    }
+    private void expectEvent(Event event, Event.ID expectedId) throws DataSetException
+    {
+        if (!event.is(expectedId)) {
+            logger.error("Unexpected YAML event: {}. Expected: {}", event, expectedId);
+            throw new DataSetException(String.format(
+                "The YAML format need to be \"Mapping\" of tables. Expected: %s. Current: %s", expectedId, event
+            ));
+        }
+    }
+    private DataSetException newUnsupportedTableException(String tableName, Event event)
+    {
+        logger.error("The YAML format need to be \"Mapping\" or \"Sequence of Mappings\". Table: [{}].\nEvent: {}",
+            tableName, event
+        );
+        return new DataSetException(String.format(
+            "Table[%s]'s data is not a YAML \"Mapping\" or \"Sequence of Mappings\". Not supported content: %s",
+            tableName, event
+        ));
+    }
+
+    /**
+     * Emits rows of a table to consumer, the table is restarted if a row has new column.
+     */
+    private class TableEmitter {
+        private final String tableName;
+        private Map<String, Integer> indexesOfColumns = null;
+
+        private TableEmitter(String newTableName)
+        {
+            tableName = newTableName;
+        }
+
+        private void emitRow(Map<String, Object> rowDefAndData) throws DataSetException
+        {
+            if (indexesOfColumns == null || !indexesOfColumns.keySet().containsAll(rowDefAndData.keySet())) {
+                restart(rowDefAndData);
+            }
+
+            Object[] cellData = new Object[indexesOfColumns.size()];
+            for (Map.Entry<String, Object> cell: rowDefAndData.entrySet()) {
+                cellData[indexesOfColumns.get(cell.getKey())] = cell.getValue();
+            }
+
+            consumer.row(cellData);
+        }
+        private void end() throws DataSetException
+        {
+            if (indexesOfColumns != null) {
+                consumer.endTable();
+            }
+        }
+
+        private void restart(Map<String, Object> rowDefAndData) throws DataSetException
+        {
+            end();
+
+            /**
+             * Keeps the known columns and appends new ones
+             */
+            Map<String, Integer> newIndexesOfColumns = indexesOfColumns == null ?
+                new LinkedHashMap<String, Integer>() :
+                new LinkedHashMap<String, Integer>(indexesOfColumns);
+            for (String nameOfColumn: rowDefAndData.keySet()) {
+                if (!newIndexesOfColumns.containsKey(nameOfColumn)) {
+                    newIndexesOfColumns.put(nameOfColumn, newIndexesOfColumns.size());
+                }
+            }
+            // :~)
+
+            Column[] columns = new Column[newIndexesOfColumns.size()];
+            for (Map.Entry<String, Integer> indexOfColumn: newIndexesOfColumns.entrySet()) {
+                columns[indexOfColumn.getValue()] = new Column(indexOfColumn.getKey(), DataType.UNKNOWN);
+            }
+
+            logger.debug("Start table: [{}]. Number of columns: [{}]", tableName, columns.length);
+
+            indexesOfColumns = newIndexesOfColumns;
+            consumer.startTable(new DefaultTableMetaData(tableName, columns));
+        }
+    }
+
+    /**
+     * Constructs value of scalar without caching of constructed objects.
+     */
+    private static class ScalarConstructor extends SafeConstructor {
+        private ScalarConstructor() {}
+
+        private Object construct(ScalarNode scalarNode)
+        {
+            return getConstructor(scalarNode).construct(scalarNode);
+        }
+    }
+}
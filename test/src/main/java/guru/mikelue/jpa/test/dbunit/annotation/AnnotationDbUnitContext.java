@@ -17,6 +17,8 @@ import org.slf4j.LoggerFactory;
  *
  * <p>Client should provides {@link DbUnitBuilder} and {@link DataSetBuilder} to construct this object.</p>
  *
+ * <p>The data set is built for every operation, {@link CachedDataSetBuilder} could be used to build data set only once.</p>
+ *
  * @see OpDataSet
  * @see DataSetOperation
  */
@@ -0,0 +1,132 @@
+package guru.mikelue.jpa.test.dbunit.annotation;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.dbunit.dataset.CachedDataSet;
+import org.dbunit.dataset.DataSetException;
+import org.dbunit.dataset.IDataSet;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * This builder caches the {@link IDataSet} built by another {@link DataSetBuilder}, keyed by class of data set.
+ *
+ * <p>The built data set is copied into a {@link CachedDataSet} once, so the data(e.g. {@link guru.mikelue.jpa.test.dbunit.YamlDataSet})
+ * is not parsed again for every annotated method. The copy is never modified, so it could be used by multiple threads.</p>
+ *
+ * <p>If the built data set is {@link LastModifiedDataSet}, the last-modified time is checked for every building,
+ * and the data set is built again by the enclosed builder if the time is changed.</p>
+ *
+ * <p>The cache is held by this object. To share the cache across multiple {@link AnnotationDbUnitContext contexts},
+ * gives the same object to them, or uses {@link #getSharedSimpleDataSetBuilder()}:</p>
+ *
+ * <pre>{@code
+ * new ReflectAnnotationDbUnitContext(dbUnitBuilder, CachedDataSetBuilder.getSharedSimpleDataSetBuilder());
+ * }</pre>
+ */
+public class CachedDataSetBuilder implements DataSetBuilder {
+    private final static CachedDataSetBuilder sharedSimpleDataSetBuilder = new CachedDataSetBuilder(new SimpleDataSetBuilder());
+
+    /**
+     * Gets the cached builder(shared in JVM) enclosing {@link SimpleDataSetBuilder}.
+     *
+     * @return The shared builder
+     */
+    public static CachedDataSetBuilder getSharedSimpleDataSetBuilder()
+    {
+        return sharedSimpleDataSetBuilder;
+    }
+
+    private Logger logger = LoggerFactory.getLogger(CachedDataSetBuilder.class);
+
+    private final DataSetBuilder enclosedBuilder;
+    private final ConcurrentMap<Class<? extends IDataSet>, CachedEntry> cachedEntries =
+        new ConcurrentHashMap<Class<? extends IDataSet>, CachedEntry>();
+
+    /**
+     * Initialize this object with the builder of data set.
+     *
+     * @param newEnclosedBuilder The builder to build data set if there is no cached one
+     */
+    public CachedDataSetBuilder(DataSetBuilder newEnclosedBuilder)
+    {
+        enclosedBuilder = newEnclosedBuilder;
+    }
+
+    /**
+     * Gets the cached data set or builds it by enclosed builder.
+     *
+     * @param classOfDataSet The class of {@link IDataSet}
+     *
+     * @return The cached data set(not modifiable)
+     *
+     * @throws BuildDataSetException The wrapper excpetion when building data fail
+     */
+    @Override
+    public IDataSet buildDataSet(final Class<? extends IDataSet> classOfDataSet) throws BuildDataSetException
+    {
+        CachedEntry cachedEntry = cachedEntries.get(classOfDataSet);
+        if (cachedEntry != null && !cachedEntry.isOutOfDate()) {
+            logger.trace("Uses cached data set: {}", classOfDataSet.getSimpleName());
+            return cachedEntry.dataSet;
+        }
+
+        return cachedEntries.compute(
+            classOfDataSet,
+            (clazz, currentEntry) ->
+                currentEntry != null && !currentEntry.isOutOfDate() ?
+                    currentEntry : buildEntry(clazz)
+        ).dataSet;
+    }
+
+    /**
+     * Removes all of the cached data sets.
+     */
+    public void clear()
+    {
+        cachedEntries.clear();
+    }
+
+    private CachedEntry buildEntry(Class<? extends IDataSet> classOfDataSet)
+    {
+        logger.debug("Build data set for cache: {}", classOfDataSet.getSimpleName());
+
+        IDataSet sourceDataSet = enclosedBuilder.buildDataSet(classOfDataSet);
+
+        try {
+            return new CachedEntry(sourceDataSet);
+        } catch (DataSetException e) {
+            throw new BuildDataSetException(classOfDataSet, e);
+        }
+    }
+
+    private static class CachedEntry {
+        private final IDataSet dataSet;
+        private final LastModifiedDataSet lastModifiedSource;
+        private final long lastModified;
+
+        private CachedEntry(IDataSet sourceDataSet) throws DataSetException
+        {
+            /**
+             * Keeps the time before copying, so the modification during copying would be detected next time
+             */
+            if (sourceDataSet instanceof LastModifiedDataSet) {
+                lastModifiedSource = (LastModifiedDataSet)sourceDataSet;
+                lastModified = lastModifiedSource.getLastModified();
+            } else {
+                lastModifiedSource = null;
+                lastModified = 0;
+            }
+            // :~)
+
+            dataSet = new CachedDataSet(sourceDataSet);
+        }
+
+        private boolean isOutOfDate()
+        {
+            return lastModifiedSource != null &&
+                lastModifiedSource.getLastModified() != lastModified;
+        }
+    }
+}
@@ -1,5 +1,7 @@
 package guru.mikelue.jpa.test.dbunit.annotation;
 
+import guru.mikelue.jpa.test.dbunit.BatchedDatabaseOperation;
+
 import org.dbunit.operation.DatabaseOperation;
 
 import java.lang.annotation.Annotation;
@@ -17,6 +19,18 @@ public enum DataSetOperation {
      * Map to {@link DatabaseOperation#CLEAN_INSERT}.
      */
     CleanInsert(DatabaseOperation.CLEAN_INSERT),
+    /**
+     * Map to {@link DatabaseOperation#INSERT} with JDBC-batched statements.
+     *
+     * @see BatchedDatabaseOperation
+     */
+    BatchedInsert(new BatchedDatabaseOperation(DatabaseOperation.INSERT)),
+    /**
+     * Map to {@link DatabaseOperation#CLEAN_INSERT} with JDBC-batched statements.
+     *
+     * @see BatchedDatabaseOperation
+     */
+    BatchedCleanInsert(new BatchedDatabaseOperation(DatabaseOperation.CLEAN_INSERT)),
     /**
      * Map to {@link DatabaseOperation#DELETE}.
      */
@@ -0,0 +1,16 @@
+package guru.mikelue.jpa.test.dbunit.annotation;
+
+import org.dbunit.dataset.IDataSet;
+
+/**
+ * The {@link IDataSet} whose source(e.g. file) could be modified,
+ * which is used by {@link CachedDataSetBuilder} to discard out-of-date data.
+ */
+public interface LastModifiedDataSet extends IDataSet {
+    /**
+     * Gets the last-modified time of source.
+     *
+     * @return The milliseconds from epoch, or 0 if the time is unknown
+     */
+    public long getLastModified();
+}
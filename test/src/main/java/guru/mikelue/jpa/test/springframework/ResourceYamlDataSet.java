@@ -1,6 +1,8 @@
 package guru.mikelue.jpa.test.springframework;
 
 import guru.mikelue.jpa.test.dbunit.YamlDataSet;
+import guru.mikelue.jpa.test.dbunit.annotation.CachedDataSetBuilder;
+import guru.mikelue.jpa.test.dbunit.annotation.LastModifiedDataSet;
 import guru.mikelue.jpa.test.springframework.DataSetBuilder;
 
 import org.dbunit.dataset.AbstractDataSet;
@@ -9,6 +11,7 @@ import org.dbunit.dataset.IDataSet;
 import org.dbunit.dataset.ITableIterator;
 import org.springframework.core.io.ResourceLoader;
 
+import java.io.IOException;
 import javax.annotation.PostConstruct;
 import javax.inject.Inject;
 
@@ -16,8 +19,11 @@ import javax.inject.Inject;
  * <p>This bean <b>must be managed in Spring environment</b>.</p>
  *
  * <p>The {@link YamlDataSet} would be initialized after this bean has been initialized.</p>
+ *
+ * <p>The last-modified time of resource is used by {@link CachedDataSetBuilder},
+ * the bean should be "prototype" scope to be re-loaded after the resource is modified.</p>
  */
-public class ResourceYamlDataSet extends AbstractDataSet {
+public class ResourceYamlDataSet extends AbstractDataSet implements LastModifiedDataSet {
     @Inject
     private ResourceLoader resourceLoader;
 
@@ -43,6 +49,21 @@ public class ResourceYamlDataSet extends AbstractDataSet {
         return yamlDataSet.iterator();
     }
 
+    /**
+     * Gets the last-modified time of resource.
+     *
+     * @return 0 if the time can't be resolved
+     */
+    @Override
+    public long getLastModified()
+    {
+        try {
+            return resourceLoader.getResource(resourcePath).lastModified();
+        } catch (IOException e) {
+            return 0;
+        }
+    }
+
     @PostConstruct
     private void initializeYamlDataSet()
     {
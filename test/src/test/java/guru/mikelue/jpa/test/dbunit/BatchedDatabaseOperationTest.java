@@ -0,0 +1,90 @@
+package guru.mikelue.jpa.test.dbunit;
+
+import org.dbunit.database.DatabaseConfig;
+import org.dbunit.database.IDatabaseConnection;
+import org.dbunit.dataset.IDataSet;
+import org.dbunit.operation.DatabaseOperation;
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.Test;
+
+import java.io.StringReader;
+
+public class BatchedDatabaseOperationTest extends AbstractDbUnitEnvTestBase {
+    public BatchedDatabaseOperationTest() {}
+
+    /**
+     * <p>Tests the inserting of rows by batches.</p>
+     */
+    @Test
+    public void insert()
+    {
+        StringBuilder yaml = new StringBuilder("tt_person:\n");
+        for (int i = 1; i <= 250; i++) {
+            yaml.append(String.format(" - {ps_id: %d, ps_name: \"Name of %d\"}\n", i, i));
+        }
+        yaml.append(" - {ps_id: 251}\n"); // Different columns
+
+        getDbUnitBuilder().runDatabaseOperation(
+            new YamlDataSetProducer(new StringReader(yaml.toString())),
+            new BatchedDatabaseOperation(DatabaseOperation.INSERT, 100)
+        );
+
+        Assert.assertEquals(
+            getJdbcTmpl().queryForObject("SELECT COUNT(*) FROM tt_person", Integer.class),
+            new Integer(251)
+        );
+        Assert.assertEquals(
+            getJdbcTmpl().queryForObject("SELECT ps_name FROM tt_person WHERE ps_id = 250", String.class),
+            "Name of 250"
+        );
+    }
+
+    /**
+     * <p>Tests the configuration of connection while executing, which must be restored after the execution.</p>
+     */
+    @Test
+    public void configuration()
+    {
+        class RecordingOperation extends DatabaseOperation {
+            IDatabaseConnection connection;
+            Object batchedStatements;
+            Object batchSize;
+
+            RecordingOperation() {}
+
+            @Override
+            public void execute(IDatabaseConnection newConnection, IDataSet dataSet)
+            {
+                connection = newConnection;
+                batchedStatements = connection.getConfig().getProperty(DatabaseConfig.FEATURE_BATCHED_STATEMENTS);
+                batchSize = connection.getConfig().getProperty(DatabaseConfig.PROPERTY_BATCH_SIZE);
+            }
+        }
+
+        RecordingOperation testOperation = new RecordingOperation();
+        getDbUnitBuilder().runDatabaseOperation(
+            buildTestData(), new BatchedDatabaseOperation(testOperation, 7)
+        );
+
+        Assert.assertEquals(testOperation.batchedStatements, Boolean.TRUE);
+        Assert.assertEquals(testOperation.batchSize, 7);
+
+        Assert.assertEquals(
+            testOperation.connection.getConfig().getProperty(DatabaseConfig.FEATURE_BATCHED_STATEMENTS),
+            Boolean.FALSE
+        );
+    }
+
+    @Test(expectedExceptions=IllegalArgumentException.class)
+    public void illegalBatchSize()
+    {
+        new BatchedDatabaseOperation(DatabaseOperation.INSERT, 0);
+    }
+
+    @AfterMethod
+    private void cleanData()
+    {
+        getJdbcTmpl().update("DELETE FROM tt_person");
+    }
+}
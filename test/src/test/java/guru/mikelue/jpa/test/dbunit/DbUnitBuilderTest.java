@@ -7,6 +7,8 @@ import org.testng.Assert;
 import org.testng.annotations.AfterMethod;
 import org.testng.annotations.Test;
 
+import java.io.StringReader;
+
 public class DbUnitBuilderTest extends AbstractDbUnitEnvTestBase {
     public DbUnitBuilderTest() {}
 
@@ -64,6 +66,31 @@ public class DbUnitBuilderTest extends AbstractDbUnitEnvTestBase {
         );
     }
 
+    /**
+     * <p>Tests building data by streaming of {@link YamlDataSetProducer}.</p>
+     */
+    @Test
+    public void buildDataByStreaming()
+    {
+        StringBuilder yaml = new StringBuilder("tt_person:\n");
+        for (int i = 1; i <= 500; i++) {
+            yaml.append(String.format(" - {ps_id: %d, ps_name: \"Name of %d\"}\n", i, i));
+        }
+
+        getDbUnitBuilder().runDatabaseOperation(
+            new YamlDataSetProducer(new StringReader(yaml.toString())), DatabaseOperation.INSERT
+        );
+
+        Assert.assertEquals(
+            getJdbcTmpl().queryForObject("SELECT COUNT(*) FROM tt_person", Integer.class),
+            new Integer(500)
+        );
+        Assert.assertEquals(
+            getJdbcTmpl().queryForObject("SELECT ps_name FROM tt_person WHERE ps_id = 500", String.class),
+            "Name of 500"
+        );
+    }
+
     /**
      * <p>Tests the callback for {@ink DbUnitConnectionConfigurer}.</p>
      */
@@ -95,6 +122,135 @@ public class DbUnitBuilderTest extends AbstractDbUnitEnvTestBase {
         Assert.assertTrue(configurer.called);
     }
 
+    /**
+     * <p>Tests the reusing of connection, which is configured only once.</p>
+     */
+    @Test
+    public void reuseConnection()
+    {
+        CountingConfigurer configurer = new CountingConfigurer();
+        DbUnitBuilder builder = DbUnitBuilder.build(
+            getDataSource(), getDataTypeFactory(), configurer
+        );
+        builder.setReuseConnection(true);
+
+        try {
+            builder.runDatabaseOperation(buildTestData(), DatabaseOperation.INSERT);
+            builder.runDatabaseOperation(buildTestData(), DatabaseOperation.DELETE_ALL);
+            builder.runDatabaseOperation(buildTestData(), DatabaseOperation.INSERT);
+
+            Assert.assertEquals(configurer.numberOfCalls, 1);
+            Assert.assertEquals(
+                getJdbcTmpl().queryForObject("SELECT COUNT(*) FROM tt_person", Integer.class),
+                new Integer(2)
+            );
+
+            /**
+             * Asserts the new connection after releasing
+             */
+            builder.releaseReusedConnection();
+            builder.runDatabaseOperation(buildTestData(), DatabaseOperation.DELETE_ALL);
+            Assert.assertEquals(configurer.numberOfCalls, 2);
+            // :~)
+        } finally {
+            builder.setReuseConnection(false);
+        }
+    }
+    /**
+     * <p>Tests the discarding of reused connection while a error occurs.</p>
+     */
+    @Test
+    public void reuseConnectionWithError()
+    {
+        CountingConfigurer configurer = new CountingConfigurer();
+        DbUnitBuilder builder = DbUnitBuilder.build(
+            getDataSource(), getDataTypeFactory(), configurer
+        );
+        builder.setReuseConnection(true);
+        builder.setRunAsTransaction(true);
+
+        try {
+            builder.runDatabaseOperation(buildTestData(), DatabaseOperation.INSERT);
+
+            try {
+                builder.runDatabaseOperation(buildTestData(), DatabaseOperation.INSERT); // Violation of primary key
+                Assert.fail("Uneffective test");
+            } catch (DbUnitExecuteException e) {
+            }
+
+            builder.runDatabaseOperation(buildTestData(), DatabaseOperation.CLEAN_INSERT);
+
+            Assert.assertEquals(configurer.numberOfCalls, 2);
+            Assert.assertEquals(
+                getJdbcTmpl().queryForObject("SELECT COUNT(*) FROM tt_person", Integer.class),
+                new Integer(2)
+            );
+        } finally {
+            builder.setReuseConnection(false);
+        }
+    }
+
+    /**
+     * <p>Tests the reusing of connection which is not auto-commit.</p>
+     */
+    @Test
+    public void reuseNonAutoCommitConnection()
+    {
+        DbUnitBuilder builder = DbUnitBuilder.build(
+            getDataSource(), getDataTypeFactory(),
+            conn -> conn.getConnection().setAutoCommit(false)
+        );
+        builder.setReuseConnection(true);
+
+        try {
+            /**
+             * Asserts the committed data of successful operation
+             */
+            builder.runDatabaseOperation(buildTestData(), DatabaseOperation.INSERT);
+            Assert.assertEquals(
+                getJdbcTmpl().queryForObject("SELECT COUNT(*) FROM tt_person", Integer.class),
+                new Integer(2)
+            );
+            // :~)
+
+            /**
+             * Asserts the rolled back data of failed operation
+             */
+            try {
+                builder.runDatabaseOperation(
+                    new YamlDataSet(
+                        " tt_person:\n" +
+                        " - { ps_id: 3, ps_name: 'Mike Lue' }\n" +
+                        " - { ps_id: 1, ps_name: 'Duplicated' }\n" // Violation of primary key
+                    ),
+                    DatabaseOperation.INSERT
+                );
+                Assert.fail("Uneffective test");
+            } catch (DbUnitExecuteException e) {
+            }
+
+            Assert.assertEquals(
+                getJdbcTmpl().queryForObject("SELECT COUNT(*) FROM tt_person", Integer.class),
+                new Integer(2)
+            );
+            // :~)
+        } finally {
+            builder.setReuseConnection(false);
+        }
+    }
+
+    private static class CountingConfigurer implements DbUnitConnectionConfigurer {
+        int numberOfCalls = 0;
+
+        CountingConfigurer() {}
+
+        @Override
+        public void config(IDatabaseConnection conn) throws Exception
+        {
+            numberOfCalls++;
+        }
+    }
+
     @AfterMethod
     private void cleanData()
     {
@@ -0,0 +1,154 @@
+package guru.mikelue.jpa.test.dbunit;
+
+import org.dbunit.dataset.Column;
+import org.dbunit.dataset.DataSetException;
+import org.dbunit.dataset.ITableMetaData;
+import org.dbunit.dataset.stream.DefaultConsumer;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+
+public class YamlDataSetProducerTest {
+    public YamlDataSetProducerTest() {}
+
+    /**
+     * <p>Tests the producing of tables and rows.</p>
+     */
+    @Test
+    public void produce() throws DataSetException
+    {
+        RecordingConsumer testConsumer = produce(
+            " tt_d1:\n" +
+            " - { d1_id: 101, d1_account: 'u001', d1_time_created: 2008-03-01 }\n" +
+            " - { d1_id: 102, d1_account: '102' }\n" +
+            " - { d1_id: 103, d1_account: 'u003', d1_password: null }\n" +
+            " - { d1_id: 104, d1_password: 'pw' }\n" +
+            " tt_d2: { d2_id: 100, d2_account: 'u001' }\n"
+        );
+
+        /**
+         * Asserts the tables(restarted for new column)
+         */
+        Assert.assertEquals(
+            testConsumer.events,
+            Arrays.asList(
+                "startDataSet",
+                "startTable:tt_d1[d1_id, d1_account, d1_time_created]", "row", "row", "endTable",
+                "startTable:tt_d1[d1_id, d1_account, d1_time_created, d1_password]", "row", "row", "endTable",
+                "startTable:tt_d2[d2_id, d2_account]", "row", "endTable",
+                "endDataSet"
+            )
+        );
+        // :~)
+
+        /**
+         * Asserts the values of rows
+         */
+        Assert.assertEquals(testConsumer.rows.get(0)[0], 101);
+        Assert.assertTrue(testConsumer.rows.get(0)[2] instanceof Date);
+        Assert.assertEquals(testConsumer.rows.get(1), new Object[] { 102, "102", null });
+        Assert.assertEquals(testConsumer.rows.get(3), new Object[] { 104, null, null, "pw" });
+        Assert.assertEquals(testConsumer.rows.get(4), new Object[] { 100, "u001" });
+        // :~)
+    }
+
+    /**
+     * <p>Tests if The content of YAML can't be recoginized as table data.</p>
+     */
+    @Test(expectedExceptions=DataSetException.class, expectedExceptionsMessageRegExp=".*Mapping.*")
+    public void wrongTableSyntax() throws DataSetException
+    {
+        produce("tt_data: Wrong Table Structure");
+    }
+
+    /**
+     * <p>Tests the value of column which is not a scalar.</p>
+     */
+    @Test(expectedExceptions=DataSetException.class, expectedExceptionsMessageRegExp=".*scalar.*")
+    public void nonScalarValue() throws DataSetException
+    {
+        produce("tt_data: [ { dt_value: [ 1, 2 ] } ]");
+    }
+
+    /**
+     * <p>Tests the alias of anchored scalar value.</p>
+     */
+    @Test
+    public void aliasOfScalar() throws DataSetException
+    {
+        RecordingConsumer testConsumer = produce(
+            " tt_d1:\n" +
+            " - { d1_id: 101, d1_account: &account 'u001' }\n" +
+            " - { d1_id: 102, d1_account: *account }\n"
+        );
+
+        Assert.assertEquals(testConsumer.rows.get(1), new Object[] { 102, "u001" });
+    }
+    /**
+     * <p>Tests the merge key("<<"), which is alias of mapping.</p>
+     */
+    @Test(expectedExceptions=DataSetException.class, expectedExceptionsMessageRegExp=".*\\*base.*scalar.*")
+    public void mergeKey() throws DataSetException
+    {
+        produce(
+            " tt_d1:\n" +
+            " - &base { d1_id: 101, d1_account: 'u001' }\n" +
+            " - { <<: *base, d1_id: 102 }\n"
+        );
+    }
+
+    private RecordingConsumer produce(String yaml) throws DataSetException
+    {
+        RecordingConsumer testConsumer = new RecordingConsumer();
+
+        YamlDataSetProducer testProducer = new YamlDataSetProducer(new StringReader(yaml));
+        testProducer.setConsumer(testConsumer);
+        testProducer.produce();
+
+        return testConsumer;
+    }
+
+    private static class RecordingConsumer extends DefaultConsumer {
+        List<String> events = new ArrayList<String>();
+        List<Object[]> rows = new ArrayList<Object[]>();
+
+        RecordingConsumer() {}
+
+        @Override
+        public void startDataSet()
+        {
+            events.add("startDataSet");
+        }
+        @Override
+        public void endDataSet()
+        {
+            events.add("endDataSet");
+        }
+        @Override
+        public void startTable(ITableMetaData metaData) throws DataSetException
+        {
+            List<String> namesOfColumns = new ArrayList<String>();
+            for (Column column: metaData.getColumns()) {
+                namesOfColumns.add(column.getColumnName());
+            }
+
+            events.add("startTable:" + metaData.getTableName() + namesOfColumns);
+        }
+        @Override
+        public void endTable()
+        {
+            events.add("endTable");
+        }
+        @Override
+        public void row(Object[] values)
+        {
+            events.add("row");
+            rows.add(values);
+        }
+    }
+}
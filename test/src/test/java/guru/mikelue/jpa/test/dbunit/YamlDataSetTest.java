@@ -6,6 +6,7 @@ import org.dbunit.dataset.DataSetException;
 import org.dbunit.dataset.IDataSet;
 import org.dbunit.dataset.ITable;
 import org.dbunit.dataset.ITableMetaData;
+import org.dbunit.dataset.datatype.DataType;
 import org.testng.Assert;
 import org.testng.annotations.Test;
 
@@ -135,6 +136,58 @@ public class YamlDataSetTest {
         Assert.assertEquals(dataTable.getRowCount(), 2);
     }
 
+    /**
+     * <p>Tests the loading of many rows with different columns.</p>
+     */
+    @Test(dependsOnMethods="normalLoad")
+    public void loadRowsWithDifferentColumns() throws DataSetException
+    {
+        final int numberOfRows = 3000;
+
+        StringBuilder yaml = new StringBuilder("tt_bulk:\n");
+        for (int i = 0; i < numberOfRows; i++) {
+            switch (i % 3) {
+                case 0:
+                    yaml.append(String.format("- { bk_id: %d, bk_name: null }\n", i));
+                    break;
+                case 1:
+                    yaml.append(String.format("- { bk_id: %d, bk_name: 'n-%d' }\n", i, i));
+                    break;
+                default:
+                    yaml.append(String.format("- { bk_id: %d, bk_code: %d }\n", i, i * 10));
+                    break;
+            }
+        }
+
+        ITable testedTable = new YamlDataSet(yaml.toString()).getTable("tt_bulk");
+        ITableMetaData testedMetaData = testedTable.getTableMetaData();
+
+        Assert.assertEquals(testedTable.getRowCount(), numberOfRows);
+        Assert.assertEquals(testedMetaData.getColumns().length, 3);
+        Assert.assertEquals(testedMetaData.getColumns()[0].getColumnName(), "bk_id");
+        Assert.assertEquals(
+            testedMetaData.getColumns()[testedMetaData.getColumnIndex("bk_name")].getDataType(),
+            DataType.VARCHAR
+        );
+
+        Assert.assertEquals(testedTable.getValue(2999, "bk_id"), 2999);
+        Assert.assertNull(testedTable.getValue(0, "bk_name"));
+        Assert.assertEquals(testedTable.getValue(1, "bk_name"), "n-1");
+        Assert.assertNull(testedTable.getValue(1, "bk_code"));
+        Assert.assertEquals(testedTable.getValue(2, "bk_code"), 20);
+    }
+
+    /**
+     * <p>Tests the column having types of same compatibility.</p>
+     */
+    @Test(expectedExceptions=RuntimeException.class, expectedExceptionsMessageRegExp=".*compatible.*")
+    public void incompatibleTypesOfColumn()
+    {
+        new YamlDataSet(
+            "tt_data: [ { dt_value: 10 }, { dt_value: 50000000000 } ]"
+        );
+    }
+
     /**
      * <p>Tests if The content of YAML can't be recoginized as table data.</p>
      */
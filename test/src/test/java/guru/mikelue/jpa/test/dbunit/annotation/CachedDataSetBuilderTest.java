@@ -0,0 +1,83 @@
+package guru.mikelue.jpa.test.dbunit.annotation;
+
+import guru.mikelue.jpa.test.dbunit.YamlDataSet;
+
+import org.dbunit.dataset.DataSetException;
+import org.dbunit.dataset.IDataSet;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+public class CachedDataSetBuilderTest {
+    public CachedDataSetBuilderTest() {}
+
+    /**
+     * Tests the data set is built only once.
+     */
+    @Test
+    public void buildDataSet() throws DataSetException
+    {
+        CountingDataSetBuilder countingBuilder = new CountingDataSetBuilder();
+        CachedDataSetBuilder testBuilder = new CachedDataSetBuilder(countingBuilder);
+
+        IDataSet firstDataSet = testBuilder.buildDataSet(SimpleYamlDataSet.class);
+        IDataSet secondDataSet = testBuilder.buildDataSet(SimpleYamlDataSet.class);
+
+        Assert.assertSame(secondDataSet, firstDataSet);
+        Assert.assertEquals(countingBuilder.numberOfBuilding, 1);
+        Assert.assertEquals(firstDataSet.getTable("tt_table").getValue(1, "tb_name"), "Name of 2");
+
+        /**
+         * Asserts the clearing of cache
+         */
+        testBuilder.clear();
+        testBuilder.buildDataSet(SimpleYamlDataSet.class);
+        Assert.assertEquals(countingBuilder.numberOfBuilding, 2);
+        // :~)
+    }
+
+    /**
+     * Tests the data set is built again if the source is modified.
+     */
+    @Test
+    public void buildModifiedDataSet()
+    {
+        CountingDataSetBuilder countingBuilder = new CountingDataSetBuilder();
+        CachedDataSetBuilder testBuilder = new CachedDataSetBuilder(countingBuilder);
+
+        ModifiedYamlDataSet.lastModified = 1000L;
+        IDataSet firstDataSet = testBuilder.buildDataSet(ModifiedYamlDataSet.class);
+        Assert.assertSame(testBuilder.buildDataSet(ModifiedYamlDataSet.class), firstDataSet);
+
+        ModifiedYamlDataSet.lastModified = 2000L;
+        Assert.assertNotSame(testBuilder.buildDataSet(ModifiedYamlDataSet.class), firstDataSet);
+        Assert.assertEquals(countingBuilder.numberOfBuilding, 2);
+    }
+
+    private static class CountingDataSetBuilder extends SimpleDataSetBuilder {
+        int numberOfBuilding = 0;
+
+        CountingDataSetBuilder() {}
+
+        @Override
+        public IDataSet buildDataSet(Class<? extends IDataSet> classOfDataSet) throws BuildDataSetException
+        {
+            numberOfBuilding++;
+            return super.buildDataSet(classOfDataSet);
+        }
+    }
+}
+
+class ModifiedYamlDataSet extends YamlDataSet implements LastModifiedDataSet {
+    static volatile long lastModified;
+
+    ModifiedYamlDataSet()
+    {
+        super("tt_modified: { md_id: 1 }");
+    }
+
+    @Override
+    public long getLastModified()
+    {
+        return lastModified;
+    }
+}